@@ -1,6 +1,7 @@
 package ar.edu.um.biblioteca;
 
 import ar.edu.um.biblioteca.modelo.Catalogo;
+import ar.edu.um.biblioteca.modelo.CatalogoIndexado;
 import ar.edu.um.biblioteca.modelo.Libro;
 import ar.edu.um.biblioteca.sistema.SistemaPrestamos;
 import ar.edu.um.biblioteca.ui.ConsolaUI;
@@ -12,7 +13,7 @@ public class BibliotecaApp {
 
     public static void main(String[] args) {
         // Inicializar el catálogo
-        Catalogo catalogo = new Catalogo();
+        Catalogo catalogo = new CatalogoIndexado();
         
         // Agregar algunos libros de ejemplo
         agregarLibrosEjemplo(catalogo);
@@ -0,0 +1,240 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Colección de libros en orden de alta, guardada en bloques de tamaño fijo en lugar de un único arreglo.
+ * Cada libro ocupa una ranura numerada: las altas se agregan al final del último bloque y las bajas
+ * dejan la ranura vacía, por lo que ninguna de las dos copia los libros siguientes ni reserva arreglos
+ * proporcionales al tamaño del catálogo (que en G1 serían objetos gigantes).
+ * Cuando las ranuras vacías superan a las ocupadas, los libros se compactan hacia el comienzo conservando
+ * su orden y se avisa a quien los indexa por ranura de las nuevas posiciones; el costo de la compactación
+ * se reparte entre las bajas que la provocaron.
+ * Opcionalmente guarda junto a cada ranura el identificador del autor del libro que asigna DiccionarioAutores,
+ * en bloques de int paralelos a los de libros que solo se reservan mientras el diccionario está habilitado.
+ */
+class AlmacenLibros extends AbstractCollection<Libro> {
+    private static final int TAMANIO_BLOQUE = 4096;
+
+    private Libro[][] bloques;
+    private int[][] idsAutor;
+    private int ranuras;
+    private int vacias;
+    private final ObjIntConsumer<Libro> alReubicar;
+
+    /**
+     * Constructor que inicializa un almacenamiento vacío
+     * @param alReubicar Acción que recibe cada libro que la compactación mueve y su nueva ranura
+     */
+    AlmacenLibros(ObjIntConsumer<Libro> alReubicar) {
+        this.bloques = new Libro[16][];
+        this.alReubicar = alReubicar;
+    }
+
+    /**
+     * Obtiene la ranura que ocupará el próximo libro agregado
+     * @return El número de ranura
+     */
+    int proximaRanura() {
+        return ranuras;
+    }
+
+    /**
+     * Agrega un libro en la ranura siguiente a la última
+     * @param libro El libro a agregar (no nulo)
+     * @return La ranura que ocupa el libro
+     */
+    int agregar(Libro libro) {
+        int bloque = ranuras / TAMANIO_BLOQUE;
+        if (bloque == bloques.length) {
+            bloques = Arrays.copyOf(bloques, bloques.length * 2);
+        }
+        if (bloques[bloque] == null) {
+            bloques[bloque] = new Libro[TAMANIO_BLOQUE];
+        }
+        bloques[bloque][ranuras % TAMANIO_BLOQUE] = libro;
+        return ranuras++;
+    }
+
+    /**
+     * Obtiene el libro de una ranura
+     * @param ranura El número de ranura
+     * @return El libro, o null si la ranura está vacía
+     */
+    Libro obtener(int ranura) {
+        return bloques[ranura / TAMANIO_BLOQUE][ranura % TAMANIO_BLOQUE];
+    }
+
+    /**
+     * Obtiene el identificador de autor anotado en una ranura
+     * @param ranura El número de ranura
+     * @return El identificador, o DiccionarioAutores.SIN_AUTOR si no se anotó ninguno
+     */
+    int idAutor(int ranura) {
+        int[] bloque = idsAutor != null && ranura / TAMANIO_BLOQUE < idsAutor.length ? idsAutor[ranura / TAMANIO_BLOQUE] : null;
+        return bloque != null ? bloque[ranura % TAMANIO_BLOQUE] : DiccionarioAutores.SIN_AUTOR;
+    }
+
+    /**
+     * Anota el identificador de autor del libro de una ranura
+     * @param ranura El número de ranura, ya ocupada
+     * @param id El identificador del autor
+     */
+    void setIdAutor(int ranura, int id) {
+        int bloque = ranura / TAMANIO_BLOQUE;
+        if (idsAutor == null) {
+            idsAutor = new int[bloques.length][];
+        } else if (idsAutor.length <= bloque) {
+            idsAutor = Arrays.copyOf(idsAutor, bloques.length);
+        }
+        if (idsAutor[bloque] == null) {
+            idsAutor[bloque] = new int[TAMANIO_BLOQUE];
+        }
+        idsAutor[bloque][ranura % TAMANIO_BLOQUE] = id;
+    }
+
+    /**
+     * Descarta todos los identificadores de autor anotados
+     */
+    void descartarIdsAutor() {
+        idsAutor = null;
+    }
+
+    /**
+     * Obtiene los libros cuyo identificador de autor pertenece a un conjunto, en orden de ranura.
+     * Solo se leen los identificadores: los libros que no coinciden no se tocan.
+     * @param ids Los identificadores buscados
+     * @return Lista nueva con los libros encontrados
+     */
+    List<Libro> librosDeAutores(BitSet ids) {
+        List<Libro> resultado = new ArrayList<>();
+        if (idsAutor == null || ids.isEmpty()) {
+            return resultado;
+        }
+        for (int bloque = 0; bloque < idsAutor.length && bloque * TAMANIO_BLOQUE < ranuras; bloque++) {
+            int[] idsBloque = idsAutor[bloque];
+            if (idsBloque == null) {
+                continue;
+            }
+            int hasta = Math.min(TAMANIO_BLOQUE, ranuras - bloque * TAMANIO_BLOQUE);
+            for (int i = 0; i < hasta; i++) {
+                if (ids.get(idsBloque[i])) {
+                    resultado.add(bloques[bloque][i]);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Vacía una ranura y compacta el almacenamiento si las ranuras vacías ya superan a las ocupadas.
+     * La compactación puede cambiar la ranura de los demás libros.
+     * @param ranura El número de ranura a vaciar
+     */
+    void quitar(int ranura) {
+        Libro[] bloque = bloques[ranura / TAMANIO_BLOQUE];
+        if (bloque[ranura % TAMANIO_BLOQUE] == null) {
+            return;
+        }
+        bloque[ranura % TAMANIO_BLOQUE] = null;
+        if (idAutor(ranura) != DiccionarioAutores.SIN_AUTOR) {
+            idsAutor[ranura / TAMANIO_BLOQUE][ranura % TAMANIO_BLOQUE] = DiccionarioAutores.SIN_AUTOR;
+        }
+        vacias++;
+        if (vacias > ranuras / 2) {
+            compactar();
+        }
+    }
+
+    @Override
+    public int size() {
+        return ranuras - vacias;
+    }
+
+    @Override
+    public Iterator<Libro> iterator() {
+        return new Iterator<>() {
+            private int siguiente = avanzar(0);
+
+            @Override
+            public boolean hasNext() {
+                return siguiente < ranuras;
+            }
+
+            @Override
+            public Libro next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Libro libro = obtener(siguiente);
+                siguiente = avanzar(siguiente + 1);
+                return libro;
+            }
+        };
+    }
+
+    /**
+     * Divide el recorrido por rangos de ranuras, para que los flujos paralelos repartan el trabajo en partes iguales
+     */
+    @Override
+    public Spliterator<Libro> spliterator() {
+        return IntStream.range(0, ranuras).mapToObj(this::obtener).filter(Objects::nonNull).spliterator();
+    }
+
+    /**
+     * Obtiene la primera ranura ocupada a partir de una posición, o la cantidad de ranuras si no hay ninguna
+     */
+    private int avanzar(int desde) {
+        int ranura = desde;
+        while (ranura < ranuras && obtener(ranura) == null) {
+            ranura++;
+        }
+        return ranura;
+    }
+
+    /**
+     * Mueve los libros hacia el comienzo sin cambiar su orden y libera los bloques que quedan sin usar
+     */
+    private void compactar() {
+        int destino = 0;
+        for (int origen = 0; origen < ranuras; origen++) {
+            Libro libro = obtener(origen);
+            if (libro == null) {
+                continue;
+            }
+            if (destino != origen) {
+                bloques[destino / TAMANIO_BLOQUE][destino % TAMANIO_BLOQUE] = libro;
+                int id = idAutor(origen);
+                if (id != DiccionarioAutores.SIN_AUTOR || idAutor(destino) != DiccionarioAutores.SIN_AUTOR) {
+                    setIdAutor(destino, id);
+                }
+                alReubicar.accept(libro, destino);
+            }
+            destino++;
+        }
+
+        int bloquesUsados = (destino + TAMANIO_BLOQUE - 1) / TAMANIO_BLOQUE;
+        if (destino % TAMANIO_BLOQUE != 0) {
+            Arrays.fill(bloques[bloquesUsados - 1], destino % TAMANIO_BLOQUE, TAMANIO_BLOQUE, null);
+            if (idsAutor != null && bloquesUsados <= idsAutor.length && idsAutor[bloquesUsados - 1] != null) {
+                Arrays.fill(idsAutor[bloquesUsados - 1], destino % TAMANIO_BLOQUE, TAMANIO_BLOQUE, DiccionarioAutores.SIN_AUTOR);
+            }
+        }
+        Arrays.fill(bloques, bloquesUsados, bloques.length, null);
+        if (idsAutor != null) {
+            Arrays.fill(idsAutor, Math.min(bloquesUsados, idsAutor.length), idsAutor.length, null);
+        }
+        ranuras = destino;
+        vacias = 0;
+    }
+}
@@ -0,0 +1,131 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Árbol BK (Burkhard-Keller) de palabras ordenado por distancia de edición.
+ * Cada hijo de un nodo se cuelga según su distancia al nodo, de modo que una búsqueda
+ * con tolerancia k solo desciende por los hijos a distancia entre d - k y d + k,
+ * evitando calcular la distancia contra todo el diccionario.
+ */
+class ArbolBK {
+    private Nodo raiz;
+    private int tamanio;
+
+    /**
+     * Agrega una palabra al árbol si no estaba
+     * @param palabra La palabra a agregar
+     */
+    void agregar(String palabra) {
+        if (raiz == null) {
+            raiz = new Nodo(palabra);
+            tamanio++;
+            return;
+        }
+
+        Nodo actual = raiz;
+        while (true) {
+            int distancia = distancia(actual.palabra, palabra);
+            if (distancia == 0) {
+                return;
+            }
+            Nodo hijo = actual.hijos.get(distancia);
+            if (hijo == null) {
+                actual.hijos.put(distancia, new Nodo(palabra));
+                tamanio++;
+                return;
+            }
+            actual = hijo;
+        }
+    }
+
+    /**
+     * Busca las palabras a distancia de edición menor o igual a la indicada
+     * @param consulta La palabra buscada
+     * @param distanciaMaxima La distancia de edición máxima admitida
+     * @return Mapa de cada palabra encontrada a su distancia de la consulta
+     */
+    Map<String, Integer> buscar(String consulta, int distanciaMaxima) {
+        Map<String, Integer> resultado = new LinkedHashMap<>();
+        if (raiz == null) {
+            return resultado;
+        }
+
+        Deque<Nodo> pendientes = new ArrayDeque<>();
+        pendientes.push(raiz);
+        while (!pendientes.isEmpty()) {
+            Nodo nodo = pendientes.pop();
+            int distancia = distancia(nodo.palabra, consulta);
+            if (distancia <= distanciaMaxima) {
+                resultado.put(nodo.palabra, distancia);
+            }
+            for (Map.Entry<Integer, Nodo> hijo : nodo.hijos.entrySet()) {
+                if (Math.abs(hijo.getKey() - distancia) <= distanciaMaxima) {
+                    pendientes.push(hijo.getValue());
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene la cantidad de palabras del árbol
+     * @return Número de palabras
+     */
+    int tamanio() {
+        return tamanio;
+    }
+
+    /**
+     * Reconstruye el árbol con las palabras indicadas, descartando las demás
+     * @param palabras Las palabras que deben quedar en el árbol
+     */
+    void reconstruir(Collection<String> palabras) {
+        raiz = null;
+        tamanio = 0;
+        for (String palabra : palabras) {
+            agregar(palabra);
+        }
+    }
+
+    /**
+     * Calcula la distancia de Levenshtein entre dos palabras
+     * @param a La primera palabra
+     * @param b La segunda palabra
+     * @return Cantidad mínima de inserciones, borrados y sustituciones para transformar a en b
+     */
+    static int distancia(String a, String b) {
+        int[] anterior = new int[b.length() + 1];
+        int[] actual = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            anterior[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            actual[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int sustitucion = anterior[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                actual[j] = Math.min(sustitucion, Math.min(anterior[j], actual[j - 1]) + 1);
+            }
+            int[] auxiliar = anterior;
+            anterior = actual;
+            actual = auxiliar;
+        }
+        return anterior[b.length()];
+    }
+
+    private static class Nodo {
+        private final String palabra;
+        private final Map<Integer, Nodo> hijos;
+
+        private Nodo(String palabra) {
+            this.palabra = palabra;
+            this.hijos = new HashMap<>();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Implementaciones de las búsquedas del catálogo que recorren todos los libros en lugar de usar índices.
+ * Las usan los catálogos que no mantienen los índices de CatalogoIndexado (el concurrente y el fuera del heap)
+ * y devuelven los mismos resultados que las versiones indexadas.
+ */
+final class BusquedasPorRecorrido {
+
+    private BusquedasPorRecorrido() {
+    }
+
+    /**
+     * Busca los libros cuyo texto contiene todas las palabras indicadas
+     * @param libros Los libros a recorrer, en orden de inserción
+     * @param palabras Las palabras a buscar
+     * @param texto El texto de cada libro en el que se busca (título o autor)
+     * @return Lista de libros que contienen todas las palabras
+     */
+    static List<Libro> buscarPorPalabras(Iterable<Libro> libros, String palabras, Function<Libro, String> texto) {
+        List<Libro> resultado = new ArrayList<>();
+        Set<String> buscadas = IndiceInvertido.tokenizar(palabras);
+        for (Libro libro : libros) {
+            if (IndiceInvertido.tokenizar(texto.apply(libro)).containsAll(buscadas)) {
+                resultado.add(libro);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Resuelve una consulta compuesta partiendo del libro con el ISBN buscado, de los libros del estado
+     * buscado o, si la consulta no restringe ninguno de los dos, de todo el catálogo
+     * @param catalogo El catálogo a consultar
+     * @param consulta Los criterios de búsqueda
+     * @return Lista de libros que cumplen todos los criterios
+     */
+    static List<Libro> buscar(Catalogo catalogo, Consulta consulta) {
+        List<Libro> resultado = new ArrayList<>();
+        String claveTitulo = consulta.getClaveTitulo();
+        String claveAutor = consulta.getClaveAutor();
+        Stream<Libro> candidatos;
+        if (consulta.getIsbnBuscado() != null) {
+            candidatos = Stream.ofNullable(catalogo.buscarPorIsbn(consulta.getIsbnBuscado()));
+        } else if (consulta.getEstado() != null) {
+            candidatos = catalogo.streamPorEstado(consulta.getEstado());
+        } else {
+            candidatos = catalogo.streamLibros();
+        }
+        candidatos.filter(libro -> consulta.cumple(libro, claveTitulo, claveAutor)).forEach(resultado::add);
+        return resultado;
+    }
+
+    /**
+     * Busca los libros más relevantes según BM25, calculando las estadísticas con un recorrido
+     * @param libros Los libros a recorrer, en orden de inserción
+     * @param palabras Las palabras a buscar
+     * @param cantidad Cantidad máxima de resultados
+     * @param texto El texto de cada libro en el que se busca (título o autor)
+     * @return Lista con hasta cantidad libros, del más relevante al menos relevante
+     */
+    static List<Libro> buscarMasRelevantes(Iterable<Libro> libros, String palabras, int cantidad,
+                                           Function<Libro, String> texto) {
+        Set<String> buscadas = IndiceInvertido.tokenizar(palabras);
+        Map<Libro, Set<String>> palabrasPorLibro = new LinkedHashMap<>();
+        Map<String, Integer> textosConPalabra = new HashMap<>();
+        long sumaLongitudes = 0;
+        for (Libro libro : libros) {
+            Set<String> palabrasDelLibro = IndiceInvertido.tokenizar(texto.apply(libro));
+            palabrasPorLibro.put(libro, palabrasDelLibro);
+            sumaLongitudes += palabrasDelLibro.size();
+            for (String buscada : buscadas) {
+                if (palabrasDelLibro.contains(buscada)) {
+                    textosConPalabra.merge(buscada, 1, Integer::sum);
+                }
+            }
+        }
+
+        int total = palabrasPorLibro.size();
+        double longitudPromedio = total == 0 ? 0 : (double) sumaLongitudes / total;
+        Map<Libro, Double> puntajes = new LinkedHashMap<>();
+        for (Map.Entry<Libro, Set<String>> entrada : palabrasPorLibro.entrySet()) {
+            for (String buscada : buscadas) {
+                if (entrada.getValue().contains(buscada)) {
+                    double puntaje = IndiceInvertido.bm25(textosConPalabra.get(buscada), total,
+                            entrada.getValue().size(), longitudPromedio);
+                    puntajes.merge(entrada.getKey(), puntaje, Double::sum);
+                }
+            }
+        }
+        return IndiceInvertido.mejores(puntajes, cantidad);
+    }
+
+    /**
+     * Busca los libros que tienen, para cada palabra de la consulta, una palabra a distancia de edición acotada
+     * @param libros Los libros a recorrer, en orden de inserción
+     * @param palabras Las palabras a buscar
+     * @param distanciaMaxima La distancia de edición máxima admitida para cada palabra
+     * @param texto El texto de cada libro en el que se busca (título o autor)
+     * @return Lista de libros que coinciden, de la coincidencia más cercana a la más lejana
+     */
+    static List<Libro> buscarAproximado(Iterable<Libro> libros, String palabras, int distanciaMaxima,
+                                        Function<Libro, String> texto) {
+        Set<String> buscadas = IndiceInvertido.tokenizar(palabras);
+        Map<Libro, Integer> distancias = new LinkedHashMap<>();
+        if (buscadas.isEmpty()) {
+            return new ArrayList<>();
+        }
+        for (Libro libro : libros) {
+            Set<String> palabrasDelLibro = IndiceInvertido.tokenizar(texto.apply(libro));
+            int total = 0;
+            for (String buscada : buscadas) {
+                int menor = Integer.MAX_VALUE;
+                for (String palabra : palabrasDelLibro) {
+                    menor = Math.min(menor, ArbolBK.distancia(palabra, buscada));
+                }
+                if (menor > distanciaMaxima) {
+                    total = -1;
+                    break;
+                }
+                total += menor;
+            }
+            if (total >= 0) {
+                distancias.put(libro, total);
+            }
+        }
+
+        List<Libro> resultado = new ArrayList<>(distancias.keySet());
+        resultado.sort(Comparator.comparingInt(distancias::get));
+        return resultado;
+    }
+}
@@ -0,0 +1,131 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Caché de resultados de búsquedas por subcadena con desalojo LRU (el menos usado recientemente).
+ * Las consultas se guardan por su clave de búsqueda. Como un libro pertenece al resultado de una consulta
+ * exactamente cuando su clave contiene la de la consulta, al modificarse un libro solo se descartan
+ * las consultas que lo incluían o pasan a incluirlo. Para no recorrer toda la caché en cada cambio, se lleva
+ * la cuenta de las longitudes de las consultas guardadas y se buscan en ella las subcadenas de la clave del libro
+ * de esas longitudes.
+ */
+class CacheBusquedas {
+    private final int capacidad;
+    private final Map<String, List<Libro>> resultados;
+    private final TreeMap<Integer, Integer> consultasPorLongitud;
+
+    /**
+     * Constructor que inicializa una caché vacía
+     * @param capacidad Cantidad máxima de consultas guardadas
+     */
+    CacheBusquedas(int capacidad) {
+        this.capacidad = capacidad;
+        this.consultasPorLongitud = new TreeMap<>();
+        this.resultados = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<Libro>> masAntigua) {
+                if (size() <= CacheBusquedas.this.capacidad) {
+                    return false;
+                }
+                descontar(masAntigua.getKey());
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Obtiene una copia del resultado guardado para una consulta
+     * @param consulta La clave de búsqueda de la consulta
+     * @return Copia del resultado, o null si la consulta no está en la caché
+     */
+    List<Libro> obtener(String consulta) {
+        List<Libro> resultado = resultados.get(consulta);
+        return resultado != null ? new ArrayList<>(resultado) : null;
+    }
+
+    /**
+     * Guarda una copia del resultado de una consulta, desalojando la menos usada si se supera la capacidad
+     * @param consulta La clave de búsqueda de la consulta
+     * @param resultado El resultado de la consulta
+     */
+    void guardar(String consulta, List<Libro> resultado) {
+        if (resultados.put(consulta, new ArrayList<>(resultado)) == null) {
+            consultasPorLongitud.merge(consulta.length(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Descarta las consultas cuyo resultado incluye a un libro con la clave indicada
+     * @param clave La clave de búsqueda del título o autor de un libro agregado, quitado o modificado
+     */
+    void invalidar(String clave) {
+        if (clave == null || resultados.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, Integer> longitudes = consultasPorLongitud.headMap(clave.length(), true);
+        if ((long) clave.length() * longitudes.size() >= resultados.size()) {
+            // Hay menos consultas que subcadenas por probar: conviene recorrerlas
+            resultados.keySet().removeIf(consulta -> {
+                if (!clave.contains(consulta)) {
+                    return false;
+                }
+                descontar(consulta);
+                return true;
+            });
+            return;
+        }
+
+        List<String> afectadas = new ArrayList<>();
+        for (int longitud : longitudes.keySet()) {
+            for (int inicio = 0; inicio + longitud <= clave.length(); inicio++) {
+                String subcadena = clave.substring(inicio, inicio + longitud);
+                if (resultados.containsKey(subcadena)) {
+                    afectadas.add(subcadena);
+                }
+            }
+        }
+        for (String consulta : afectadas) {
+            if (resultados.remove(consulta) != null) {
+                descontar(consulta);
+            }
+        }
+    }
+
+    /**
+     * Descarta todas las consultas guardadas
+     */
+    void vaciar() {
+        resultados.clear();
+        consultasPorLongitud.clear();
+    }
+
+    /**
+     * Obtiene la capacidad de la caché
+     * @return Cantidad máxima de consultas guardadas
+     */
+    int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Obtiene la cantidad de consultas guardadas
+     * @return Número de consultas en la caché
+     */
+    int tamanio() {
+        return resultados.size();
+    }
+
+    /**
+     * Quita una consulta de la cuenta por longitud
+     * @param consulta La consulta descartada
+     */
+    private void descontar(String consulta) {
+        consultasPorLongitud.computeIfPresent(consulta.length(), (longitud, cantidad) -> cantidad > 1 ? cantidad - 1 : null);
+    }
+}
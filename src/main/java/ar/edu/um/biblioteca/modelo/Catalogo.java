@@ -1,178 +1,383 @@
 package ar.edu.um.biblioteca.modelo;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
- * Clase que gestiona la colección de libros en la biblioteca
+ * Interfaz que define las operaciones de la colección de libros de la biblioteca.
+ * CatalogoIndexado mantiene índices en memoria para cada tipo de búsqueda, CatalogoConcurrente puede
+ * compartirse entre varios hilos y CatalogoFueraDelHeap guarda los libros fuera del heap para colecciones
+ * muy grandes; las tres devuelven los mismos resultados para las mismas operaciones.
+ * Las opciones de índices y de caché son optativas: las implementaciones que no las ofrecen las ignoran.
  */
-public class Catalogo {
-    private List<Libro> libros;
-
-    /**
-     * Constructor que inicializa un catálogo vacío
-     */
-    public Catalogo() {
-        this.libros = new ArrayList<>();
-    }
+public interface Catalogo {
 
     /**
      * Agrega un libro al catálogo
      * @param libro El libro a agregar
      * @return true si se agregó correctamente, false si ya existía un libro con el mismo ISBN
      */
-    public boolean agregarLibro(Libro libro) {
-        // Verificar que el libro no sea nulo
-        if (libro == null) {
-            return false;
-        }
-        
-        // Verificar si ya existe un libro con el mismo ISBN
-        for (Libro l : libros) {
-            if (l.getIsbn().equals(libro.getIsbn())) {
-                return false;
-            }
-        }
-        
-        return libros.add(libro);
-    }
-
-    /**
-     * Busca un libro por su ISBN
+    boolean agregarLibro(Libro libro);
+
+    /**
+     * Agrega una colección de libros al catálogo en una sola pasada.
+     * Un registro es inválido si es nulo, no tiene ISBN o le falta el título o el autor, y es duplicado
+     * si su ISBN ya existe en el catálogo o aparece antes en la misma colección.
+     * Los libros válidos se agregan en el orden de la colección.
+     * @param libros Los libros a agregar
+     * @return Resumen con el resultado de cada registro, en el orden de la colección
+     */
+    ResultadoImportacion agregarLibros(Collection<Libro> libros);
+
+    /**
+     * Agrega al catálogo los libros de un flujo en una sola pasada
+     * @param libros El flujo de libros a agregar
+     * @return Resumen con el resultado de cada registro, en el orden del flujo
+     * @see #agregarLibros(Collection)
+     */
+    ResultadoImportacion agregarLibros(Stream<Libro> libros);
+
+    /**
+     * Busca un libro por su ISBN, con o sin guiones y en su forma ISBN-10 o ISBN-13
      * @param isbn El ISBN del libro a buscar
      * @return El libro encontrado o null si no existe
      */
-    public Libro buscarPorIsbn(String isbn) {
-        // Verificar que el ISBN no sea nulo o vacío
-        if (isbn == null || isbn.trim().isEmpty()) {
-            return null;
-        }
-        
-        for (Libro libro : libros) {
-            if (libro.getIsbn().equals(isbn)) {
-                return libro;
-            }
-        }
-        return null;
-    }
+    Libro buscarPorIsbn(String isbn);
 
     /**
      * Obtiene todos los libros del catálogo
-     * @return Lista con todos los libros
+     * @return Lista con todos los libros, en orden de inserción
+     */
+    List<Libro> obtenerTodosLosLibros();
+
+    /**
+     * Obtiene un flujo perezoso sobre todos los libros del catálogo, en orden de inserción.
+     * A diferencia de obtenerTodosLosLibros, no copia la colección.
+     * @return Flujo con todos los libros
+     */
+    Stream<Libro> streamLibros();
+
+    /**
+     * Obtiene una página de todos los libros del catálogo, en orden de inserción
+     * @param desde Cantidad de libros a saltear desde el comienzo
+     * @param cantidad Cantidad máxima de libros a devolver
+     * @return Lista con los libros de la página, vacía si los parámetros son negativos
      */
-    public List<Libro> obtenerTodosLosLibros() {
-        return new ArrayList<>(libros);
-    }
+    List<Libro> obtenerPagina(int desde, int cantidad);
 
     /**
-     * Obtiene todos los libros en estado DISPONIBLE
+     * Obtiene un flujo perezoso sobre todos los libros ordenados por título, según las reglas del español
+     * @return Flujo con todos los libros ordenados por título
+     */
+    Stream<Libro> streamOrdenadoPorTitulo();
+
+    /**
+     * Obtiene un flujo perezoso sobre todos los libros ordenados por autor, según las reglas del español.
+     * Los libros de un mismo autor quedan ordenados por ISBN.
+     * @return Flujo con todos los libros ordenados por autor
+     */
+    Stream<Libro> streamOrdenadoPorAutor();
+
+    /**
+     * Obtiene una página de todos los libros del catálogo ordenados por título
+     * @param desde Cantidad de libros a saltear desde el comienzo
+     * @param cantidad Cantidad máxima de libros a devolver
+     * @return Lista con los libros de la página, vacía si los parámetros son negativos
+     */
+    List<Libro> obtenerPaginaPorTitulo(int desde, int cantidad);
+
+    /**
+     * Obtiene una página de todos los libros del catálogo ordenados por autor
+     * @param desde Cantidad de libros a saltear desde el comienzo
+     * @param cantidad Cantidad máxima de libros a devolver
+     * @return Lista con los libros de la página, vacía si los parámetros son negativos
+     */
+    List<Libro> obtenerPaginaPorAutor(int desde, int cantidad);
+
+    /**
+     * Obtiene un flujo perezoso sobre los libros que se encuentran en un estado determinado
+     * @param estado El estado buscado
+     * @return Flujo con los libros en ese estado, en el orden en que pasaron a él, vacío si el estado es nulo
+     */
+    Stream<Libro> streamPorEstado(Estado estado);
+
+    /**
+     * Busca los libros cuyo ISBN comienza con el prefijo indicado, por ejemplo el prefijo de una editorial
+     * como "978-84-376". El prefijo se compara con la forma ISBN-13 sin guiones, por lo que también
+     * encuentra los libros registrados con su ISBN-10.
+     * @param prefijo El comienzo del ISBN, con o sin guiones
+     * @return Lista de libros con ese prefijo ordenada por ISBN, vacía si el prefijo es nulo o vacío
+     */
+    List<Libro> buscarPorPrefijoIsbn(String prefijo);
+
+    /**
+     * Busca los libros cuyo ISBN está en el rango indicado, comparando las formas ISBN-13 sin guiones
+     * @param desde El menor ISBN del rango, incluido
+     * @param hasta El mayor ISBN del rango, excluido
+     * @return Lista de libros del rango ordenada por ISBN, vacía si algún extremo es nulo o el rango está vacío
+     */
+    List<Libro> buscarPorRangoIsbn(String desde, String hasta);
+
+    /**
+     * Obtiene todos los libros que se encuentran en un estado determinado.
+     * Los libros se listan en el orden en que pasaron a ese estado, no en el de inserción:
+     * un libro prestado y devuelto queda último entre los disponibles.
+     * @param estado El estado buscado
+     * @return Lista con los libros en ese estado, en el orden en que pasaron a él
+     */
+    List<Libro> obtenerLibrosPorEstado(Estado estado);
+
+    /**
+     * Obtiene todos los libros en estado DISPONIBLE, en el orden en que pasaron a ese estado
+     * (ver obtenerLibrosPorEstado)
      * @return Lista con los libros disponibles
      */
-    public List<Libro> obtenerLibrosDisponibles() {
-        List<Libro> disponibles = new ArrayList<>();
-        
-        for (Libro libro : libros) {
-            if (libro.getEstado() == Estado.DISPONIBLE) {
-                disponibles.add(libro);
-            }
-        }
-        
-        return disponibles;
-    }
-    
-    /**
-     * Obtiene todos los libros en estado PRESTADO
+    List<Libro> obtenerLibrosDisponibles();
+
+    /**
+     * Obtiene todos los libros en estado PRESTADO, en el orden en que se prestaron
+     * (ver obtenerLibrosPorEstado)
      * @return Lista con los libros prestados
      */
-    public List<Libro> obtenerLibrosPrestados() {
-        List<Libro> prestados = new ArrayList<>();
-        
-        for (Libro libro : libros) {
-            if (libro.getEstado() == Estado.PRESTADO) {
-                prestados.add(libro);
-            }
-        }
-        
-        return prestados;
-    }
-    
+    List<Libro> obtenerLibrosPrestados();
+
     /**
      * Elimina un libro del catálogo por su ISBN
      * @param isbn El ISBN del libro a eliminar
      * @return true si se eliminó correctamente, false si no se encontró el libro
      */
-    public boolean eliminarLibro(String isbn) {
-        Libro libro = buscarPorIsbn(isbn);
-        if (libro != null) {
-            return libros.remove(libro);
-        }
-        return false;
-    }
-    
+    boolean eliminarLibro(String isbn);
+
     /**
-     * Busca libros por autor
+     * Busca libros por autor, sin distinguir mayúsculas ni tildes
      * @param autor El autor a buscar
-     * @return Lista de libros del autor especificado
-     */
-    public List<Libro> buscarPorAutor(String autor) {
-        List<Libro> resultado = new ArrayList<>();
-        
-        // Si el autor es nulo o vacío, retornar lista vacía
-        if (autor == null || autor.trim().isEmpty()) {
-            return resultado;
-        }
-        
-        for (Libro libro : libros) {
-            if (libro.getAutor().toLowerCase().contains(autor.toLowerCase())) {
-                resultado.add(libro);
-            }
-        }
-        
-        return resultado;
-    }
-    
-    /**
-     * Busca libros por título
+     * @return Lista de libros del autor especificado, en orden de inserción
+     */
+    List<Libro> buscarPorAutor(String autor);
+
+    /**
+     * Busca libros por título, sin distinguir mayúsculas ni tildes
      * @param titulo El título a buscar
-     * @return Lista de libros que contienen el título especificado
-     */
-    public List<Libro> buscarPorTitulo(String titulo) {
-        List<Libro> resultado = new ArrayList<>();
-        
-        if (titulo == null || titulo.trim().isEmpty()) {
-            return resultado;
-        }
-        
-        for (Libro libro : libros) {
-            if (libro.getTitulo().toLowerCase().contains(titulo.toLowerCase())) {
-                resultado.add(libro);
-            }
-        }
-        
-        return resultado;
-    }
-    
+     * @return Lista de libros que contienen el título especificado, en orden de inserción
+     */
+    List<Libro> buscarPorTitulo(String titulo);
+
+    /**
+     * Obtiene un flujo perezoso con los libros cuyo autor contiene el texto indicado.
+     * Los libros se evalúan a medida que se consume el flujo.
+     * @param autor El autor a buscar
+     * @return Flujo con los libros del autor especificado, vacío si el autor es nulo o vacío
+     */
+    Stream<Libro> streamPorAutor(String autor);
+
+    /**
+     * Obtiene un flujo perezoso con los libros cuyo título contiene el texto indicado.
+     * Los libros se evalúan a medida que se consume el flujo.
+     * @param titulo El título a buscar
+     * @return Flujo con los libros que contienen el título, vacío si el título es nulo o vacío
+     */
+    Stream<Libro> streamPorTitulo(String titulo);
+
+    /**
+     * Busca una página de libros por autor. Solo se evalúan los libros necesarios para completar la página.
+     * @param autor El autor a buscar
+     * @param desde Cantidad de coincidencias a saltear
+     * @param cantidad Cantidad máxima de libros a devolver
+     * @return Lista con los libros de la página
+     */
+    List<Libro> buscarPorAutor(String autor, int desde, int cantidad);
+
+    /**
+     * Busca una página de libros por título. Solo se evalúan los libros necesarios para completar la página.
+     * @param titulo El título a buscar
+     * @param desde Cantidad de coincidencias a saltear
+     * @param cantidad Cantidad máxima de libros a devolver
+     * @return Lista con los libros de la página
+     */
+    List<Libro> buscarPorTitulo(String titulo, int desde, int cantidad);
+
+    /**
+     * Busca libros cuyo autor contiene todas las palabras indicadas.
+     * A diferencia de buscarPorAutor, compara palabras completas.
+     * @param palabras Las palabras a buscar, separadas por espacios o signos de puntuación
+     * @return Lista de libros cuyo autor contiene todas las palabras
+     */
+    List<Libro> buscarPorPalabrasDelAutor(String palabras);
+
+    /**
+     * Busca libros cuyo título contiene todas las palabras indicadas.
+     * A diferencia de buscarPorTitulo, compara palabras completas.
+     * @param palabras Las palabras a buscar, separadas por espacios o signos de puntuación
+     * @return Lista de libros cuyo título contiene todas las palabras
+     */
+    List<Libro> buscarPorPalabrasDelTitulo(String palabras);
+
+    /**
+     * Busca los libros más relevantes para las palabras indicadas en su título.
+     * Los libros que contienen alguna de las palabras se puntúan con BM25: pesan más las palabras
+     * poco frecuentes en el catálogo, las coincidencias con varias palabras y los títulos cortos.
+     * @param palabras Las palabras a buscar
+     * @param cantidad Cantidad máxima de resultados
+     * @return Lista con hasta cantidad libros, del más relevante al menos relevante,
+     *         vacía si las palabras son nulas o vacías
+     */
+    List<Libro> buscarMasRelevantesPorTitulo(String palabras, int cantidad);
+
+    /**
+     * Busca los libros más relevantes para las palabras indicadas en su autor, puntuados con BM25
+     * @param palabras Las palabras a buscar
+     * @param cantidad Cantidad máxima de resultados
+     * @return Lista con hasta cantidad libros, del más relevante al menos relevante,
+     *         vacía si las palabras son nulas o vacías
+     */
+    List<Libro> buscarMasRelevantesPorAutor(String palabras, int cantidad);
+
+    /**
+     * Busca libros cuyo título contiene, para cada palabra indicada, una palabra que difiere de ella
+     * en a lo sumo distanciaMaxima letras (inserciones, borrados o sustituciones), de modo que
+     * "soledd" encuentra "Cien años de soledad".
+     * @param palabras Las palabras a buscar, posiblemente mal escritas
+     * @param distanciaMaxima Cantidad máxima de errores admitidos en cada palabra
+     * @return Lista de libros que coinciden, de la coincidencia más cercana a la más lejana,
+     *         vacía si las palabras son nulas o vacías o la distancia es negativa
+     */
+    List<Libro> buscarPorTituloAproximado(String palabras, int distanciaMaxima);
+
+    /**
+     * Busca libros cuyo autor contiene, para cada palabra indicada, una palabra que difiere de ella
+     * en a lo sumo distanciaMaxima letras (inserciones, borrados o sustituciones).
+     * @param palabras Las palabras a buscar, posiblemente mal escritas
+     * @param distanciaMaxima Cantidad máxima de errores admitidos en cada palabra
+     * @return Lista de libros que coinciden, de la coincidencia más cercana a la más lejana,
+     *         vacía si las palabras son nulas o vacías o la distancia es negativa
+     */
+    List<Libro> buscarPorAutorAproximado(String palabras, int distanciaMaxima);
+
+    /**
+     * Busca los libros que cumplen todos los criterios de una consulta compuesta
+     * @param consulta Los criterios de búsqueda
+     * @return Lista de libros que cumplen todos los criterios, vacía si la consulta es nula
+     */
+    List<Libro> buscar(Consulta consulta);
+
+    /**
+     * Sugiere títulos del catálogo a partir de lo escrito hasta el momento.
+     * Un título se sugiere si alguna de sus palabras comienza con el prefijo, sin distinguir mayúsculas ni tildes.
+     * @param prefijo El texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista con hasta cantidad títulos distintos, vacía si el prefijo es nulo o vacío
+     */
+    List<String> autocompletarTitulo(String prefijo, int cantidad);
+
+    /**
+     * Sugiere autores del catálogo a partir de lo escrito hasta el momento.
+     * Un autor se sugiere si alguna de las palabras de su nombre comienza con el prefijo, sin distinguir mayúsculas ni tildes.
+     * @param prefijo El texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista con hasta cantidad autores distintos, vacía si el prefijo es nulo o vacío
+     */
+    List<String> autocompletarAutor(String prefijo, int cantidad);
+
+    /**
+     * Habilita o deshabilita los índices de trigramas para buscarPorTitulo y buscarPorAutor
+     * @param habilitada true para construir los índices a partir del contenido actual, false para descartarlos
+     */
+    void setBusquedaPorTrigramas(boolean habilitada);
+
+    /**
+     * Indica si los índices de trigramas están habilitados
+     * @return true si las búsquedas por subcadena usan los índices de trigramas
+     */
+    boolean isBusquedaPorTrigramas();
+
+    /**
+     * Habilita o deshabilita el almacenamiento empaquetado de títulos
+     * @param habilitado true para construir el almacenamiento a partir del contenido actual, false para descartarlo
+     */
+    void setTitulosEmpaquetados(boolean habilitado);
+
+    /**
+     * Indica si el almacenamiento empaquetado de títulos está habilitado
+     * @return true si las búsquedas por título sin índice recorren los títulos empaquetados
+     */
+    boolean isTitulosEmpaquetados();
+
+    /**
+     * Habilita o deshabilita el diccionario de autores
+     * @param habilitado true para construir el diccionario a partir del contenido actual, false para descartarlo
+     */
+    void setDiccionarioDeAutores(boolean habilitado);
+
+    /**
+     * Indica si el diccionario de autores está habilitado
+     * @return true si las búsquedas por autor usan el diccionario
+     */
+    boolean isDiccionarioDeAutores();
+
+    /**
+     * Configura la ejecución en paralelo de los recorridos de las búsquedas.
+     * Cuando la cantidad de libros a verificar alcanza el umbral, la colección se divide en tareas
+     * del ForkJoinPool común; los resultados conservan el orden secuencial.
+     * @param umbral Cantidad mínima de libros a verificar para recorrer en paralelo, o 0 para recorrer siempre en un solo hilo
+     */
+    void setUmbralBusquedaParalela(int umbral);
+
+    /**
+     * Obtiene el umbral de ejecución en paralelo de las búsquedas
+     * @return Cantidad mínima de libros a verificar para recorrer en paralelo, o 0 si está deshabilitada
+     */
+    int getUmbralBusquedaParalela();
+
+    /**
+     * Habilita o deshabilita la caché de resultados de buscarPorTitulo y buscarPorAutor
+     * @param capacidad Cantidad máxima de consultas guardadas por tipo, o 0 para deshabilitar la caché
+     */
+    void setCacheDeBusquedas(int capacidad);
+
+    /**
+     * Obtiene la capacidad de la caché de resultados
+     * @return Cantidad máxima de consultas guardadas por tipo, o 0 si la caché está deshabilitada
+     */
+    int getCapacidadCacheDeBusquedas();
+
     /**
      * Obtiene la cantidad total de libros en el catálogo
      * @return Número de libros en el catálogo
      */
-    public int contarLibros() {
-        return libros.size();
-    }
-    
+    int contarLibros();
+
+    /**
+     * Cuenta la cantidad de libros en un estado determinado
+     * @param estado El estado a contar
+     * @return Número de libros en ese estado
+     */
+    int contarLibrosPorEstado(Estado estado);
+
     /**
      * Cuenta la cantidad de libros disponibles
      * @return Número de libros disponibles
      */
-    public int contarLibrosDisponibles() {
-        return obtenerLibrosDisponibles().size();
-    }
-    
+    int contarLibrosDisponibles();
+
     /**
      * Cuenta la cantidad de libros prestados
      * @return Número de libros prestados
      */
-    public int contarLibrosPrestados() {
-        return obtenerLibrosPrestados().size();
-    }
-} 
\ No newline at end of file
+    int contarLibrosPrestados();
+
+    /**
+     * Registra un oyente que será notificado de las altas y bajas del catálogo y de los cambios
+     * de ISBN, título, autor y estado de sus libros
+     * @param oyente El oyente a registrar
+     * @throws IllegalArgumentException si el oyente es nulo
+     */
+    void agregarOyente(OyenteCatalogo oyente);
+
+    /**
+     * Quita un oyente previamente registrado
+     * @param oyente El oyente a quitar
+     * @return true si el oyente estaba registrado
+     */
+    boolean quitarOyente(OyenteCatalogo oyente);
+}
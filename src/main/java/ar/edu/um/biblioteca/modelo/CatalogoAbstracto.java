@@ -0,0 +1,343 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Base común de las implementaciones de Catalogo.
+ * Resuelve a partir de las operaciones básicas de cada implementación todo lo que no depende de cómo se guardan
+ * los libros: la importación masiva, la paginación, las vistas ordenadas, los listados y contadores de los estados
+ * DISPONIBLE y PRESTADO, los oyentes y el recorrido en paralelo. Las opciones de índices y de caché se ignoran
+ * salvo que la implementación las redefina.
+ */
+abstract class CatalogoAbstracto implements Catalogo {
+    private final OyentesCatalogo oyentes;
+    private int umbralBusquedaParalela;
+    private volatile VistaOrdenada vistaPorTitulo;
+    private volatile VistaOrdenada vistaPorAutor;
+
+    /**
+     * Constructor que inicializa la lista de oyentes vacía
+     */
+    CatalogoAbstracto() {
+        this.oyentes = new OyentesCatalogo();
+    }
+
+    /**
+     * Agrega una colección de libros al catálogo en una sola pasada.
+     * La validación y la detección de ISBN repetidos se hacen en paralelo sobre el pool fork-join común;
+     * luego los libros válidos se insertan secuencialmente en el orden de la colección.
+     * @param libros Los libros a agregar
+     * @return Resumen con el resultado de cada registro, en el orden de la colección
+     */
+    @Override
+    public ResultadoImportacion agregarLibros(Collection<Libro> libros) {
+        // Los registros se acceden por posición: las listas sin acceso aleatorio (como LinkedList) se copian
+        List<Libro> registros = libros instanceof List && libros instanceof RandomAccess
+                ? (List<Libro>) libros
+                : new ArrayList<>(libros);
+        ResultadoImportacion.Resultado[] resultados = new ResultadoImportacion.Resultado[registros.size()];
+
+        // Validar y quedarse con la primera aparición de cada ISBN
+        Map<String, Integer> primeraAparicion = new ConcurrentHashMap<>();
+        IntStream.range(0, registros.size()).parallel().forEach(i -> {
+            Libro libro = registros.get(i);
+            if (!esValidoParaImportar(libro)) {
+                resultados[i] = ResultadoImportacion.Resultado.INVALIDO;
+            } else if (buscarPorIsbn(libro.getIsbn()) != null) {
+                resultados[i] = ResultadoImportacion.Resultado.DUPLICADO;
+            } else {
+                primeraAparicion.merge(Isbn.normalizar(libro.getIsbn()), i, Math::min);
+            }
+        });
+
+        // Insertar los libros que quedaron, respetando el orden de la colección
+        for (int i = 0; i < resultados.length; i++) {
+            if (resultados[i] == null) {
+                Libro libro = registros.get(i);
+                boolean esPrimera = primeraAparicion.get(Isbn.normalizar(libro.getIsbn())) == i;
+                resultados[i] = esPrimera && agregarLibro(libro)
+                        ? ResultadoImportacion.Resultado.AGREGADO
+                        : ResultadoImportacion.Resultado.DUPLICADO;
+            }
+        }
+
+        return new ResultadoImportacion(resultados);
+    }
+
+    @Override
+    public ResultadoImportacion agregarLibros(Stream<Libro> libros) {
+        return agregarLibros(libros.collect(Collectors.toList()));
+    }
+
+    @Override
+    public List<Libro> obtenerPagina(int desde, int cantidad) {
+        return paginar(streamLibros(), desde, cantidad);
+    }
+
+    /**
+     * Obtiene un flujo perezoso sobre todos los libros ordenados por título, según las reglas del español.
+     * La primera llamada construye una vista ordenada que desde entonces se actualiza con cada alta, baja
+     * o cambio de título, por lo que las siguientes no vuelven a ordenar el catálogo.
+     * @return Flujo con todos los libros ordenados por título
+     */
+    @Override
+    public Stream<Libro> streamOrdenadoPorTitulo() {
+        return vistaOrdenada(true).stream();
+    }
+
+    /**
+     * Obtiene un flujo perezoso sobre todos los libros ordenados por autor, según las reglas del español.
+     * Los libros de un mismo autor quedan ordenados por ISBN.
+     * @return Flujo con todos los libros ordenados por autor
+     * @see #streamOrdenadoPorTitulo()
+     */
+    @Override
+    public Stream<Libro> streamOrdenadoPorAutor() {
+        return vistaOrdenada(false).stream();
+    }
+
+    /**
+     * Obtiene una página de todos los libros del catálogo ordenados por título.
+     * Solo se buscan los libros de la página; pedir las páginas en orden continúa desde el final de la anterior.
+     * @param desde Cantidad de libros a saltear desde el comienzo
+     * @param cantidad Cantidad máxima de libros a devolver
+     * @return Lista con los libros de la página, vacía si los parámetros son negativos
+     */
+    @Override
+    public List<Libro> obtenerPaginaPorTitulo(int desde, int cantidad) {
+        if (desde < 0 || cantidad <= 0) {
+            return new ArrayList<>();
+        }
+        return vistaOrdenada(true).pagina(desde, cantidad);
+    }
+
+    /**
+     * Obtiene una página de todos los libros del catálogo ordenados por autor
+     * @param desde Cantidad de libros a saltear desde el comienzo
+     * @param cantidad Cantidad máxima de libros a devolver
+     * @return Lista con los libros de la página, vacía si los parámetros son negativos
+     * @see #obtenerPaginaPorTitulo(int, int)
+     */
+    @Override
+    public List<Libro> obtenerPaginaPorAutor(int desde, int cantidad) {
+        if (desde < 0 || cantidad <= 0) {
+            return new ArrayList<>();
+        }
+        return vistaOrdenada(false).pagina(desde, cantidad);
+    }
+
+    @Override
+    public List<Libro> obtenerLibrosPorEstado(Estado estado) {
+        return streamPorEstado(estado).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Libro> obtenerLibrosDisponibles() {
+        return obtenerLibrosPorEstado(Estado.DISPONIBLE);
+    }
+
+    @Override
+    public List<Libro> obtenerLibrosPrestados() {
+        return obtenerLibrosPorEstado(Estado.PRESTADO);
+    }
+
+    @Override
+    public List<Libro> buscarPorAutor(String autor, int desde, int cantidad) {
+        return paginar(streamPorAutor(autor), desde, cantidad);
+    }
+
+    @Override
+    public List<Libro> buscarPorTitulo(String titulo, int desde, int cantidad) {
+        return paginar(streamPorTitulo(titulo), desde, cantidad);
+    }
+
+    /**
+     * Los índices de trigramas no están disponibles en esta implementación, por lo que la configuración se ignora
+     * @param habilitada Se ignora
+     */
+    @Override
+    public void setBusquedaPorTrigramas(boolean habilitada) {
+    }
+
+    @Override
+    public boolean isBusquedaPorTrigramas() {
+        return false;
+    }
+
+    /**
+     * El almacenamiento empaquetado de títulos no está disponible en esta implementación,
+     * por lo que la configuración se ignora
+     * @param habilitado Se ignora
+     */
+    @Override
+    public void setTitulosEmpaquetados(boolean habilitado) {
+    }
+
+    @Override
+    public boolean isTitulosEmpaquetados() {
+        return false;
+    }
+
+    /**
+     * El diccionario de autores no está disponible en esta implementación, por lo que la configuración se ignora
+     * @param habilitado Se ignora
+     */
+    @Override
+    public void setDiccionarioDeAutores(boolean habilitado) {
+    }
+
+    @Override
+    public boolean isDiccionarioDeAutores() {
+        return false;
+    }
+
+    @Override
+    public void setUmbralBusquedaParalela(int umbral) {
+        this.umbralBusquedaParalela = Math.max(0, umbral);
+    }
+
+    @Override
+    public int getUmbralBusquedaParalela() {
+        return umbralBusquedaParalela;
+    }
+
+    /**
+     * La caché de resultados no está disponible en esta implementación, por lo que la configuración se ignora
+     * y getCapacidadCacheDeBusquedas devuelve siempre 0
+     * @param capacidad Se ignora
+     */
+    @Override
+    public void setCacheDeBusquedas(int capacidad) {
+    }
+
+    @Override
+    public int getCapacidadCacheDeBusquedas() {
+        return 0;
+    }
+
+    @Override
+    public int contarLibrosDisponibles() {
+        return contarLibrosPorEstado(Estado.DISPONIBLE);
+    }
+
+    @Override
+    public int contarLibrosPrestados() {
+        return contarLibrosPorEstado(Estado.PRESTADO);
+    }
+
+    /**
+     * Registra un oyente. Las notificaciones no reservan memoria.
+     * @param oyente El oyente a registrar
+     * @throws IllegalArgumentException si el oyente es nulo
+     */
+    @Override
+    public void agregarOyente(OyenteCatalogo oyente) {
+        if (oyente == null) {
+            throw new IllegalArgumentException("El oyente no puede ser nulo");
+        }
+        oyentes.agregar(oyente);
+    }
+
+    @Override
+    public boolean quitarOyente(OyenteCatalogo oyente) {
+        return oyentes.quitar(oyente);
+    }
+
+    /**
+     * Obtiene la lista de oyentes, para que las implementaciones los notifiquen
+     * @return Los oyentes registrados
+     */
+    OyentesCatalogo getOyentes() {
+        return oyentes;
+    }
+
+    /**
+     * Obtiene los candidatos que cumplen una condición, en el mismo orden.
+     * Si la cantidad de candidatos alcanza el umbral de búsqueda paralela, se verifican en paralelo.
+     * @param candidatos Los libros a verificar
+     * @param cantidad La cantidad de candidatos
+     * @param condicion La condición que deben cumplir
+     * @return Lista de los candidatos que cumplen la condición
+     */
+    List<Libro> filtrar(Collection<Libro> candidatos, int cantidad, Predicate<Libro> condicion) {
+        if (umbralBusquedaParalela > 0 && cantidad >= umbralBusquedaParalela) {
+            return candidatos.parallelStream().filter(condicion).collect(Collectors.toList());
+        }
+
+        List<Libro> resultado = new ArrayList<>();
+        for (Libro libro : candidatos) {
+            if (condicion.test(libro)) {
+                resultado.add(libro);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Verifica que un libro tenga los datos mínimos para ser importado
+     * @param libro El libro a verificar
+     * @return true si el libro tiene ISBN, título y autor
+     */
+    private static boolean esValidoParaImportar(Libro libro) {
+        return libro != null
+                && libro.getIsbn() != null && !libro.getIsbn().trim().isEmpty()
+                && libro.getTitulo() != null
+                && libro.getAutor() != null;
+    }
+
+    /**
+     * Recorta un flujo a la página indicada
+     * @param libros El flujo a recortar
+     * @param desde Cantidad de elementos a saltear
+     * @param cantidad Cantidad máxima de elementos a devolver
+     * @return Lista con los libros de la página, vacía si los parámetros son negativos
+     */
+    private static List<Libro> paginar(Stream<Libro> libros, int desde, int cantidad) {
+        if (desde < 0 || cantidad <= 0) {
+            return new ArrayList<>();
+        }
+        return libros.skip(desde).limit(cantidad).collect(Collectors.toList());
+    }
+
+    /**
+     * Obtiene la vista ordenada de un criterio, construyéndola la primera vez
+     * @param porTitulo true para la vista por título, false para la vista por autor
+     * @return La vista registrada
+     */
+    private VistaOrdenada vistaOrdenada(boolean porTitulo) {
+        VistaOrdenada vista = porTitulo ? vistaPorTitulo : vistaPorAutor;
+        return vista != null ? vista : crearVistaOrdenada(porTitulo);
+    }
+
+    /**
+     * Construye una vista ordenada con los libros actuales y la registra como oyente, una sola vez por criterio
+     * aunque varios hilos la pidan a la vez
+     * @param porTitulo true para la vista por título, false para la vista por autor
+     * @return La vista registrada
+     */
+    private synchronized VistaOrdenada crearVistaOrdenada(boolean porTitulo) {
+        VistaOrdenada vista = porTitulo ? vistaPorTitulo : vistaPorAutor;
+        if (vista != null) {
+            return vista;
+        }
+
+        vista = new VistaOrdenada(this, porTitulo);
+        agregarOyente(vista);
+        streamLibros().forEach(vista::agregar);
+        if (porTitulo) {
+            vistaPorTitulo = vista;
+        } else {
+            vistaPorAutor = vista;
+        }
+        return vista;
+    }
+}
@@ -0,0 +1,497 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Catálogo seguro para ser compartido entre varios hilos.
+ * Las lecturas no toman ningún lock: el índice por ISBN es un ConcurrentHashMap indexado por la forma
+ * canónica del ISBN (ver Isbn.normalizar) y el orden de inserción
+ * se mantiene en un ConcurrentSkipListMap, cuyos recorridos son débilmente consistentes.
+ * Las escrituras se serializan por ISBN mediante un conjunto fijo de locks (striping), de modo que
+ * altas, bajas y cambios de estado sobre libros distintos pueden ejecutarse en paralelo.
+ * Los libros de cada estado se guardan en otro ConcurrentSkipListMap, indexados por el momento en que pasaron
+ * a ese estado, de modo que se listan en el mismo orden que en CatalogoIndexado.
+ * Las búsquedas por palabras y por subcadena recorren la colección en lugar de usar índices, por lo que
+ * las opciones de índices y de caché se ignoran y sus estructuras no se crean. La excepción son las sugerencias
+ * de autocompletado, que se piden en cada tecla: los títulos y autores se mantienen en dos IndiceAutocompletado
+ * concurrentes, que se leen sin locks sobre listas por saltos y solo serializan las altas y bajas de textos.
+ * Los flujos devueltos por los métodos stream pueden consumirse mientras otros hilos modifican el catálogo.
+ * Las altas, bajas y cambios de estado se notifican a los oyentes mientras se mantiene el lock del ISBN
+ * afectado, por lo que los oyentes los reciben en orden para cada libro y no deberían bloquearse ni modificar el catálogo.
+ */
+public class CatalogoConcurrente extends CatalogoAbstracto {
+    private static final int CANTIDAD_LOCKS = 64;
+
+    private final ConcurrentMap<String, Entrada> porIsbn;
+    private final ConcurrentSkipListMap<Long, Libro> porOrden;
+    private final ConcurrentSkipListMap<String, Libro> porIsbnOrdenado;
+    private final Map<Estado, ConcurrentSkipListMap<Long, Libro>> porEstado;
+    private final Map<Estado, AtomicInteger> cantidadPorEstado;
+    private final IndiceAutocompletado autocompletadoTitulos;
+    private final IndiceAutocompletado autocompletadoAutores;
+    private final AtomicLong proximoOrden;
+    private final Object[] locks;
+
+    /**
+     * Constructor que inicializa un catálogo concurrente vacío
+     */
+    public CatalogoConcurrente() {
+        this.porIsbn = new ConcurrentHashMap<>();
+        this.porOrden = new ConcurrentSkipListMap<>();
+        this.porIsbnOrdenado = new ConcurrentSkipListMap<>();
+        this.porEstado = new EnumMap<>(Estado.class);
+        this.cantidadPorEstado = new EnumMap<>(Estado.class);
+        for (Estado estado : Estado.values()) {
+            this.porEstado.put(estado, new ConcurrentSkipListMap<>());
+            this.cantidadPorEstado.put(estado, new AtomicInteger());
+        }
+        this.autocompletadoTitulos = IndiceAutocompletado.concurrente();
+        this.autocompletadoAutores = IndiceAutocompletado.concurrente();
+        this.proximoOrden = new AtomicLong();
+        this.locks = new Object[CANTIDAD_LOCKS];
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * Agrega un libro al catálogo de forma atómica respecto de su ISBN
+     * @param libro El libro a agregar
+     * @return true si se agregó correctamente, false si ya existía un libro con el mismo ISBN
+     */
+    @Override
+    public boolean agregarLibro(Libro libro) {
+        return libro != null && libro.getIsbn() != null && agregarSiAusente(libro) == null;
+    }
+
+    /**
+     * Agrega un libro solo si no existe otro con el mismo ISBN.
+     * Si varios hilos agregan a la vez libros con el mismo ISBN, exactamente uno de ellos lo consigue.
+     * @param libro El libro a agregar
+     * @return null si el libro se agregó, o el libro que ya estaba registrado con ese ISBN
+     * @throws IllegalArgumentException si el libro o su ISBN son nulos
+     */
+    public Libro agregarSiAusente(Libro libro) {
+        if (libro == null || libro.getIsbn() == null) {
+            throw new IllegalArgumentException("El libro y su ISBN no pueden ser nulos");
+        }
+
+        String clave = Isbn.normalizar(libro.getIsbn());
+        synchronized (lockDe(clave)) {
+            Entrada existente = porIsbn.get(clave);
+            if (existente != null) {
+                return existente.libro;
+            }
+
+            // El observador se registra antes de leer el estado, el título y el autor: un cambio hecho por otro hilo
+            // después de registrarlo espera este lock y encuentra la entrada ya completa
+            Entrada entrada = new Entrada(libro, clave, proximoOrden.getAndIncrement());
+            libro.agregarObservador(entrada);
+            porIsbn.put(clave, entrada);
+            agregarAParticion(entrada);
+            entrada.titulo = libro.getTitulo();
+            entrada.autor = libro.getAutor();
+            actualizarAutocompletado(autocompletadoTitulos, null, entrada.titulo);
+            actualizarAutocompletado(autocompletadoAutores, null, entrada.autor);
+            porOrden.put(entrada.orden, libro);
+            porIsbnOrdenado.put(clave, libro);
+            getOyentes().libroAgregado(libro);
+            return null;
+        }
+    }
+
+    @Override
+    public Libro buscarPorIsbn(String isbn) {
+        if (isbn == null || isbn.trim().isEmpty()) {
+            return null;
+        }
+
+        Entrada entrada = porIsbn.get(Isbn.normalizar(isbn));
+        return entrada != null ? entrada.libro : null;
+    }
+
+    @Override
+    public List<Libro> obtenerTodosLosLibros() {
+        return new ArrayList<>(porOrden.values());
+    }
+
+    @Override
+    public Stream<Libro> streamLibros() {
+        return porOrden.values().stream();
+    }
+
+    @Override
+    public List<Libro> buscarPorPrefijoIsbn(String prefijo) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String desde = Isbn.normalizarParcial(prefijo);
+        return new ArrayList<>(porIsbnOrdenado.subMap(desde, true, desde + Character.MAX_VALUE, false).values());
+    }
+
+    @Override
+    public List<Libro> buscarPorRangoIsbn(String desde, String hasta) {
+        if (desde == null || hasta == null) {
+            return new ArrayList<>();
+        }
+
+        String claveDesde = Isbn.normalizarParcial(desde);
+        String claveHasta = Isbn.normalizarParcial(hasta);
+        if (claveDesde.compareTo(claveHasta) >= 0) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(porIsbnOrdenado.subMap(claveDesde, true, claveHasta, false).values());
+    }
+
+    @Override
+    public Stream<Libro> streamPorEstado(Estado estado) {
+        if (estado == null) {
+            return Stream.empty();
+        }
+        return porEstado.get(estado).values().stream();
+    }
+
+    @Override
+    public boolean eliminarLibro(String isbn) {
+        if (isbn == null) {
+            return false;
+        }
+
+        String clave = Isbn.normalizar(isbn);
+        synchronized (lockDe(clave)) {
+            Entrada entrada = porIsbn.remove(clave);
+            if (entrada == null) {
+                return false;
+            }
+
+            entrada.libro.quitarObservador(entrada);
+            entrada.vigente = false;
+            porOrden.remove(entrada.orden);
+            porIsbnOrdenado.remove(clave);
+            quitarDeParticion(entrada);
+            actualizarAutocompletado(autocompletadoTitulos, entrada.titulo, null);
+            actualizarAutocompletado(autocompletadoAutores, entrada.autor, null);
+            getOyentes().libroEliminado(entrada.libro);
+            return true;
+        }
+    }
+
+    @Override
+    public List<Libro> buscarPorAutor(String autor) {
+        if (autor == null || autor.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String autorBuscado = ClaveBusqueda.normalizar(autor);
+        return filtrar(porOrden.values(), porIsbn.size(), libro -> libro.getClaveAutor().contains(autorBuscado));
+    }
+
+    @Override
+    public List<Libro> buscarPorTitulo(String titulo) {
+        if (titulo == null || titulo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String tituloBuscado = ClaveBusqueda.normalizar(titulo);
+        return filtrar(porOrden.values(), porIsbn.size(), libro -> libro.getClaveTitulo().contains(tituloBuscado));
+    }
+
+    @Override
+    public Stream<Libro> streamPorAutor(String autor) {
+        if (autor == null || autor.trim().isEmpty()) {
+            return Stream.empty();
+        }
+
+        String autorBuscado = ClaveBusqueda.normalizar(autor);
+        return streamLibros().filter(libro -> libro.getClaveAutor().contains(autorBuscado));
+    }
+
+    @Override
+    public Stream<Libro> streamPorTitulo(String titulo) {
+        if (titulo == null || titulo.trim().isEmpty()) {
+            return Stream.empty();
+        }
+
+        String tituloBuscado = ClaveBusqueda.normalizar(titulo);
+        return streamLibros().filter(libro -> libro.getClaveTitulo().contains(tituloBuscado));
+    }
+
+    @Override
+    public List<Libro> buscarPorPalabrasDelAutor(String palabras) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarPorPalabras(porOrden.values(), palabras, Libro::getAutor);
+    }
+
+    @Override
+    public List<Libro> buscarPorPalabrasDelTitulo(String palabras) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarPorPalabras(porOrden.values(), palabras, Libro::getTitulo);
+    }
+
+    @Override
+    public List<Libro> buscar(Consulta consulta) {
+        if (consulta == null) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscar(this, consulta);
+    }
+
+    @Override
+    public List<Libro> buscarMasRelevantesPorTitulo(String palabras, int cantidad) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarMasRelevantes(porOrden.values(), palabras, cantidad, Libro::getTitulo);
+    }
+
+    @Override
+    public List<Libro> buscarMasRelevantesPorAutor(String palabras, int cantidad) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarMasRelevantes(porOrden.values(), palabras, cantidad, Libro::getAutor);
+    }
+
+    @Override
+    public List<Libro> buscarPorTituloAproximado(String palabras, int distanciaMaxima) {
+        if (palabras == null || palabras.trim().isEmpty() || distanciaMaxima < 0) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarAproximado(porOrden.values(), palabras, distanciaMaxima, Libro::getTitulo);
+    }
+
+    @Override
+    public List<Libro> buscarPorAutorAproximado(String palabras, int distanciaMaxima) {
+        if (palabras == null || palabras.trim().isEmpty() || distanciaMaxima < 0) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarAproximado(porOrden.values(), palabras, distanciaMaxima, Libro::getAutor);
+    }
+
+    @Override
+    public List<String> autocompletarTitulo(String prefijo, int cantidad) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return autocompletadoTitulos.completar(prefijo, cantidad);
+    }
+
+    @Override
+    public List<String> autocompletarAutor(String prefijo, int cantidad) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return autocompletadoAutores.completar(prefijo, cantidad);
+    }
+
+    @Override
+    public int contarLibros() {
+        return porIsbn.size();
+    }
+
+    @Override
+    public int contarLibrosPorEstado(Estado estado) {
+        if (estado == null) {
+            return 0;
+        }
+        return cantidadPorEstado.get(estado).get();
+    }
+
+    private Object lockDe(String clave) {
+        return locks[indiceDeLock(clave)];
+    }
+
+    private int indiceDeLock(String clave) {
+        return (clave.hashCode() & 0x7fffffff) % locks.length;
+    }
+
+    /**
+     * Ubica un libro en la partición de su estado actual, al final del orden de ese estado.
+     * Se llama con el lock del ISBN tomado.
+     */
+    private void agregarAParticion(Entrada entrada) {
+        Estado estado = entrada.libro.getEstado();
+        entrada.estado = estado;
+        if (estado != null) {
+            entrada.ordenEnEstado = proximoOrden.getAndIncrement();
+            porEstado.get(estado).put(entrada.ordenEnEstado, entrada.libro);
+            cantidadPorEstado.get(estado).incrementAndGet();
+        }
+    }
+
+    /**
+     * Quita un libro de la partición en la que está, que puede no ser la de su estado actual
+     * si otro hilo lo cambió mientras tanto. Se llama con el lock del ISBN tomado.
+     */
+    private void quitarDeParticion(Entrada entrada) {
+        if (entrada.estado != null) {
+            porEstado.get(entrada.estado).remove(entrada.ordenEnEstado);
+            cantidadPorEstado.get(entrada.estado).decrementAndGet();
+            entrada.estado = null;
+        }
+    }
+
+    /**
+     * Reemplaza un texto por otro en un índice de autocompletado. El índice serializa sus propias escrituras.
+     * @param indice El índice a actualizar
+     * @param anterior El texto a quitar, o null si no hay que quitar ninguno
+     * @param actual El texto a agregar, o null si no hay que agregar ninguno
+     */
+    private static void actualizarAutocompletado(IndiceAutocompletado indice, String anterior, String actual) {
+        if (anterior != null) {
+            indice.quitar(anterior);
+        }
+        if (actual != null) {
+            indice.agregar(actual);
+        }
+    }
+
+    /**
+     * Cambia la clave de un libro del catálogo tomando los locks de ambos ISBN en un orden fijo.
+     * La clave actual se toma de la entrada y no del libro, que todavía tiene el ISBN anterior.
+     * @param entrada La entrada del libro que va a cambiar su ISBN
+     * @param nuevoIsbn El nuevo ISBN
+     * @throws IllegalArgumentException si el nuevo ISBN es nulo o ya pertenece a otro libro del catálogo
+     */
+    private void reindexarIsbn(Entrada entrada, String nuevoIsbn) {
+        if (nuevoIsbn == null) {
+            throw new IllegalArgumentException("El ISBN de un libro del catálogo no puede ser nulo");
+        }
+        String claveNueva = Isbn.normalizar(nuevoIsbn);
+
+        while (true) {
+            String claveActual = entrada.clave;
+            if (claveNueva.equals(claveActual)) {
+                return;
+            }
+            int indiceActual = indiceDeLock(claveActual);
+            int indiceNuevo = indiceDeLock(claveNueva);
+            synchronized (locks[Math.min(indiceActual, indiceNuevo)]) {
+                synchronized (locks[Math.max(indiceActual, indiceNuevo)]) {
+                    if (!entrada.vigente) {
+                        return;
+                    }
+                    if (!claveActual.equals(entrada.clave)) {
+                        // Otro hilo cambió el ISBN antes de tomar los locks: se reintenta con la clave nueva
+                        continue;
+                    }
+                    if (porIsbn.putIfAbsent(claveNueva, entrada) != null) {
+                        throw new IllegalArgumentException("Ya existe un libro con el ISBN " + nuevoIsbn + " en el catálogo");
+                    }
+                    porIsbn.remove(claveActual);
+                    porIsbnOrdenado.remove(claveActual);
+                    porIsbnOrdenado.put(claveNueva, entrada.libro);
+                    entrada.clave = claveNueva;
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Libro registrado junto con su clave en el índice por ISBN, su posición en el orden de inserción, la partición
+     * en la que está y el título y autor con los que figura en los índices de autocompletado.
+     * Cada entrada es también el observador de su libro, de modo que las notificaciones llegan a la entrada
+     * sin volver a calcular la clave a partir del ISBN del libro, que cambia fuera de los locks del catálogo.
+     * La clave solo cambia con los locks del ISBN anterior y del nuevo tomados; la partición, su posición,
+     * el título y el autor solo se leen y modifican con el lock de la clave tomado.
+     */
+    private final class Entrada implements ObservadorLibro {
+        private final Libro libro;
+        private final long orden;
+        private volatile String clave;
+        private volatile boolean vigente;
+        private Estado estado;
+        private long ordenEnEstado;
+        private String titulo;
+        private String autor;
+
+        private Entrada(Libro libro, String clave, long orden) {
+            this.libro = libro;
+            this.clave = clave;
+            this.orden = orden;
+            this.vigente = true;
+        }
+
+        /**
+         * Ejecuta una acción con el lock de la clave actual de la entrada, volviendo a tomarlo
+         * si otro hilo cambia la clave mientras tanto. La acción no se ejecuta si el libro ya se eliminó.
+         */
+        private void conLockDeClave(Runnable accion) {
+            while (true) {
+                String claveLeida = clave;
+                synchronized (lockDe(claveLeida)) {
+                    if (claveLeida.equals(clave)) {
+                        if (vigente) {
+                            accion.run();
+                        }
+                        return;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void isbnCambiando(Libro libro, String nuevoIsbn) {
+            reindexarIsbn(this, nuevoIsbn);
+        }
+
+        @Override
+        public void isbnCambiado(Libro libro, String isbnAnterior) {
+            getOyentes().isbnCambiado(libro, isbnAnterior);
+        }
+
+        @Override
+        public void tituloCambiado(Libro libro, String tituloAnterior) {
+            // Las búsquedas recorren la colección; solo el autocompletado tiene un índice que actualizar.
+            // El título indexado se toma de la entrada, igual que el estado en estadoCambiado
+            conLockDeClave(() -> {
+                if (!Objects.equals(titulo, libro.getTitulo())) {
+                    actualizarAutocompletado(autocompletadoTitulos, titulo, libro.getTitulo());
+                    titulo = libro.getTitulo();
+                }
+            });
+            getOyentes().tituloCambiado(libro, tituloAnterior);
+        }
+
+        @Override
+        public void autorCambiado(Libro libro, String autorAnterior) {
+            conLockDeClave(() -> {
+                if (!Objects.equals(autor, libro.getAutor())) {
+                    actualizarAutocompletado(autocompletadoAutores, autor, libro.getAutor());
+                    autor = libro.getAutor();
+                }
+            });
+            getOyentes().autorCambiado(libro, autorAnterior);
+        }
+
+        @Override
+        public void estadoCambiado(Libro libro, Estado estadoAnterior) {
+            // El estado anterior se toma de la partición: si dos hilos cambian el estado a la vez,
+            // el segundo en tomar el lock puede encontrar el libro ya ubicado en su estado actual
+            conLockDeClave(() -> {
+                if (estado != libro.getEstado()) {
+                    Estado anterior = estado;
+                    quitarDeParticion(this);
+                    agregarAParticion(this);
+                    getOyentes().estadoCambiado(libro, anterior);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,909 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Catálogo que guarda los libros fuera del heap, para colecciones de decenas de millones de libros
+ * en las que los objetos Libro y los índices de CatalogoIndexado ocuparían la mayor parte de la memoria del heap.
+ * Cada libro es un registro de tamaño fijo con su ISBN-13 como número, su estado y la posición y longitud
+ * de sus textos (ISBN, título, autor y claves de búsqueda), que se guardan como UTF-8 en una arena aparte.
+ * Tanto los registros como la arena se reparten en segmentos de buffers directos de tamaño fijo, por lo que
+ * ninguno de los dos está limitado a los 2 GB de un ByteBuffer y crecer no copia más que el último segmento.
+ * En el heap quedan los arreglos de segmentos, un índice de ISBN a número de registro en arreglos primitivos
+ * y los índices de autocompletado, que guardan una entrada por título y por autor distintos para no recorrer
+ * el catálogo en cada tecla.
+ * Los libros que devuelven las consultas se crean a partir del registro en cada acceso, reutilizando las
+ * claves de búsqueda guardadas: son copias independientes entre sí, por lo que dos consultas del mismo libro
+ * devuelven objetos distintos (buscarPorIsbn(isbn) != buscarPorIsbn(isbn)) y deben compararse por ISBN.
+ * Los cambios que se hagan sobre cualquiera de ellas (o sobre el libro agregado) se escriben en el registro,
+ * pero no se reflejan en las demás copias ya obtenidas.
+ * Los registros dados de baja se reutilizan en las altas siguientes; cada registro lleva una generación que
+ * cambia con cada baja, de modo que las copias de un libro dado de baja no escriben en el libro que ocupa
+ * su registro después. Los cambios de título o autor escriben los textos nuevos al final de la arena, y cuando
+ * los textos descartados superan a la mitad de lo escrito, los vigentes se copian a una arena nueva.
+ * Los registros vigentes forman una lista doblemente enlazada en orden de inserción, y los de cada estado otra,
+ * en el orden en que pasaron a ese estado, por lo que recorrer el catálogo o listar un estado solo visita
+ * los libros que corresponden.
+ * Las búsquedas por subcadena comparan los bytes de las claves de búsqueda
+ * sin crear los libros que no coinciden; el resto de las búsquedas, salvo el autocompletado, recorre el catálogo.
+ * Las opciones de índices y de caché se ignoran y sus estructuras no se crean.
+ * No es seguro para ser compartido entre varios hilos.
+ */
+public class CatalogoFueraDelHeap extends CatalogoAbstracto {
+    // Disposición de cada registro. Cada texto se guarda en un long con su posición en la arena en los bits altos
+    // y su longitud en bytes en los BITS_LONGITUD bits bajos; SIN_TEXTO indica un texto nulo.
+    private static final int NUMERO = 0;        // long: ISBN-13, o Isbn.NO_VALIDO
+    private static final int ISBN = 8;
+    private static final int TITULO = 16;
+    private static final int AUTOR = 24;
+    private static final int CLAVE_TITULO = 32;
+    private static final int CLAVE_AUTOR = 40;
+    private static final int ESTADO = 48;       // byte: ordinal del estado, o SIN_ESTADO
+    private static final int VIGENTE = 49;      // byte: 1 si el libro está en el catálogo, 0 si se dio de baja
+    private static final int GENERACION = 52;   // int: cantidad de veces que el registro se dio de baja
+    private static final int ANTERIOR_EN_ESTADO = 56;   // int: registro anterior en la lista de su estado, o NINGUNO
+    private static final int SIGUIENTE_EN_ESTADO = 60;  // int: registro siguiente en la lista de su estado, o NINGUNO
+    private static final int ANTERIOR = 64;     // int: registro vigente anterior en orden de inserción, o NINGUNO
+    private static final int SIGUIENTE = 68;    // int: registro vigente siguiente en orden de inserción, o NINGUNO
+    private static final int SIGUIENTE_LIBRE = ANTERIOR_EN_ESTADO;  // int: en un registro dado de baja, el próximo libre
+    private static final int TAMANIO_REGISTRO = 72;
+
+    private static final long SIN_TEXTO = -1L;
+    private static final int BITS_LONGITUD = 24;
+    private static final int LONGITUD_MAXIMA_TEXTO = (1 << BITS_LONGITUD) - 1;
+    private static final long POSICION_MAXIMA_ARENA = 1L << (Long.SIZE - BITS_LONGITUD);
+    private static final int BITS_SEGMENTO_ARENA = 24;
+    private static final int TAMANIO_SEGMENTO_ARENA = 1 << BITS_SEGMENTO_ARENA;
+    private static final int BITS_SEGMENTO_REGISTROS = 16;
+    private static final int REGISTROS_POR_SEGMENTO = 1 << BITS_SEGMENTO_REGISTROS;
+    private static final int TAMANIO_SEGMENTO_REGISTROS = REGISTROS_POR_SEGMENTO * TAMANIO_REGISTRO;
+    private static final long BASURA_MINIMA_PARA_COMPACTAR = 1 << 16;
+
+    private static final byte SIN_ESTADO = -1;
+    private static final int NINGUNO = -1;
+    private static final int CAPACIDAD_INICIAL = 1024;
+    private static final int BYTES_POR_LIBRO_ESTIMADOS = 64;
+    private static final Estado[] ESTADOS = Estado.values();
+
+    private ByteBuffer[] segmentosRegistros;
+    private ByteBuffer[] segmentosArena;
+    private int cantidadRegistros;
+    private int primerLibre;
+    private int primero;
+    private int ultimo;
+    private long usadosArena;
+    private long basuraArena;
+    private final long tamanioInicialArena;
+    private byte[] claveLeida = new byte[BYTES_POR_LIBRO_ESTIMADOS];
+    private final RegistrosPorIsbn porIsbn;
+    private final IndiceAutocompletado autocompletadoTitulos;
+    private final IndiceAutocompletado autocompletadoAutores;
+    private final int[] cantidadPorEstado;
+    private final int[] primeroPorEstado;
+    private final int[] ultimoPorEstado;
+
+    /**
+     * Constructor que inicializa un catálogo fuera del heap vacío
+     */
+    public CatalogoFueraDelHeap() {
+        this(CAPACIDAD_INICIAL);
+    }
+
+    /**
+     * Constructor que reserva de antemano el espacio para una cantidad estimada de libros,
+     * evitando copiar los buffers mientras se carga el catálogo
+     * @param capacidadEsperada La cantidad de libros que se espera guardar
+     * @throws IllegalArgumentException si la capacidad es negativa
+     */
+    public CatalogoFueraDelHeap(int capacidadEsperada) {
+        if (capacidadEsperada < 0) {
+            throw new IllegalArgumentException("La capacidad no puede ser negativa");
+        }
+        int capacidad = Math.max(1, capacidadEsperada);
+        this.segmentosRegistros = reservarSegmentos((long) capacidad * TAMANIO_REGISTRO, TAMANIO_SEGMENTO_REGISTROS);
+        this.tamanioInicialArena = (long) capacidad * BYTES_POR_LIBRO_ESTIMADOS;
+        this.segmentosArena = reservarSegmentos(tamanioInicialArena, TAMANIO_SEGMENTO_ARENA);
+        this.primerLibre = NINGUNO;
+        this.primero = NINGUNO;
+        this.ultimo = NINGUNO;
+        this.porIsbn = new RegistrosPorIsbn(capacidad);
+        this.autocompletadoTitulos = new IndiceAutocompletado();
+        this.autocompletadoAutores = new IndiceAutocompletado();
+        this.cantidadPorEstado = new int[ESTADOS.length];
+        this.primeroPorEstado = new int[ESTADOS.length];
+        this.ultimoPorEstado = new int[ESTADOS.length];
+        Arrays.fill(primeroPorEstado, NINGUNO);
+        Arrays.fill(ultimoPorEstado, NINGUNO);
+    }
+
+    /**
+     * Agrega un libro al catálogo copiando sus datos a un registro, que puede ser uno dado de baja antes.
+     * Los cambios posteriores sobre el libro agregado se escriben en su registro.
+     * @param libro El libro a agregar
+     * @return true si se agregó correctamente, false si ya existía un libro con el mismo ISBN
+     * @throws IllegalArgumentException si alguno de sus textos supera los 16 MB en UTF-8
+     * @throws IllegalStateException si se agotó el espacio del catálogo
+     */
+    @Override
+    public boolean agregarLibro(Libro libro) {
+        if (libro == null || libro.getIsbn() == null) {
+            return false;
+        }
+        if (porIsbn.buscar(libro.getIsbn()) != RegistrosPorIsbn.AUSENTE) {
+            return false;
+        }
+
+        int registro = reservarRegistro();
+        try {
+            escribirTexto(registro, ISBN, libro.getIsbn());
+            escribirConClave(registro, TITULO, CLAVE_TITULO, libro.getTitulo(), libro.getClaveTitulo());
+            escribirConClave(registro, AUTOR, CLAVE_AUTOR, libro.getAutor(), libro.getClaveAutor());
+        } catch (RuntimeException e) {
+            liberarRegistro(registro);
+            throw e;
+        }
+        escribirLong(registro, NUMERO, Isbn.aNumero(libro.getIsbn()));
+        escribirEstado(registro, libro.getEstado());
+        escribirByte(registro, VIGENTE, (byte) 1);
+        enlazarAlFinalDelCatalogo(registro);
+        porIsbn.agregarSiAusente(libro.getIsbn(), registro);
+        autocompletadoTitulos.agregar(libro.getTitulo());
+        autocompletadoAutores.agregar(libro.getAutor());
+        libro.agregarObservador(new ObservadorRegistro(registro, leerInt(registro, GENERACION)));
+        getOyentes().libroAgregado(libro);
+        return true;
+    }
+
+    @Override
+    public Libro buscarPorIsbn(String isbn) {
+        if (isbn == null || isbn.trim().isEmpty()) {
+            return null;
+        }
+
+        int registro = porIsbn.buscar(isbn);
+        return registro != RegistrosPorIsbn.AUSENTE ? materializar(registro) : null;
+    }
+
+    @Override
+    public List<Libro> obtenerTodosLosLibros() {
+        return streamLibros().collect(Collectors.toList());
+    }
+
+    /**
+     * Obtiene un flujo perezoso sobre todos los libros del catálogo, en orden de inserción.
+     * Cada libro se crea a partir de su registro a medida que se consume el flujo.
+     * @return Flujo con todos los libros
+     */
+    @Override
+    public Stream<Libro> streamLibros() {
+        return vigentes().mapToObj(this::materializar);
+    }
+
+    /**
+     * Obtiene una página de todos los libros, en orden de inserción.
+     * Los registros anteriores a la página se saltean sin crear sus libros.
+     * @param desde Cantidad de libros a saltear desde el comienzo
+     * @param cantidad Cantidad máxima de libros a devolver
+     * @return Lista con los libros de la página, vacía si los parámetros son negativos
+     */
+    @Override
+    public List<Libro> obtenerPagina(int desde, int cantidad) {
+        if (desde < 0 || cantidad <= 0) {
+            return new ArrayList<>();
+        }
+        return vigentes().skip(desde).limit(cantidad).mapToObj(this::materializar).collect(Collectors.toList());
+    }
+
+    /**
+     * Obtiene un flujo perezoso sobre los libros que se encuentran en un estado determinado.
+     * Recorre la lista de registros de ese estado, por lo que solo visita y crea los libros de ese estado.
+     * @param estado El estado buscado
+     * @return Flujo con los libros en ese estado, en el orden en que pasaron a él
+     */
+    @Override
+    public Stream<Libro> streamPorEstado(Estado estado) {
+        if (estado == null) {
+            return Stream.empty();
+        }
+        return IntStream.iterate(primeroPorEstado[estado.ordinal()], registro -> registro != NINGUNO,
+                        registro -> leerInt(registro, SIGUIENTE_EN_ESTADO))
+                .mapToObj(this::materializar);
+    }
+
+    /**
+     * Busca los libros cuyo ISBN comienza con el prefijo indicado, comparando las formas ISBN-13 sin guiones.
+     * Recorre todos los registros en lugar de usar un índice ordenado.
+     * @param prefijo El comienzo del ISBN, con o sin guiones
+     * @return Lista de libros con ese prefijo ordenada por ISBN, vacía si el prefijo es nulo o vacío
+     */
+    @Override
+    public List<Libro> buscarPorPrefijoIsbn(String prefijo) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        String desde = Isbn.normalizarParcial(prefijo);
+        return ordenadosPorIsbn(clave -> clave.startsWith(desde));
+    }
+
+    /**
+     * Busca los libros cuyo ISBN está en el rango indicado, comparando las formas ISBN-13 sin guiones.
+     * Recorre todos los registros en lugar de usar un índice ordenado.
+     * @param desde El menor ISBN del rango, incluido
+     * @param hasta El mayor ISBN del rango, excluido
+     * @return Lista de libros del rango ordenada por ISBN, vacía si algún extremo es nulo o el rango está vacío
+     */
+    @Override
+    public List<Libro> buscarPorRangoIsbn(String desde, String hasta) {
+        if (desde == null || hasta == null) {
+            return new ArrayList<>();
+        }
+
+        String claveDesde = Isbn.normalizarParcial(desde);
+        String claveHasta = Isbn.normalizarParcial(hasta);
+        if (claveDesde.compareTo(claveHasta) >= 0) {
+            return new ArrayList<>();
+        }
+        return ordenadosPorIsbn(clave -> clave.compareTo(claveDesde) >= 0 && clave.compareTo(claveHasta) < 0);
+    }
+
+    /**
+     * Elimina un libro del catálogo por su ISBN, marcando su registro como borrado para reutilizarlo
+     * @param isbn El ISBN del libro a eliminar
+     * @return true si se eliminó correctamente, false si no se encontró el libro
+     */
+    @Override
+    public boolean eliminarLibro(String isbn) {
+        if (isbn == null) {
+            return false;
+        }
+
+        int registro = porIsbn.quitar(isbn);
+        if (registro == RegistrosPorIsbn.AUSENTE) {
+            return false;
+        }
+        Libro libro = getOyentes().hayOyentes() ? materializar(registro) : null;
+        autocompletadoTitulos.quitar(leerTexto(leerLong(registro, TITULO)));
+        autocompletadoAutores.quitar(leerTexto(leerLong(registro, AUTOR)));
+        escribirEstado(registro, null);
+        desenlazarDelCatalogo(registro);
+        descartarTextos(registro, ISBN, TITULO, CLAVE_TITULO, AUTOR, CLAVE_AUTOR);
+        escribirByte(registro, VIGENTE, (byte) 0);
+        liberarRegistro(registro);
+        compactarArenaSiHaceFalta();
+        if (libro != null) {
+            getOyentes().libroEliminado(libro);
+        }
+        return true;
+    }
+
+    @Override
+    public List<Libro> buscarPorAutor(String autor) {
+        if (autor == null || autor.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return streamPorAutor(autor).collect(Collectors.toList());
+    }
+
+    @Override
+    public List<Libro> buscarPorTitulo(String titulo) {
+        if (titulo == null || titulo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return streamPorTitulo(titulo).collect(Collectors.toList());
+    }
+
+    @Override
+    public Stream<Libro> streamPorAutor(String autor) {
+        if (autor == null || autor.trim().isEmpty()) {
+            return Stream.empty();
+        }
+        return buscarEnClave(CLAVE_AUTOR, ClaveBusqueda.normalizar(autor));
+    }
+
+    @Override
+    public Stream<Libro> streamPorTitulo(String titulo) {
+        if (titulo == null || titulo.trim().isEmpty()) {
+            return Stream.empty();
+        }
+        return buscarEnClave(CLAVE_TITULO, ClaveBusqueda.normalizar(titulo));
+    }
+
+    @Override
+    public List<Libro> buscarPorPalabrasDelAutor(String palabras) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarPorPalabras(recorrido(), palabras, Libro::getAutor);
+    }
+
+    @Override
+    public List<Libro> buscarPorPalabrasDelTitulo(String palabras) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarPorPalabras(recorrido(), palabras, Libro::getTitulo);
+    }
+
+    @Override
+    public List<Libro> buscar(Consulta consulta) {
+        if (consulta == null) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscar(this, consulta);
+    }
+
+    @Override
+    public List<Libro> buscarMasRelevantesPorTitulo(String palabras, int cantidad) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarMasRelevantes(recorrido(), palabras, cantidad, Libro::getTitulo);
+    }
+
+    @Override
+    public List<Libro> buscarMasRelevantesPorAutor(String palabras, int cantidad) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarMasRelevantes(recorrido(), palabras, cantidad, Libro::getAutor);
+    }
+
+    @Override
+    public List<Libro> buscarPorTituloAproximado(String palabras, int distanciaMaxima) {
+        if (palabras == null || palabras.trim().isEmpty() || distanciaMaxima < 0) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarAproximado(recorrido(), palabras, distanciaMaxima, Libro::getTitulo);
+    }
+
+    @Override
+    public List<Libro> buscarPorAutorAproximado(String palabras, int distanciaMaxima) {
+        if (palabras == null || palabras.trim().isEmpty() || distanciaMaxima < 0) {
+            return new ArrayList<>();
+        }
+        return BusquedasPorRecorrido.buscarAproximado(recorrido(), palabras, distanciaMaxima, Libro::getAutor);
+    }
+
+    @Override
+    public List<String> autocompletarTitulo(String prefijo, int cantidad) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return autocompletadoTitulos.completar(prefijo, cantidad);
+    }
+
+    @Override
+    public List<String> autocompletarAutor(String prefijo, int cantidad) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return autocompletadoAutores.completar(prefijo, cantidad);
+    }
+
+    @Override
+    public int contarLibros() {
+        return porIsbn.tamanio();
+    }
+
+    @Override
+    public int contarLibrosPorEstado(Estado estado) {
+        if (estado == null) {
+            return 0;
+        }
+        return cantidadPorEstado[estado.ordinal()];
+    }
+
+    /**
+     * Obtiene los números de los registros vigentes, en orden de inserción
+     */
+    private IntStream vigentes() {
+        return IntStream.iterate(primero, registro -> registro != NINGUNO, registro -> leerInt(registro, SIGUIENTE));
+    }
+
+    private Iterable<Libro> recorrido() {
+        return () -> streamLibros().iterator();
+    }
+
+    /**
+     * Obtiene la cantidad de bytes ocupados de la arena, incluidos los de textos descartados
+     * @return Posición del próximo texto que se escriba
+     */
+    long bytesUsadosEnArena() {
+        return usadosArena;
+    }
+
+    /**
+     * Crea un libro con los datos de un registro, observado para escribir sus cambios en el registro
+     */
+    private Libro materializar(int registro) {
+        String titulo = leerTexto(leerLong(registro, TITULO));
+        String autor = leerTexto(leerLong(registro, AUTOR));
+        Libro libro = new Libro(leerTexto(leerLong(registro, ISBN)), titulo, autor,
+                leerClave(registro, CLAVE_TITULO, TITULO, titulo),
+                leerClave(registro, CLAVE_AUTOR, AUTOR, autor), leerEstado(registro));
+        libro.agregarObservador(new ObservadorRegistro(registro, leerInt(registro, GENERACION)));
+        return libro;
+    }
+
+    /**
+     * Obtiene los libros cuya clave de búsqueda contiene la consulta, comparando los bytes UTF-8
+     * de la clave guardada. Como UTF-8 es autosincronizante, una coincidencia de bytes equivale
+     * a una coincidencia de caracteres.
+     */
+    private Stream<Libro> buscarEnClave(int campo, String consulta) {
+        byte[] patron = consulta.getBytes(StandardCharsets.UTF_8);
+        return vigentes()
+                .filter(registro -> contiene(leerLong(registro, campo), patron))
+                .mapToObj(this::materializar);
+    }
+
+    /**
+     * Copia la clave guardada con una sola lectura en bloque a un arreglo reutilizado y la compara con SubcadenaSwar
+     */
+    private boolean contiene(long referencia, byte[] patron) {
+        if (referencia == SIN_TEXTO || longitud(referencia) < patron.length) {
+            return false;
+        }
+        int longitud = longitud(referencia);
+        if (claveLeida.length < longitud + SubcadenaSwar.RELLENO) {
+            claveLeida = new byte[Math.max(claveLeida.length * 2, longitud + SubcadenaSwar.RELLENO)];
+        }
+        leerBytes(segmentosArena, referencia, claveLeida);
+        return SubcadenaSwar.contiene(claveLeida, 0, longitud, patron);
+    }
+
+    /**
+     * Obtiene los libros cuya forma canónica del ISBN cumple una condición, ordenados por esa forma
+     */
+    private List<Libro> ordenadosPorIsbn(Predicate<String> condicion) {
+        Map<String, Integer> encontrados = new TreeMap<>();
+        vigentes().forEach(registro -> {
+            long numero = leerLong(registro, NUMERO);
+            String clave = numero != Isbn.NO_VALIDO ? Long.toString(numero) : leerTexto(leerLong(registro, ISBN));
+            if (condicion.test(clave)) {
+                encontrados.put(clave, registro);
+            }
+        });
+
+        List<Libro> resultado = new ArrayList<>(encontrados.size());
+        for (int registro : encontrados.values()) {
+            resultado.add(materializar(registro));
+        }
+        return resultado;
+    }
+
+    // Acceso a los campos de un registro, ubicado por su número dentro de su segmento
+
+    private ByteBuffer segmentoDe(int registro) {
+        return segmentosRegistros[registro >>> BITS_SEGMENTO_REGISTROS];
+    }
+
+    private static int base(int registro) {
+        return (registro & (REGISTROS_POR_SEGMENTO - 1)) * TAMANIO_REGISTRO;
+    }
+
+    private long leerLong(int registro, int campo) {
+        return segmentoDe(registro).getLong(base(registro) + campo);
+    }
+
+    private void escribirLong(int registro, int campo, long valor) {
+        segmentoDe(registro).putLong(base(registro) + campo, valor);
+    }
+
+    private int leerInt(int registro, int campo) {
+        return segmentoDe(registro).getInt(base(registro) + campo);
+    }
+
+    private void escribirInt(int registro, int campo, int valor) {
+        segmentoDe(registro).putInt(base(registro) + campo, valor);
+    }
+
+    private byte leerByte(int registro, int campo) {
+        return segmentoDe(registro).get(base(registro) + campo);
+    }
+
+    private void escribirByte(int registro, int campo, byte valor) {
+        segmentoDe(registro).put(base(registro) + campo, valor);
+    }
+
+    private boolean estaVigente(int registro) {
+        return leerByte(registro, VIGENTE) != 0;
+    }
+
+    /**
+     * Obtiene un registro para un libro nuevo: el último dado de baja si lo hay, o uno a continuación del último usado
+     * @return El número del registro
+     * @throws IllegalStateException si se agotaron los números de registro
+     */
+    private int reservarRegistro() {
+        if (primerLibre != NINGUNO) {
+            int registro = primerLibre;
+            primerLibre = leerInt(registro, SIGUIENTE_LIBRE);
+            return registro;
+        }
+        if (cantidadRegistros == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Se agotó el espacio del catálogo fuera del heap");
+        }
+
+        int segmento = cantidadRegistros >>> BITS_SEGMENTO_REGISTROS;
+        if (segmento == segmentosRegistros.length) {
+            segmentosRegistros = Arrays.copyOf(segmentosRegistros, segmentosRegistros.length * 2);
+        }
+        segmentosRegistros[segmento] = conLugar(segmentosRegistros[segmento], base(cantidadRegistros) + TAMANIO_REGISTRO,
+                TAMANIO_SEGMENTO_REGISTROS);
+        return cantidadRegistros++;
+    }
+
+    /**
+     * Agrega un registro a la lista de registros libres y cambia su generación,
+     * de modo que las copias de su libro anterior dejen de escribir en él
+     */
+    private void liberarRegistro(int registro) {
+        escribirInt(registro, GENERACION, leerInt(registro, GENERACION) + 1);
+        escribirInt(registro, SIGUIENTE_LIBRE, primerLibre);
+        primerLibre = registro;
+    }
+
+    private void enlazarAlFinalDelCatalogo(int registro) {
+        escribirInt(registro, ANTERIOR, ultimo);
+        escribirInt(registro, SIGUIENTE, NINGUNO);
+        if (ultimo != NINGUNO) {
+            escribirInt(ultimo, SIGUIENTE, registro);
+        } else {
+            primero = registro;
+        }
+        ultimo = registro;
+    }
+
+    /**
+     * Quita un registro de la lista en orden de inserción. Su campo SIGUIENTE se conserva, para que un recorrido
+     * detenido en él pueda continuar.
+     */
+    private void desenlazarDelCatalogo(int registro) {
+        int anterior = leerInt(registro, ANTERIOR);
+        int siguiente = leerInt(registro, SIGUIENTE);
+        if (anterior != NINGUNO) {
+            escribirInt(anterior, SIGUIENTE, siguiente);
+        } else {
+            primero = siguiente;
+        }
+        if (siguiente != NINGUNO) {
+            escribirInt(siguiente, ANTERIOR, anterior);
+        } else {
+            ultimo = anterior;
+        }
+    }
+
+    // Textos en la arena
+
+    private static int longitud(long referencia) {
+        return (int) (referencia & LONGITUD_MAXIMA_TEXTO);
+    }
+
+    /**
+     * Lee una clave de búsqueda; si comparte los bytes de su texto, devuelve el texto ya leído
+     */
+    private String leerClave(int registro, int campoClave, int campoTexto, String texto) {
+        if (leerLong(registro, campoClave) == leerLong(registro, campoTexto)) {
+            return texto;
+        }
+        return leerTexto(leerLong(registro, campoClave));
+    }
+
+    private String leerTexto(long referencia) {
+        if (referencia == SIN_TEXTO) {
+            return null;
+        }
+        byte[] bytes = new byte[longitud(referencia)];
+        leerBytes(segmentosArena, referencia, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copia los bytes de un texto al comienzo de un arreglo de al menos su longitud
+     */
+    private static void leerBytes(ByteBuffer[] segmentos, long referencia, byte[] destino) {
+        long posicion = referencia >>> BITS_LONGITUD;
+        segmentos[(int) (posicion >>> BITS_SEGMENTO_ARENA)]
+                .get((int) (posicion & (TAMANIO_SEGMENTO_ARENA - 1)), destino, 0, longitud(referencia));
+    }
+
+    private void escribirTexto(int registro, int campo, String texto) {
+        if (texto == null) {
+            escribirLong(registro, campo, SIN_TEXTO);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        escribirLong(registro, campo, agregarEnArena(bytes, bytes.length));
+    }
+
+    /**
+     * Escribe un texto y su clave de búsqueda; si la clave es igual al texto, comparte sus bytes
+     */
+    private void escribirConClave(int registro, int campoTexto, int campoClave, String texto, String clave) {
+        escribirTexto(registro, campoTexto, texto);
+        if (clave != null && clave.equals(texto)) {
+            escribirLong(registro, campoClave, leerLong(registro, campoTexto));
+        } else {
+            escribirTexto(registro, campoClave, clave);
+        }
+    }
+
+    /**
+     * Agrega bytes al final de la arena. Un texto nunca queda repartido entre dos segmentos: si no entra
+     * en lo que queda del segmento actual, se escribe al comienzo del siguiente.
+     * @return La referencia al texto escrito
+     * @throws IllegalArgumentException si el texto es demasiado largo
+     * @throws IllegalStateException si se agotó el espacio de la arena
+     */
+    private long agregarEnArena(byte[] bytes, int longitud) {
+        if (longitud > LONGITUD_MAXIMA_TEXTO) {
+            throw new IllegalArgumentException("Un texto no puede ocupar más de " + LONGITUD_MAXIMA_TEXTO + " bytes");
+        }
+        int segmento = (int) (usadosArena >>> BITS_SEGMENTO_ARENA);
+        int desde = (int) (usadosArena & (TAMANIO_SEGMENTO_ARENA - 1));
+        if (desde + longitud > TAMANIO_SEGMENTO_ARENA) {
+            segmento++;
+            desde = 0;
+        }
+        long posicion = ((long) segmento << BITS_SEGMENTO_ARENA) + desde;
+        if (posicion + longitud > POSICION_MAXIMA_ARENA) {
+            throw new IllegalStateException("Se agotó el espacio del catálogo fuera del heap");
+        }
+
+        if (segmento == segmentosArena.length) {
+            segmentosArena = Arrays.copyOf(segmentosArena, segmentosArena.length * 2);
+        }
+        ByteBuffer destino = conLugar(segmentosArena[segmento], desde + longitud, TAMANIO_SEGMENTO_ARENA);
+        segmentosArena[segmento] = destino;
+        destino.put(desde, bytes, 0, longitud);
+        usadosArena = posicion + longitud;
+        return (posicion << BITS_LONGITUD) | longitud;
+    }
+
+    /**
+     * Cuenta como descartados los bytes de los textos de un registro vigente que se van a reemplazar o dar de baja
+     * @param campos Los campos de texto a descartar; una clave que comparte los bytes de su texto se cuenta una vez
+     */
+    private void descartarTextos(int registro, int... campos) {
+        for (int i = 0; i < campos.length; i++) {
+            long referencia = leerLong(registro, campos[i]);
+            boolean yaContado = false;
+            for (int j = 0; j < i; j++) {
+                yaContado |= leerLong(registro, campos[j]) == referencia;
+            }
+            if (referencia != SIN_TEXTO && !yaContado) {
+                basuraArena += longitud(referencia);
+            }
+        }
+    }
+
+    /**
+     * Copia los textos de los registros vigentes a una arena nueva cuando los descartados superan a la mitad
+     * de los bytes escritos. Cada compactación copia a lo sumo tantos bytes como se descartaron desde la anterior,
+     * por lo que su costo se reparte entre los cambios y bajas que la provocaron.
+     */
+    private void compactarArenaSiHaceFalta() {
+        if (basuraArena < BASURA_MINIMA_PARA_COMPACTAR || basuraArena * 2 < usadosArena) {
+            return;
+        }
+
+        ByteBuffer[] anteriores = segmentosArena;
+        segmentosArena = reservarSegmentos(Math.max(tamanioInicialArena, usadosArena - basuraArena), TAMANIO_SEGMENTO_ARENA);
+        usadosArena = 0;
+        basuraArena = 0;
+        for (int registro = primero; registro != NINGUNO; registro = leerInt(registro, SIGUIENTE)) {
+            escribirLong(registro, ISBN, copiarTexto(anteriores, leerLong(registro, ISBN)));
+            copiarConClave(anteriores, registro, TITULO, CLAVE_TITULO);
+            copiarConClave(anteriores, registro, AUTOR, CLAVE_AUTOR);
+        }
+    }
+
+    /**
+     * Copia un texto y su clave de búsqueda de la arena anterior a la actual; si la clave compartía los bytes
+     * de su texto, los sigue compartiendo
+     */
+    private void copiarConClave(ByteBuffer[] anteriores, int registro, int campoTexto, int campoClave) {
+        long texto = leerLong(registro, campoTexto);
+        long clave = leerLong(registro, campoClave);
+        long textoCopiado = copiarTexto(anteriores, texto);
+        escribirLong(registro, campoTexto, textoCopiado);
+        escribirLong(registro, campoClave, clave == texto ? textoCopiado : copiarTexto(anteriores, clave));
+    }
+
+    private long copiarTexto(ByteBuffer[] anteriores, long referencia) {
+        if (referencia == SIN_TEXTO) {
+            return SIN_TEXTO;
+        }
+        int longitud = longitud(referencia);
+        if (claveLeida.length < longitud) {
+            claveLeida = new byte[Math.max(claveLeida.length * 2, longitud)];
+        }
+        leerBytes(anteriores, referencia, claveLeida);
+        return agregarEnArena(claveLeida, longitud);
+    }
+
+    private Estado leerEstado(int registro) {
+        byte ordinal = leerByte(registro, ESTADO);
+        return ordinal != SIN_ESTADO ? ESTADOS[ordinal] : null;
+    }
+
+    /**
+     * Escribe el estado de un registro manteniendo las cantidades por estado y las listas de cada estado:
+     * el registro se quita de la lista de su estado anterior y pasa al final de la del nuevo
+     */
+    private void escribirEstado(int registro, Estado estado) {
+        if (estaVigente(registro)) {
+            Estado anterior = leerEstado(registro);
+            if (anterior != null) {
+                desenlazar(registro, anterior.ordinal());
+            }
+        }
+        escribirByte(registro, ESTADO, estado != null ? (byte) estado.ordinal() : SIN_ESTADO);
+        if (estado != null) {
+            enlazarAlFinal(registro, estado.ordinal());
+        }
+    }
+
+    private void enlazarAlFinal(int registro, int estado) {
+        int ultimoDelEstado = ultimoPorEstado[estado];
+        escribirInt(registro, ANTERIOR_EN_ESTADO, ultimoDelEstado);
+        escribirInt(registro, SIGUIENTE_EN_ESTADO, NINGUNO);
+        if (ultimoDelEstado != NINGUNO) {
+            escribirInt(ultimoDelEstado, SIGUIENTE_EN_ESTADO, registro);
+        } else {
+            primeroPorEstado[estado] = registro;
+        }
+        ultimoPorEstado[estado] = registro;
+        cantidadPorEstado[estado]++;
+    }
+
+    private void desenlazar(int registro, int estado) {
+        int anterior = leerInt(registro, ANTERIOR_EN_ESTADO);
+        int siguiente = leerInt(registro, SIGUIENTE_EN_ESTADO);
+        if (anterior != NINGUNO) {
+            escribirInt(anterior, SIGUIENTE_EN_ESTADO, siguiente);
+        } else {
+            primeroPorEstado[estado] = siguiente;
+        }
+        if (siguiente != NINGUNO) {
+            escribirInt(siguiente, ANTERIOR_EN_ESTADO, anterior);
+        } else {
+            ultimoPorEstado[estado] = anterior;
+        }
+        cantidadPorEstado[estado]--;
+    }
+
+    private static ByteBuffer reservar(int capacidad) {
+        return ByteBuffer.allocateDirect(capacidad).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * Reserva los segmentos necesarios para una cantidad de bytes: todos completos salvo el último
+     */
+    private static ByteBuffer[] reservarSegmentos(long bytes, int tamanioSegmento) {
+        int completos = (int) (bytes / tamanioSegmento);
+        int resto = (int) (bytes % tamanioSegmento);
+        ByteBuffer[] segmentos = new ByteBuffer[Math.max(1, Integer.highestOneBit(completos + 1) << 1)];
+        for (int i = 0; i < completos; i++) {
+            segmentos[i] = reservar(tamanioSegmento);
+        }
+        if (resto > 0 || completos == 0) {
+            segmentos[completos] = reservar(Math.max(resto, 1));
+        }
+        return segmentos;
+    }
+
+    /**
+     * Devuelve un segmento con lugar para la cantidad de bytes necesaria, duplicando su capacidad hasta
+     * el tamaño de segmento y copiando su contenido si el actual no alcanza
+     * @param actual El segmento actual, o null si todavía no se creó
+     */
+    private static ByteBuffer conLugar(ByteBuffer actual, int necesarios, int tamanioSegmento) {
+        if (actual == null) {
+            return reservar(tamanioSegmento);
+        }
+        if (necesarios <= actual.capacity()) {
+            return actual;
+        }
+        ByteBuffer nuevo = reservar((int) Math.min(tamanioSegmento, Math.max(necesarios, 2L * actual.capacity())));
+        nuevo.put(0, actual, 0, actual.capacity());
+        return nuevo;
+    }
+
+    /**
+     * Observador que escribe en un registro los cambios de los libros creados a partir de él.
+     * Los datos anteriores se leen del registro y no del libro, que puede ser una copia desactualizada;
+     * los cambios sobre libros cuyo registro ya se dio de baja, aunque se haya reutilizado, se ignoran.
+     */
+    private class ObservadorRegistro implements ObservadorLibro {
+        private final int registro;
+        private final int generacion;
+
+        ObservadorRegistro(int registro, int generacion) {
+            this.registro = registro;
+            this.generacion = generacion;
+        }
+
+        private boolean vigente() {
+            return estaVigente(registro) && leerInt(registro, GENERACION) == generacion;
+        }
+
+        @Override
+        public void isbnCambiando(Libro libro, String nuevoIsbn) {
+            if (!vigente()) {
+                return;
+            }
+            if (nuevoIsbn == null) {
+                throw new IllegalArgumentException("El ISBN de un libro del catálogo no puede ser nulo");
+            }
+            int existente = porIsbn.buscar(nuevoIsbn);
+            if (existente != RegistrosPorIsbn.AUSENTE && existente != registro) {
+                throw new IllegalArgumentException("Ya existe un libro con el ISBN " + nuevoIsbn + " en el catálogo");
+            }
+
+            porIsbn.quitar(leerTexto(leerLong(registro, ISBN)));
+            porIsbn.agregarSiAusente(nuevoIsbn, registro);
+            escribirLong(registro, NUMERO, Isbn.aNumero(nuevoIsbn));
+            descartarTextos(registro, ISBN);
+            escribirTexto(registro, ISBN, nuevoIsbn);
+            compactarArenaSiHaceFalta();
+        }
+
+        @Override
+        public void isbnCambiado(Libro libro, String isbnAnterior) {
+            if (vigente()) {
+                getOyentes().isbnCambiado(libro, isbnAnterior);
+            }
+        }
+
+        @Override
+        public void tituloCambiado(Libro libro, String tituloAnterior) {
+            if (vigente()) {
+                // El título anterior se toma del registro, porque el libro puede ser una copia desactualizada
+                autocompletadoTitulos.quitar(leerTexto(leerLong(registro, TITULO)));
+                autocompletadoTitulos.agregar(libro.getTitulo());
+                descartarTextos(registro, TITULO, CLAVE_TITULO);
+                escribirConClave(registro, TITULO, CLAVE_TITULO, libro.getTitulo(), libro.getClaveTitulo());
+                compactarArenaSiHaceFalta();
+                getOyentes().tituloCambiado(libro, tituloAnterior);
+            }
+        }
+
+        @Override
+        public void autorCambiado(Libro libro, String autorAnterior) {
+            if (vigente()) {
+                autocompletadoAutores.quitar(leerTexto(leerLong(registro, AUTOR)));
+                autocompletadoAutores.agregar(libro.getAutor());
+                descartarTextos(registro, AUTOR, CLAVE_AUTOR);
+                escribirConClave(registro, AUTOR, CLAVE_AUTOR, libro.getAutor(), libro.getClaveAutor());
+                compactarArenaSiHaceFalta();
+                getOyentes().autorCambiado(libro, autorAnterior);
+            }
+        }
+
+        @Override
+        public void estadoCambiado(Libro libro, Estado estadoAnterior) {
+            if (vigente()) {
+                // El estado anterior se toma del registro, porque el libro puede ser una copia desactualizada
+                Estado anterior = leerEstado(registro);
+                if (anterior != libro.getEstado()) {
+                    escribirEstado(registro, libro.getEstado());
+                    getOyentes().estadoCambiado(libro, anterior);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,936 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Catálogo que mantiene en memoria índices para cada tipo de búsqueda.
+ * Los libros se guardan en orden de inserción en un almacenamiento por bloques (AlmacenLibros) y se indexan
+ * por ISBN en un índice con claves numéricas que guarda la ranura de cada libro, por lo que las altas, bajas
+ * y búsquedas por ISBN son de tiempo constante amortizado,
+ * y en un índice ordenado por ISBN para las búsquedas por prefijo y por rango.
+ * Además mantiene índices invertidos de las palabras de títulos y autores para las búsquedas por palabras,
+ * índices ordenados para autocompletar títulos y autores y, opcionalmente, índices de trigramas que aceleran las búsquedas por subcadena y un diccionario
+ * de autores que comparte los nombres repetidos y acelera las búsquedas por autor.
+ * Los libros también se particionan por estado en conjuntos que se actualizan ante cada cambio de estado,
+ * de modo que listar o contar los libros de un estado no requiere recorrer todo el catálogo.
+ */
+public class CatalogoIndexado extends CatalogoAbstracto {
+    private static final int CAPACIDAD_INICIAL_FILTRO = 1024;
+
+    private final AlmacenLibros libros;
+    private final RegistrosPorIsbn porIsbn;
+    private final NavigableMap<String, Libro> porIsbnOrdenado;
+    private FiltroBloom filtroIsbn;
+    private final IndiceInvertido indiceTitulos;
+    private final IndiceInvertido indiceAutores;
+    private final IndiceAutocompletado autocompletadoTitulos;
+    private final IndiceAutocompletado autocompletadoAutores;
+    private IndiceTrigramas trigramasTitulos;
+    private IndiceTrigramas trigramasAutores;
+    private DiccionarioAutores diccionarioAutores;
+    private TitulosEmpaquetados titulosEmpaquetados;
+    private CacheBusquedas cacheTitulos;
+    private CacheBusquedas cacheAutores;
+    private boolean importando;
+    private final Map<Estado, Set<Libro>> librosPorEstado;
+    private final ObservadorLibro observador;
+
+    /**
+     * Constructor que inicializa un catálogo vacío
+     */
+    public CatalogoIndexado() {
+        // El almacenamiento avisa las ranuras movidas al índice, no al catálogo todavía en construcción
+        RegistrosPorIsbn indice = new RegistrosPorIsbn(0);
+        this.porIsbn = indice;
+        this.libros = new AlmacenLibros((libro, ranura) -> indice.actualizar(libro.getIsbn(), ranura));
+        this.porIsbnOrdenado = new TreeMap<>();
+        this.filtroIsbn = new FiltroBloom(CAPACIDAD_INICIAL_FILTRO);
+        this.indiceTitulos = new IndiceInvertido();
+        this.indiceAutores = new IndiceInvertido();
+        this.autocompletadoTitulos = new IndiceAutocompletado();
+        this.autocompletadoAutores = new IndiceAutocompletado();
+        this.librosPorEstado = new EnumMap<>(Estado.class);
+        for (Estado estado : Estado.values()) {
+            this.librosPorEstado.put(estado, new LinkedHashSet<>());
+        }
+        this.observador = new ObservadorCatalogo();
+    }
+
+    @Override
+    public boolean agregarLibro(Libro libro) {
+        // Verificar que el libro y su ISBN no sean nulos
+        if (libro == null || libro.getIsbn() == null) {
+            return false;
+        }
+        
+        // Verificar si ya existe un libro con el mismo ISBN
+        if (!porIsbn.agregarSiAusente(libro.getIsbn(), libros.proximaRanura())) {
+            return false;
+        }
+        
+        int ranura = libros.agregar(libro);
+        porIsbnOrdenado.put(Isbn.normalizar(libro.getIsbn()), libro);
+        registrarEnFiltro(libro.getIsbn());
+        indiceTitulos.agregar(libro, libro.getTitulo());
+        indiceAutores.agregar(libro, libro.getAutor());
+        autocompletadoTitulos.agregar(libro.getTitulo());
+        autocompletadoAutores.agregar(libro.getAutor());
+        agregarAParticion(libro);
+        if (isBusquedaPorTrigramas()) {
+            trigramasTitulos.agregar(libro, libro.getTitulo());
+            trigramasAutores.agregar(libro, libro.getAutor());
+        }
+        if (diccionarioAutores != null) {
+            libros.setIdAutor(ranura, diccionarioAutores.agregar(libro));
+        }
+        if (titulosEmpaquetados != null) {
+            titulosEmpaquetados.agregar(libro);
+        }
+        invalidarCaches(libro.getClaveTitulo(), libro.getClaveAutor());
+        libro.agregarObservador(observador);
+        getOyentes().libroAgregado(libro);
+        return true;
+    }
+
+    /**
+     * Agrega una colección de libros al catálogo en una sola pasada.
+     * Mientras dura la importación la caché de resultados no se consulta ni se invalida libro por libro:
+     * al terminar se vacía una sola vez.
+     * @param libros Los libros a agregar
+     * @return Resumen con el resultado de cada registro, en el orden de la colección
+     */
+    @Override
+    public ResultadoImportacion agregarLibros(Collection<Libro> libros) {
+        if (cacheTitulos == null || importando) {
+            return super.agregarLibros(libros);
+        }
+
+        importando = true;
+        try {
+            return super.agregarLibros(libros);
+        } finally {
+            importando = false;
+            if (cacheTitulos != null) {
+                cacheTitulos.vaciar();
+                cacheAutores.vaciar();
+            }
+        }
+    }
+
+    /**
+     * Busca un libro por su ISBN.
+     * Un filtro de Bloom descarta la mayoría de los ISBN inexistentes (por ejemplo, lecturas erróneas
+     * del código de barras) sin consultar el índice por ISBN.
+     * @param isbn El ISBN del libro a buscar
+     * @return El libro encontrado o null si no existe
+     */
+    @Override
+    public Libro buscarPorIsbn(String isbn) {
+        // Verificar que el ISBN no sea nulo o vacío
+        if (isbn == null || isbn.trim().isEmpty()) {
+            return null;
+        }
+        
+        if (!filtroIsbn.puedeContener(isbn)) {
+            return null;
+        }
+        int ranura = porIsbn.buscar(isbn);
+        return ranura != RegistrosPorIsbn.AUSENTE ? libros.obtener(ranura) : null;
+    }
+
+    /**
+     * Obtiene todos los libros del catálogo
+     * @return Lista con todos los libros
+     */
+    @Override
+    public List<Libro> obtenerTodosLosLibros() {
+        return new ArrayList<>(libros);
+    }
+
+    /**
+     * Obtiene un flujo perezoso sobre todos los libros del catálogo, en orden de inserción.
+     * A diferencia de obtenerTodosLosLibros, no copia la colección; el catálogo no debe
+     * modificarse mientras se consume el flujo.
+     * @return Flujo con todos los libros
+     */
+    @Override
+    public Stream<Libro> streamLibros() {
+        return libros.stream();
+    }
+    
+    /**
+     * Obtiene un flujo perezoso sobre los libros que se encuentran en un estado determinado
+     * @param estado El estado buscado
+     * @return Flujo con los libros en ese estado, en el orden en que pasaron a él, vacío si el estado es nulo
+     */
+    @Override
+    public Stream<Libro> streamPorEstado(Estado estado) {
+        if (estado == null) {
+            return Stream.empty();
+        }
+        return librosPorEstado.get(estado).stream();
+    }
+
+    /**
+     * Busca los libros cuyo ISBN comienza con el prefijo indicado, por ejemplo el prefijo de una editorial
+     * como "978-84-376". El prefijo se compara con la forma ISBN-13 sin guiones, por lo que también
+     * encuentra los libros registrados con su ISBN-10. Se resuelve con un índice ordenado por ISBN,
+     * en tiempo logarítmico más la cantidad de resultados.
+     * @param prefijo El comienzo del ISBN, con o sin guiones
+     * @return Lista de libros con ese prefijo ordenada por ISBN, vacía si el prefijo es nulo o vacío
+     */
+    @Override
+    public List<Libro> buscarPorPrefijoIsbn(String prefijo) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        String desde = Isbn.normalizarParcial(prefijo);
+        return new ArrayList<>(porIsbnOrdenado.subMap(desde, true, desde + Character.MAX_VALUE, false).values());
+    }
+    
+    /**
+     * Busca los libros cuyo ISBN está en el rango indicado, comparando las formas ISBN-13 sin guiones
+     * @param desde El menor ISBN del rango, incluido
+     * @param hasta El mayor ISBN del rango, excluido
+     * @return Lista de libros del rango ordenada por ISBN, vacía si algún extremo es nulo o el rango está vacío
+     */
+    @Override
+    public List<Libro> buscarPorRangoIsbn(String desde, String hasta) {
+        if (desde == null || hasta == null) {
+            return new ArrayList<>();
+        }
+        
+        String claveDesde = Isbn.normalizarParcial(desde);
+        String claveHasta = Isbn.normalizarParcial(hasta);
+        if (claveDesde.compareTo(claveHasta) >= 0) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(porIsbnOrdenado.subMap(claveDesde, true, claveHasta, false).values());
+    }
+    
+    /**
+     * Elimina un libro del catálogo por su ISBN
+     * @param isbn El ISBN del libro a eliminar
+     * @return true si se eliminó correctamente, false si no se encontró el libro
+     */
+    @Override
+    public boolean eliminarLibro(String isbn) {
+        if (isbn == null) {
+            return false;
+        }
+        
+        int ranura = porIsbn.quitar(isbn);
+        if (ranura != RegistrosPorIsbn.AUSENTE) {
+            Libro libro = libros.obtener(ranura);
+            if (diccionarioAutores != null) {
+                diccionarioAutores.quitar(libros.idAutor(ranura));
+            }
+            libros.quitar(ranura);
+            porIsbnOrdenado.remove(Isbn.normalizar(libro.getIsbn()));
+            reconstruirFiltroSiHaceFalta();
+            libro.quitarObservador(observador);
+            indiceTitulos.quitar(libro, libro.getTitulo());
+            indiceAutores.quitar(libro, libro.getAutor());
+            autocompletadoTitulos.quitar(libro.getTitulo());
+            autocompletadoAutores.quitar(libro.getAutor());
+            quitarDeParticion(libro, libro.getEstado());
+            if (isBusquedaPorTrigramas()) {
+                trigramasTitulos.quitar(libro, libro.getTitulo());
+                trigramasAutores.quitar(libro, libro.getAutor());
+            }
+            if (titulosEmpaquetados != null) {
+                titulosEmpaquetados.quitar(libro);
+            }
+            invalidarCaches(libro.getClaveTitulo(), libro.getClaveAutor());
+            getOyentes().libroEliminado(libro);
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Busca libros por autor, sin distinguir mayúsculas ni tildes
+     * @param autor El autor a buscar
+     * @return Lista de libros del autor especificado
+     */
+    @Override
+    public List<Libro> buscarPorAutor(String autor) {
+        List<Libro> resultado = new ArrayList<>();
+        
+        // Si el autor es nulo o vacío, retornar lista vacía
+        if (autor == null || autor.trim().isEmpty()) {
+            return resultado;
+        }
+        
+        String autorBuscado = ClaveBusqueda.normalizar(autor);
+        CacheBusquedas cache = importando ? null : cacheAutores;
+        if (cache != null) {
+            List<Libro> enCache = cache.obtener(autorBuscado);
+            if (enCache != null) {
+                return enCache;
+            }
+        }
+        
+        if (diccionarioAutores != null) {
+            resultado = librosDeAutoresQueContienen(autorBuscado);
+        } else {
+            Collection<Libro> candidatos = candidatos(trigramasAutores, autorBuscado);
+            resultado = filtrar(candidatos, candidatos.size(), libro -> libro.getClaveAutor().contains(autorBuscado));
+        }
+        
+        if (cache != null) {
+            cache.guardar(autorBuscado, resultado);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Busca libros por título, sin distinguir mayúsculas ni tildes
+     * @param titulo El título a buscar
+     * @return Lista de libros que contienen el título especificado
+     */
+    @Override
+    public List<Libro> buscarPorTitulo(String titulo) {
+        List<Libro> resultado = new ArrayList<>();
+        
+        if (titulo == null || titulo.trim().isEmpty()) {
+            return resultado;
+        }
+        
+        String tituloBuscado = ClaveBusqueda.normalizar(titulo);
+        CacheBusquedas cache = importando ? null : cacheTitulos;
+        if (cache != null) {
+            List<Libro> enCache = cache.obtener(tituloBuscado);
+            if (enCache != null) {
+                return enCache;
+            }
+        }
+        
+        Collection<Libro> candidatos = candidatos(trigramasTitulos, tituloBuscado);
+        if (candidatos == libros && titulosEmpaquetados != null) {
+            int umbral = getUmbralBusquedaParalela();
+            boolean enParalelo = umbral > 0 && libros.size() >= umbral;
+            resultado = titulosEmpaquetados.buscar(tituloBuscado, enParalelo);
+        } else {
+            resultado = filtrar(candidatos, candidatos.size(), libro -> libro.getClaveTitulo().contains(tituloBuscado));
+        }
+        
+        if (cache != null) {
+            cache.guardar(tituloBuscado, resultado);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Obtiene un flujo perezoso con los libros cuyo autor contiene el texto indicado.
+     * Los libros se evalúan a medida que se consume el flujo.
+     * @param autor El autor a buscar
+     * @return Flujo con los libros del autor especificado, vacío si el autor es nulo o vacío
+     */
+    @Override
+    public Stream<Libro> streamPorAutor(String autor) {
+        if (autor == null || autor.trim().isEmpty()) {
+            return Stream.empty();
+        }
+        
+        String autorBuscado = ClaveBusqueda.normalizar(autor);
+        if (diccionarioAutores != null) {
+            return librosDeAutoresQueContienen(autorBuscado).stream();
+        }
+        return candidatos(trigramasAutores, autorBuscado).stream()
+                .filter(libro -> libro.getClaveAutor().contains(autorBuscado));
+    }
+    
+    /**
+     * Obtiene un flujo perezoso con los libros cuyo título contiene el texto indicado.
+     * Los libros se evalúan a medida que se consume el flujo.
+     * @param titulo El título a buscar
+     * @return Flujo con los libros que contienen el título, vacío si el título es nulo o vacío
+     */
+    @Override
+    public Stream<Libro> streamPorTitulo(String titulo) {
+        if (titulo == null || titulo.trim().isEmpty()) {
+            return Stream.empty();
+        }
+        
+        String tituloBuscado = ClaveBusqueda.normalizar(titulo);
+        return candidatos(trigramasTitulos, tituloBuscado).stream()
+                .filter(libro -> libro.getClaveTitulo().contains(tituloBuscado));
+    }
+    
+    /**
+     * Busca libros cuyo autor contiene todas las palabras indicadas.
+     * A diferencia de buscarPorAutor, compara palabras completas usando el índice invertido,
+     * por lo que solo recorre los libros que contienen las palabras buscadas.
+     * @param palabras Las palabras a buscar, separadas por espacios o signos de puntuación
+     * @return Lista de libros cuyo autor contiene todas las palabras
+     */
+    @Override
+    public List<Libro> buscarPorPalabrasDelAutor(String palabras) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return indiceAutores.buscar(palabras);
+    }
+    
+    /**
+     * Busca libros cuyo título contiene todas las palabras indicadas.
+     * A diferencia de buscarPorTitulo, compara palabras completas usando el índice invertido,
+     * por lo que solo recorre los libros que contienen las palabras buscadas.
+     * @param palabras Las palabras a buscar, separadas por espacios o signos de puntuación
+     * @return Lista de libros cuyo título contiene todas las palabras
+     */
+    @Override
+    public List<Libro> buscarPorPalabrasDelTitulo(String palabras) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return indiceTitulos.buscar(palabras);
+    }
+    
+    /**
+     * Busca los libros más relevantes para las palabras indicadas en su título.
+     * Los libros que contienen alguna de las palabras se puntúan con BM25: pesan más las palabras
+     * poco frecuentes en el catálogo, las coincidencias con varias palabras y los títulos cortos.
+     * Solo se conservan los mejores en un montículo acotado, sin ordenar todas las coincidencias.
+     * @param palabras Las palabras a buscar
+     * @param cantidad Cantidad máxima de resultados
+     * @return Lista con hasta cantidad libros, del más relevante al menos relevante,
+     *         vacía si las palabras son nulas o vacías
+     */
+    @Override
+    public List<Libro> buscarMasRelevantesPorTitulo(String palabras, int cantidad) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return indiceTitulos.buscarMasRelevantes(palabras, cantidad);
+    }
+    
+    /**
+     * Busca los libros más relevantes para las palabras indicadas en su autor, puntuados con BM25
+     * @param palabras Las palabras a buscar
+     * @param cantidad Cantidad máxima de resultados
+     * @return Lista con hasta cantidad libros, del más relevante al menos relevante,
+     *         vacía si las palabras son nulas o vacías
+     */
+    @Override
+    public List<Libro> buscarMasRelevantesPorAutor(String palabras, int cantidad) {
+        if (palabras == null || palabras.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return indiceAutores.buscarMasRelevantes(palabras, cantidad);
+    }
+    
+    /**
+     * Busca libros cuyo título contiene, para cada palabra indicada, una palabra que difiere de ella
+     * en a lo sumo distanciaMaxima letras (inserciones, borrados o sustituciones), de modo que
+     * "soledd" encuentra "Cien años de soledad". Las palabras candidatas se obtienen de un árbol BK
+     * sin calcular la distancia contra todos los títulos.
+     * @param palabras Las palabras a buscar, posiblemente mal escritas
+     * @param distanciaMaxima Cantidad máxima de errores admitidos en cada palabra
+     * @return Lista de libros que coinciden, de la coincidencia más cercana a la más lejana,
+     *         vacía si las palabras son nulas o vacías o la distancia es negativa
+     */
+    @Override
+    public List<Libro> buscarPorTituloAproximado(String palabras, int distanciaMaxima) {
+        if (palabras == null || palabras.trim().isEmpty() || distanciaMaxima < 0) {
+            return new ArrayList<>();
+        }
+        return indiceTitulos.buscarAproximado(palabras, distanciaMaxima);
+    }
+    
+    /**
+     * Busca libros cuyo autor contiene, para cada palabra indicada, una palabra que difiere de ella
+     * en a lo sumo distanciaMaxima letras (inserciones, borrados o sustituciones).
+     * @param palabras Las palabras a buscar, posiblemente mal escritas
+     * @param distanciaMaxima Cantidad máxima de errores admitidos en cada palabra
+     * @return Lista de libros que coinciden, de la coincidencia más cercana a la más lejana,
+     *         vacía si las palabras son nulas o vacías o la distancia es negativa
+     */
+    @Override
+    public List<Libro> buscarPorAutorAproximado(String palabras, int distanciaMaxima) {
+        if (palabras == null || palabras.trim().isEmpty() || distanciaMaxima < 0) {
+            return new ArrayList<>();
+        }
+        return indiceAutores.buscarAproximado(palabras, distanciaMaxima);
+    }
+    
+    /**
+     * Busca los libros que cumplen todos los criterios de una consulta compuesta.
+     * En lugar de resolver cada criterio por separado, se estima con el tamaño de las listas de los índices
+     * cuántos candidatos aporta cada criterio indexado (el ISBN, la partición del estado y, para el título
+     * y el autor, los índices de palabras y de trigramas), se recorre solo la fuente más chica y se verifican
+     * los demás criterios sobre cada candidato. Si el diccionario de autores está habilitado y tiene menos
+     * autores distintos que candidatos la fuente elegida, también se cuentan los libros de los autores
+     * que coinciden, y se parte de ellos si son menos.
+     * Los resultados siguen el orden de inserción, salvo cuando se parte del estado: en ese caso
+     * siguen el orden en que los libros pasaron a ese estado.
+     * @param consulta Los criterios de búsqueda
+     * @return Lista de libros que cumplen todos los criterios, vacía si la consulta es nula
+     */
+    @Override
+    public List<Libro> buscar(Consulta consulta) {
+        List<Libro> resultado = new ArrayList<>();
+        if (consulta == null) {
+            return resultado;
+        }
+        
+        String claveTitulo = consulta.getClaveTitulo();
+        String claveAutor = consulta.getClaveAutor();
+        if (consulta.getIsbnBuscado() != null) {
+            Libro libro = buscarPorIsbn(consulta.getIsbnBuscado());
+            if (libro != null && consulta.cumple(libro, claveTitulo, claveAutor)) {
+                resultado.add(libro);
+            }
+            return resultado;
+        }
+        
+        Collection<Libro> candidatos = planificar(consulta, claveTitulo, claveAutor);
+        boolean enOrden = candidatos == libros
+                || (consulta.getEstado() != null && candidatos == librosPorEstado.get(consulta.getEstado()));
+        if (claveAutor != null && diccionarioAutores != null && diccionarioAutores.contarAutores() < candidatos.size()) {
+            // Los libros de los autores que coinciden ya siguen el orden de las ranuras
+            BitSet autores = diccionarioAutores.autoresQueContienen(claveAutor);
+            if (diccionarioAutores.contarLibros(autores) < candidatos.size()) {
+                candidatos = libros.librosDeAutores(autores);
+                enOrden = true;
+            }
+        }
+        resultado = filtrar(candidatos, candidatos.size(), libro -> consulta.cumple(libro, claveTitulo, claveAutor));
+        if (!enOrden) {
+            // Las listas de los índices no siguen el orden de inserción, que es el de las ranuras
+            resultado = ordenarPorRanura(resultado);
+        }
+        return resultado;
+    }
+    
+    /**
+     * Sugiere títulos del catálogo a partir de lo escrito hasta el momento.
+     * Un título se sugiere si alguna de sus palabras comienza con el prefijo, sin distinguir mayúsculas ni tildes.
+     * @param prefijo El texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista con hasta cantidad títulos distintos, vacía si el prefijo es nulo o vacío
+     */
+    @Override
+    public List<String> autocompletarTitulo(String prefijo, int cantidad) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return autocompletadoTitulos.completar(prefijo, cantidad);
+    }
+    
+    /**
+     * Sugiere autores del catálogo a partir de lo escrito hasta el momento.
+     * Un autor se sugiere si alguna de las palabras de su nombre comienza con el prefijo, sin distinguir mayúsculas ni tildes.
+     * @param prefijo El texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista con hasta cantidad autores distintos, vacía si el prefijo es nulo o vacío
+     */
+    @Override
+    public List<String> autocompletarAutor(String prefijo, int cantidad) {
+        if (prefijo == null || prefijo.trim().isEmpty()) {
+            return new ArrayList<>();
+        }
+        return autocompletadoAutores.completar(prefijo, cantidad);
+    }
+    
+    /**
+     * Habilita o deshabilita los índices de trigramas para buscarPorTitulo y buscarPorAutor.
+     * Con los índices habilitados, las búsquedas de tres o más caracteres solo verifican los libros
+     * que contienen todos los trigramas de la consulta; el resultado no cambia, pero se usa más memoria.
+     * @param habilitada true para construir los índices a partir del contenido actual, false para descartarlos
+     */
+    @Override
+    public void setBusquedaPorTrigramas(boolean habilitada) {
+        if (!habilitada) {
+            trigramasTitulos = null;
+            trigramasAutores = null;
+            return;
+        }
+        if (isBusquedaPorTrigramas()) {
+            return;
+        }
+        
+        trigramasTitulos = new IndiceTrigramas();
+        trigramasAutores = new IndiceTrigramas();
+        for (Libro libro : libros) {
+            trigramasTitulos.agregar(libro, libro.getTitulo());
+            trigramasAutores.agregar(libro, libro.getAutor());
+        }
+    }
+    
+    /**
+     * Habilita o deshabilita el almacenamiento empaquetado de títulos.
+     * Con el almacenamiento habilitado, las claves de búsqueda de los títulos se guardan de forma contigua
+     * como bytes, y cuando ningún índice acota buscarPorTitulo el recorrido compara 8 bytes por vez
+     * en lugar de recorrer los títulos libro por libro.
+     * @param habilitado true para construir el almacenamiento a partir del contenido actual, false para descartarlo
+     */
+    @Override
+    public void setTitulosEmpaquetados(boolean habilitado) {
+        if (!habilitado) {
+            titulosEmpaquetados = null;
+            return;
+        }
+        if (titulosEmpaquetados != null) {
+            return;
+        }
+        
+        titulosEmpaquetados = new TitulosEmpaquetados();
+        for (Libro libro : libros) {
+            titulosEmpaquetados.agregar(libro);
+        }
+    }
+    
+    /**
+     * Indica si el almacenamiento empaquetado de títulos está habilitado
+     * @return true si las búsquedas por título sin índice recorren los títulos empaquetados
+     */
+    @Override
+    public boolean isTitulosEmpaquetados() {
+        return titulosEmpaquetados != null;
+    }
+    
+    /**
+     * Indica si los índices de trigramas están habilitados
+     * @return true si las búsquedas por subcadena usan los índices de trigramas
+     */
+    @Override
+    public boolean isBusquedaPorTrigramas() {
+        return trigramasTitulos != null;
+    }
+    
+    /**
+     * Habilita o deshabilita el diccionario de autores.
+     * Con el diccionario habilitado, los libros de un mismo autor comparten una única copia del nombre,
+     * su forma en minúsculas se calcula una sola vez y cada ranura guarda el identificador entero del autor.
+     * buscarPorAutor compara cada autor distinto una vez y recorre los identificadores de las ranuras
+     * en lugar de las claves de todos los libros, por lo que los resultados conservan el orden de inserción.
+     * @param habilitado true para construir el diccionario a partir del contenido actual, false para descartarlo
+     */
+    @Override
+    public void setDiccionarioDeAutores(boolean habilitado) {
+        if (!habilitado) {
+            diccionarioAutores = null;
+            libros.descartarIdsAutor();
+            return;
+        }
+        if (diccionarioAutores != null) {
+            return;
+        }
+        
+        diccionarioAutores = new DiccionarioAutores();
+        for (int ranura = 0; ranura < libros.proximaRanura(); ranura++) {
+            Libro libro = libros.obtener(ranura);
+            if (libro != null) {
+                libros.setIdAutor(ranura, diccionarioAutores.agregar(libro));
+            }
+        }
+    }
+    
+    /**
+     * Indica si el diccionario de autores está habilitado
+     * @return true si las búsquedas por autor usan el diccionario
+     */
+    @Override
+    public boolean isDiccionarioDeAutores() {
+        return diccionarioAutores != null;
+    }
+    
+    /**
+     * Habilita o deshabilita la caché de resultados de buscarPorTitulo y buscarPorAutor.
+     * Se guardan hasta la cantidad indicada de consultas de cada tipo, desalojando la menos usada recientemente.
+     * Al agregar o eliminar un libro, o al cambiar su título o autor, solo se descartan las consultas
+     * cuyo resultado lo incluía o pasa a incluirlo. Los cambios de estado no alteran esos resultados,
+     * por lo que no descartan consultas.
+     * @param capacidad Cantidad máxima de consultas guardadas por tipo, o 0 para deshabilitar la caché
+     */
+    @Override
+    public void setCacheDeBusquedas(int capacidad) {
+        if (capacidad <= 0) {
+            cacheTitulos = null;
+            cacheAutores = null;
+        } else {
+            cacheTitulos = new CacheBusquedas(capacidad);
+            cacheAutores = new CacheBusquedas(capacidad);
+        }
+    }
+    
+    /**
+     * Obtiene la capacidad de la caché de resultados
+     * @return Cantidad máxima de consultas guardadas por tipo, o 0 si la caché está deshabilitada
+     */
+    @Override
+    public int getCapacidadCacheDeBusquedas() {
+        return cacheTitulos != null ? cacheTitulos.getCapacidad() : 0;
+    }
+    
+    /**
+     * Obtiene la cantidad total de libros en el catálogo
+     * @return Número de libros en el catálogo
+     */
+    @Override
+    public int contarLibros() {
+        return libros.size();
+    }
+    
+    /**
+     * Cuenta la cantidad de libros en un estado determinado
+     * @param estado El estado a contar
+     * @return Número de libros en ese estado
+     */
+    @Override
+    public int contarLibrosPorEstado(Estado estado) {
+        if (estado == null) {
+            return 0;
+        }
+        return librosPorEstado.get(estado).size();
+    }
+    
+    /**
+     * Elige los candidatos de una consulta compuesta: la fuente más chica entre el catálogo completo,
+     * la partición del estado buscado y, para el título y el autor buscados, la lista más corta de los índices
+     * de trigramas y de las palabras completas de la consulta. Solo se comparan tamaños: no se recorre
+     * ni se interseca ninguna lista.
+     * @param consulta La consulta a resolver
+     * @param claveTitulo La clave del título buscado, o null
+     * @param claveAutor La clave del autor buscado, o null
+     * @return Los libros a verificar
+     */
+    private Collection<Libro> planificar(Consulta consulta, String claveTitulo, String claveAutor) {
+        Collection<Libro> menor = libros;
+        if (consulta.getEstado() != null) {
+            menor = masChico(menor, librosPorEstado.get(consulta.getEstado()));
+        }
+        if (claveTitulo != null) {
+            if (trigramasTitulos != null) {
+                menor = masChico(menor, trigramasTitulos.listaMasCorta(claveTitulo));
+            }
+            menor = masChico(menor, indiceTitulos.listaMasCortaDePalabrasCompletas(claveTitulo));
+        }
+        if (claveAutor != null) {
+            if (trigramasAutores != null) {
+                menor = masChico(menor, trigramasAutores.listaMasCorta(claveAutor));
+            }
+            menor = masChico(menor, indiceAutores.listaMasCortaDePalabrasCompletas(claveAutor));
+        }
+        return menor;
+    }
+    
+    private static Collection<Libro> masChico(Collection<Libro> a, Collection<Libro> b) {
+        return b != null && b.size() < a.size() ? b : a;
+    }
+    
+    /**
+     * Ordena libros del catálogo por su ranura, que sigue el orden de inserción.
+     * La ranura de cada libro se busca una sola vez y se ordena junto con su posición en un arreglo de long,
+     * en lugar de volver a buscarla en cada comparación.
+     * @param encontrados Los libros a ordenar
+     * @return Lista nueva con los mismos libros en orden de ranura
+     */
+    private List<Libro> ordenarPorRanura(List<Libro> encontrados) {
+        long[] ranuras = new long[encontrados.size()];
+        for (int i = 0; i < ranuras.length; i++) {
+            ranuras[i] = (long) porIsbn.buscar(encontrados.get(i).getIsbn()) << 32 | i;
+        }
+        Arrays.sort(ranuras);
+        List<Libro> ordenados = new ArrayList<>(ranuras.length);
+        for (long ranura : ranuras) {
+            ordenados.add(encontrados.get((int) ranura));
+        }
+        return ordenados;
+    }
+    
+    /**
+     * Obtiene los libros a verificar en una búsqueda por subcadena
+     * @param indice El índice de trigramas del campo buscado, o null si está deshabilitado
+     * @param consulta La subcadena buscada, en minúsculas
+     * @return Los candidatos del índice, o todos los libros si el índice no puede acotar la búsqueda
+     */
+    private Collection<Libro> candidatos(IndiceTrigramas indice, String consulta) {
+        if (indice != null) {
+            List<Libro> candidatos = indice.candidatos(consulta);
+            if (candidatos != null) {
+                return candidatos;
+            }
+        }
+        return libros;
+    }
+    
+    /**
+     * Agrega un libro al conjunto de su estado actual
+     * @param libro El libro a agregar
+     */
+    private void agregarAParticion(Libro libro) {
+        if (libro.getEstado() != null) {
+            librosPorEstado.get(libro.getEstado()).add(libro);
+        }
+    }
+    
+    /**
+     * Quita un libro del conjunto de un estado
+     * @param libro El libro a quitar
+     * @param estado El estado en el que estaba el libro (puede ser nulo)
+     */
+    private void quitarDeParticion(Libro libro, Estado estado) {
+        if (estado != null) {
+            librosPorEstado.get(estado).remove(libro);
+        }
+    }
+    
+    /**
+     * Obtiene los libros cuyo autor contiene la consulta, en orden de inserción: el diccionario elige
+     * los identificadores de los autores que coinciden y el almacenamiento recorre los de sus ranuras,
+     * que ya siguen ese orden.
+     * @param autorBuscado La subcadena buscada, ya normalizada con ClaveBusqueda
+     * @return Lista nueva con los libros encontrados
+     */
+    private List<Libro> librosDeAutoresQueContienen(String autorBuscado) {
+        return libros.librosDeAutores(diccionarioAutores.autoresQueContienen(autorBuscado));
+    }
+    
+    /**
+     * Descarta de las cachés las consultas afectadas por un libro que se agregó, se quitó o cambió
+     * @param claveTitulo La clave del título del libro
+     * @param claveAutor La clave del autor del libro
+     */
+    private void invalidarCaches(String claveTitulo, String claveAutor) {
+        if (cacheTitulos != null && !importando) {
+            cacheTitulos.invalidar(claveTitulo);
+            cacheAutores.invalidar(claveAutor);
+        }
+    }
+    
+    /**
+     * Mantiene el índice por ISBN cuando un libro del catálogo cambia su ISBN
+     * @param libro El libro que va a cambiar su ISBN
+     * @param nuevoIsbn El nuevo ISBN
+     * @throws IllegalArgumentException si el nuevo ISBN es nulo o ya pertenece a otro libro del catálogo
+     */
+    private void reindexarIsbn(Libro libro, String nuevoIsbn) {
+        if (nuevoIsbn == null) {
+            throw new IllegalArgumentException("El ISBN de un libro del catálogo no puede ser nulo");
+        }
+        int ranura = porIsbn.buscar(libro.getIsbn());
+        int existente = porIsbn.buscar(nuevoIsbn);
+        if (existente != RegistrosPorIsbn.AUSENTE && existente != ranura) {
+            throw new IllegalArgumentException("Ya existe un libro con el ISBN " + nuevoIsbn + " en el catálogo");
+        }
+        
+        porIsbn.quitar(libro.getIsbn());
+        porIsbn.agregarSiAusente(nuevoIsbn, ranura);
+        porIsbnOrdenado.remove(Isbn.normalizar(libro.getIsbn()));
+        porIsbnOrdenado.put(Isbn.normalizar(nuevoIsbn), libro);
+        registrarEnFiltro(nuevoIsbn);
+    }
+    
+    /**
+     * Registra un ISBN en el filtro de Bloom. Antes lo reconstruye con más capacidad si se llenó
+     * o sin los ISBN quitados si estos ya son demasiados; el ISBN se registra después porque,
+     * al cambiar el ISBN de un libro, el libro todavía conserva el anterior.
+     * @param isbn El ISBN a registrar
+     */
+    private void registrarEnFiltro(String isbn) {
+        if (filtroIsbn.tamanio() >= filtroIsbn.getCapacidad()) {
+            reconstruirFiltro();
+        } else {
+            reconstruirFiltroSiHaceFalta();
+        }
+        filtroIsbn.agregar(isbn);
+    }
+    
+    /**
+     * Reconstruye el filtro de Bloom cuando más de un cuarto de sus registros corresponde
+     * a ISBN que ya no están en el catálogo, para que no aumenten los falsos positivos
+     */
+    private void reconstruirFiltroSiHaceFalta() {
+        int obsoletos = filtroIsbn.tamanio() - porIsbn.tamanio();
+        if (obsoletos > filtroIsbn.tamanio() / 4) {
+            reconstruirFiltro();
+        }
+    }
+    
+    private void reconstruirFiltro() {
+        filtroIsbn = new FiltroBloom(Math.max(CAPACIDAD_INICIAL_FILTRO, (int) Math.min(Integer.MAX_VALUE, 2L * porIsbn.tamanio())));
+        for (Libro libro : libros) {
+            filtroIsbn.agregar(libro.getIsbn());
+        }
+    }
+    
+    /**
+     * Observador que el catálogo registra en cada uno de sus libros
+     */
+    private class ObservadorCatalogo implements ObservadorLibro {
+        @Override
+        public void isbnCambiando(Libro libro, String nuevoIsbn) {
+            reindexarIsbn(libro, nuevoIsbn);
+        }
+        
+        @Override
+        public void isbnCambiado(Libro libro, String isbnAnterior) {
+            getOyentes().isbnCambiado(libro, isbnAnterior);
+        }
+        
+        @Override
+        public void tituloCambiado(Libro libro, String tituloAnterior) {
+            indiceTitulos.quitar(libro, tituloAnterior);
+            indiceTitulos.agregar(libro, libro.getTitulo());
+            autocompletadoTitulos.quitar(tituloAnterior);
+            autocompletadoTitulos.agregar(libro.getTitulo());
+            if (isBusquedaPorTrigramas()) {
+                trigramasTitulos.actualizar(libro, tituloAnterior, libro.getTitulo());
+            }
+            if (titulosEmpaquetados != null) {
+                titulosEmpaquetados.actualizar(libro);
+            }
+            if (cacheTitulos != null) {
+                cacheTitulos.invalidar(ClaveBusqueda.normalizar(tituloAnterior));
+                cacheTitulos.invalidar(libro.getClaveTitulo());
+            }
+            getOyentes().tituloCambiado(libro, tituloAnterior);
+        }
+        
+        @Override
+        public void autorCambiado(Libro libro, String autorAnterior) {
+            indiceAutores.quitar(libro, autorAnterior);
+            indiceAutores.agregar(libro, libro.getAutor());
+            autocompletadoAutores.quitar(autorAnterior);
+            autocompletadoAutores.agregar(libro.getAutor());
+            if (isBusquedaPorTrigramas()) {
+                trigramasAutores.actualizar(libro, autorAnterior, libro.getAutor());
+            }
+            if (diccionarioAutores != null) {
+                int ranura = porIsbn.buscar(libro.getIsbn());
+                diccionarioAutores.quitar(libros.idAutor(ranura));
+                libros.setIdAutor(ranura, diccionarioAutores.agregar(libro));
+            }
+            if (cacheAutores != null) {
+                cacheAutores.invalidar(ClaveBusqueda.normalizar(autorAnterior));
+                cacheAutores.invalidar(libro.getClaveAutor());
+            }
+            getOyentes().autorCambiado(libro, autorAnterior);
+        }
+        
+        @Override
+        public void estadoCambiado(Libro libro, Estado estadoAnterior) {
+            if (libro.getEstado() == estadoAnterior) {
+                return;
+            }
+            quitarDeParticion(libro, estadoAnterior);
+            agregarAParticion(libro);
+            getOyentes().estadoCambiado(libro, estadoAnterior);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,51 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalización de textos para las búsquedas del catálogo.
+ * La clave de búsqueda de un texto es el texto en minúsculas y sin tildes ni diéresis,
+ * de modo que "Garcia" coincide con "García" y "PINGUINO" con "pingüino".
+ * La ñ se conserva porque es una letra distinta de la n: "año" no coincide con "ano".
+ * Las claves de título y autor de cada libro se calculan una sola vez y se guardan en el libro.
+ */
+final class ClaveBusqueda {
+    private static final char TILDE_COMBINABLE = '\u0303';
+
+    private ClaveBusqueda() {
+    }
+
+    /**
+     * Obtiene la clave de búsqueda de un texto
+     * @param texto El texto a normalizar (puede ser nulo)
+     * @return El texto en minúsculas y sin marcas diacríticas salvo la de la ñ, o null si el texto es nulo
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return null;
+        }
+
+        boolean esAscii = true;
+        for (int i = 0; i < texto.length() && esAscii; i++) {
+            esAscii = texto.charAt(i) < 0x80;
+        }
+        if (esAscii) {
+            // toLowerCase devuelve la misma instancia si el texto ya está en minúsculas
+            return texto.toLowerCase(Locale.ROOT);
+        }
+
+        String descompuesto = Normalizer.normalize(texto.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        StringBuilder clave = new StringBuilder(descompuesto.length());
+        for (int i = 0; i < descompuesto.length(); i++) {
+            char c = descompuesto.charAt(i);
+            if (c == TILDE_COMBINABLE && clave.length() > 0 && clave.charAt(clave.length() - 1) == 'n') {
+                // La descomposición separa la ñ en n y tilde; se vuelve a componer
+                clave.setCharAt(clave.length() - 1, 'ñ');
+            } else if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                clave.append(c);
+            }
+        }
+        return clave.toString();
+    }
+}
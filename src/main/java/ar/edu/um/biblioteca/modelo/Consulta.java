@@ -0,0 +1,116 @@
+package ar.edu.um.biblioteca.modelo;
+
+/**
+ * Consulta compuesta sobre el catálogo.
+ * Cada criterio es opcional y un libro coincide si cumple todos los criterios indicados:
+ * ISBN (equivalente en cualquiera de sus formatos), subcadena del título, subcadena del autor
+ * (ambas sin distinguir mayúsculas ni tildes) y estado. Una consulta sin criterios coincide con todos los libros.
+ */
+public class Consulta {
+    private String isbn;
+    private String titulo;
+    private String autor;
+    private Estado estado;
+
+    /**
+     * Constructor que crea una consulta sin criterios
+     */
+    public Consulta() {
+    }
+
+    public String getIsbn() {
+        return isbn;
+    }
+
+    /**
+     * Restringe la consulta al libro con el ISBN indicado
+     * @param isbn El ISBN buscado, o null o vacío para no restringir por ISBN
+     */
+    public void setIsbn(String isbn) {
+        this.isbn = isbn;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    /**
+     * Restringe la consulta a los libros cuyo título contiene el texto indicado
+     * @param titulo El texto buscado, o null o vacío para no restringir por título
+     */
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getAutor() {
+        return autor;
+    }
+
+    /**
+     * Restringe la consulta a los libros cuyo autor contiene el texto indicado
+     * @param autor El texto buscado, o null o vacío para no restringir por autor
+     */
+    public void setAutor(String autor) {
+        this.autor = autor;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Restringe la consulta a los libros en el estado indicado
+     * @param estado El estado buscado, o null para no restringir por estado
+     */
+    public void setEstado(Estado estado) {
+        this.estado = estado;
+    }
+
+    /**
+     * Obtiene el ISBN buscado
+     * @return El ISBN, o null si la consulta no restringe por ISBN
+     */
+    String getIsbnBuscado() {
+        return isbn == null || isbn.trim().isEmpty() ? null : isbn;
+    }
+
+    /**
+     * Obtiene la clave de búsqueda del título buscado
+     * @return La clave del título, o null si la consulta no restringe por título
+     */
+    String getClaveTitulo() {
+        return titulo == null || titulo.trim().isEmpty() ? null : ClaveBusqueda.normalizar(titulo);
+    }
+
+    /**
+     * Obtiene la clave de búsqueda del autor buscado
+     * @return La clave del autor, o null si la consulta no restringe por autor
+     */
+    String getClaveAutor() {
+        return autor == null || autor.trim().isEmpty() ? null : ClaveBusqueda.normalizar(autor);
+    }
+
+    /**
+     * Verifica si un libro cumple los criterios de título, autor y estado.
+     * El ISBN no se verifica porque se resuelve con el índice por ISBN.
+     * @param libro El libro a verificar
+     * @param claveTitulo La clave del título buscado, o null
+     * @param claveAutor La clave del autor buscado, o null
+     * @return true si el libro cumple los criterios
+     */
+    boolean cumple(Libro libro, String claveTitulo, String claveAutor) {
+        return (estado == null || libro.getEstado() == estado)
+                && (claveTitulo == null || (libro.getClaveTitulo() != null && libro.getClaveTitulo().contains(claveTitulo)))
+                && (claveAutor == null || (libro.getClaveAutor() != null && libro.getClaveAutor().contains(claveAutor)));
+    }
+
+    @Override
+    public String toString() {
+        return "Consulta{" +
+                "isbn='" + isbn + '\'' +
+                ", titulo='" + titulo + '\'' +
+                ", autor='" + autor + '\'' +
+                ", estado=" + estado +
+                '}';
+    }
+}
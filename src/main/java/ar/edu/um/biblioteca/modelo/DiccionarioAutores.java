@@ -0,0 +1,155 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Diccionario con los autores distintos del catálogo.
+ * Asigna a cada autor distinto un identificador entero y guarda por identificador una sola copia del nombre,
+ * su clave de búsqueda precalculada y la cantidad de libros que lo usan; los libros referencian esas copias
+ * en lugar de guardar cada uno la suya. El diccionario no guarda los libros: el catálogo anota el identificador
+ * del autor de cada libro en su ranura (ver AlmacenLibros), de modo que cada libro cuesta un int.
+ * Una búsqueda por autor compara cada nombre distinto una única vez y después recorre solo esos enteros,
+ * sin tocar los libros que no coinciden.
+ * Los identificadores de los autores que se quedan sin libros se reutilizan; el 0 (SIN_AUTOR) no se asigna.
+ */
+class DiccionarioAutores {
+    /**
+     * Identificador de los libros sin autor
+     */
+    static final int SIN_AUTOR = 0;
+
+    private static final int CAPACIDAD_INICIAL = 16;
+
+    private final Map<String, Integer> idPorNombre;
+    private Autor[] autores;
+    private int[] idsLibres;
+    private int cantidadLibres;
+    private int proximoId;
+
+    /**
+     * Constructor que inicializa un diccionario vacío
+     */
+    DiccionarioAutores() {
+        this.idPorNombre = new HashMap<>();
+        this.autores = new Autor[CAPACIDAD_INICIAL];
+        this.idsLibres = new int[CAPACIDAD_INICIAL];
+        this.proximoId = SIN_AUTOR + 1;
+    }
+
+    /**
+     * Registra el autor de un libro y hace que el libro use la copia compartida del nombre y de su clave
+     * @param libro El libro a registrar
+     * @return El identificador del autor, o SIN_AUTOR si el libro no tiene autor
+     */
+    int agregar(Libro libro) {
+        String nombre = libro.getAutor();
+        if (nombre == null) {
+            return SIN_AUTOR;
+        }
+
+        Integer id = idPorNombre.get(nombre);
+        if (id == null) {
+            id = asignarId(nombre);
+        }
+        Autor autor = autores[id];
+        autor.libros++;
+        libro.compartirAutor(autor.nombre, autor.clave);
+        return id;
+    }
+
+    /**
+     * Descuenta un libro de su autor, liberando el identificador del autor si era su último libro
+     * @param id El identificador devuelto al registrar el libro
+     */
+    void quitar(int id) {
+        Autor autor = id != SIN_AUTOR ? autores[id] : null;
+        if (autor == null) {
+            return;
+        }
+
+        autor.libros--;
+        if (autor.libros == 0) {
+            idPorNombre.remove(autor.nombre);
+            autores[id] = null;
+            if (cantidadLibres == idsLibres.length) {
+                idsLibres = Arrays.copyOf(idsLibres, idsLibres.length * 2);
+            }
+            idsLibres[cantidadLibres++] = id;
+        }
+    }
+
+    /**
+     * Obtiene los identificadores de los autores cuya clave de búsqueda contiene la consulta,
+     * comparando cada autor distinto una vez
+     * @param consulta La subcadena buscada, ya normalizada con ClaveBusqueda
+     * @return Conjunto nuevo con los identificadores de los autores que coinciden
+     */
+    BitSet autoresQueContienen(String consulta) {
+        BitSet resultado = new BitSet(proximoId);
+        for (int id = SIN_AUTOR + 1; id < proximoId; id++) {
+            Autor autor = autores[id];
+            if (autor != null && autor.clave.contains(consulta)) {
+                resultado.set(id);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene la cantidad de libros de un conjunto de autores, sin recorrer los libros
+     * @param ids Los identificadores de los autores
+     * @return La suma de los libros de cada autor
+     */
+    int contarLibros(BitSet ids) {
+        int cantidad = 0;
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            cantidad += autores[id].libros;
+        }
+        return cantidad;
+    }
+
+    /**
+     * Obtiene la cantidad de autores distintos registrados
+     * @return Número de autores en el diccionario
+     */
+    int contarAutores() {
+        return idPorNombre.size();
+    }
+
+    /**
+     * Asigna un identificador a un autor nuevo, reutilizando uno libre si lo hay
+     * @param nombre El nombre del autor
+     * @return El identificador asignado
+     */
+    private int asignarId(String nombre) {
+        int id;
+        if (cantidadLibres > 0) {
+            id = idsLibres[--cantidadLibres];
+        } else {
+            if (proximoId == autores.length) {
+                autores = Arrays.copyOf(autores, autores.length * 2);
+            }
+            id = proximoId++;
+        }
+        autores[id] = new Autor(nombre);
+        idPorNombre.put(nombre, id);
+        return id;
+    }
+
+    /**
+     * Copia compartida del nombre de un autor, con su clave de búsqueda y la cantidad de libros que lo usan
+     */
+    private static final class Autor {
+        private final String nombre;
+        private final String clave;
+        private int libros;
+
+        Autor(String nombre) {
+            this.nombre = nombre;
+            this.clave = ClaveBusqueda.normalizar(nombre);
+        }
+    }
+}
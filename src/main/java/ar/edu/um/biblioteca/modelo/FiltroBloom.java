@@ -0,0 +1,119 @@
+package ar.edu.um.biblioteca.modelo;
+
+/**
+ * Filtro de Bloom sobre identificadores de libros.
+ * Responde en tiempo constante y sin reservar memoria si un identificador seguro no está registrado;
+ * puede dar falsos positivos (alrededor del 1% con la capacidad prevista) pero nunca falsos negativos.
+ * No admite bajas: quien lo usa debe reconstruirlo cuando acumula demasiados identificadores quitados.
+ * Los bits se guardan en bloques de tamaño fijo en lugar de un único arreglo, como en TablaIsbn, y su cantidad
+ * se limita a MAXIMO_BITS: por encima de unos 400 millones de identificadores aumentan los falsos positivos
+ * en lugar de la memoria.
+ */
+class FiltroBloom {
+    static final long MAXIMO_BITS = 1L << 32;
+
+    private static final int FUNCIONES = 7;
+    private static final int BITS_POR_ELEMENTO = 10;
+    private static final int BITS_BLOQUE = 13;
+    private static final int PALABRAS_POR_BLOQUE = 1 << BITS_BLOQUE;
+
+    private final long[][] bloques;
+    private final long mascara;
+    private final int capacidad;
+    private int cantidad;
+
+    /**
+     * Constructor que inicializa un filtro vacío
+     * @param capacidad Cantidad de identificadores prevista
+     */
+    FiltroBloom(int capacidad) {
+        long totalBits = bitsPara(capacidad);
+        long palabras = totalBits / Long.SIZE;
+        this.bloques = new long[(int) Math.max(1, palabras >>> BITS_BLOQUE)][(int) Math.min(palabras, PALABRAS_POR_BLOQUE)];
+        this.mascara = totalBits - 1;
+        this.capacidad = capacidad;
+    }
+
+    /**
+     * Calcula la cantidad de bits del filtro: la potencia de 2 que da al menos BITS_POR_ELEMENTO bits
+     * por identificador previsto, entre 128 y MAXIMO_BITS
+     * @param capacidad Cantidad de identificadores prevista
+     * @return Cantidad de bits
+     */
+    static long bitsPara(int capacidad) {
+        long pedidos = Math.max(Long.SIZE, (long) capacidad * BITS_POR_ELEMENTO - 1);
+        return Math.min(MAXIMO_BITS, Long.highestOneBit(pedidos) << 1);
+    }
+
+    /**
+     * Registra un identificador
+     * @param identificador El ISBN u otro identificador del libro
+     */
+    void agregar(String identificador) {
+        long h = dispersar(clave(identificador));
+        long h1 = h & 0xffffffffL;
+        long h2 = (h >>> 32) | 1;
+        for (int i = 0; i < FUNCIONES; i++) {
+            long bit = (h1 + i * h2) & mascara;
+            long palabra = bit >>> 6;
+            bloques[(int) (palabra >>> BITS_BLOQUE)][(int) palabra & (PALABRAS_POR_BLOQUE - 1)] |= 1L << bit;
+        }
+        cantidad++;
+    }
+
+    /**
+     * Indica si un identificador puede estar registrado
+     * @param identificador El ISBN u otro identificador buscado
+     * @return false si el identificador seguro no se registró, true si puede haberse registrado
+     */
+    boolean puedeContener(String identificador) {
+        long h = dispersar(clave(identificador));
+        long h1 = h & 0xffffffffL;
+        long h2 = (h >>> 32) | 1;
+        for (int i = 0; i < FUNCIONES; i++) {
+            long bit = (h1 + i * h2) & mascara;
+            long palabra = bit >>> 6;
+            if ((bloques[(int) (palabra >>> BITS_BLOQUE)][(int) palabra & (PALABRAS_POR_BLOQUE - 1)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Obtiene la cantidad de identificadores prevista al crear el filtro
+     * @return La capacidad del filtro
+     */
+    int getCapacidad() {
+        return capacidad;
+    }
+
+    /**
+     * Obtiene la cantidad de registros hechos, incluidos los de identificadores que luego se quitaron
+     * @return Número de llamadas a agregar
+     */
+    int tamanio() {
+        return cantidad;
+    }
+
+    /**
+     * Obtiene la clave numérica de un identificador: su ISBN-13 si es un ISBN válido, de modo que
+     * los distintos formatos de un mismo ISBN coinciden, o el hash del texto en caso contrario
+     */
+    private static long clave(String identificador) {
+        long numero = Isbn.aNumero(identificador);
+        return numero != Isbn.NO_VALIDO ? numero : ~(long) identificador.hashCode();
+    }
+
+    /**
+     * Mezcla los bits de la clave (finalizador de MurmurHash3)
+     */
+    private static long dispersar(long clave) {
+        clave ^= clave >>> 33;
+        clave *= 0xff51afd7ed558ccdL;
+        clave ^= clave >>> 33;
+        clave *= 0xc4ceb9fe1a85ec53L;
+        clave ^= clave >>> 33;
+        return clave;
+    }
+}
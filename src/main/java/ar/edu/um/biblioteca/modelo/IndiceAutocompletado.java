@@ -0,0 +1,262 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Índice ordenado para sugerir textos completos (títulos o autores) a partir de un prefijo.
+ * Por cada texto distinto se guarda una entrada con su clave de búsqueda y, en un conjunto ordenado,
+ * una referencia a esa entrada por cada comienzo de palabra, ordenada por la clave desde ese comienzo,
+ * de modo que "marq" sugiere "Gabriel García Márquez" sin copiar la clave una vez por palabra.
+ * Una consulta es una búsqueda por rango sobre ese conjunto; los textos encontrados se ordenan por relevancia
+ * y se devuelven los primeros. Para que cada consulta tenga un costo acotado aunque el prefijo sea muy común,
+ * como "de" o "el", se examinan a lo sumo LIMITE_CANDIDATOS textos de cada tipo.
+ * Las altas y bajas de textos se serializan en el propio índice. El índice que devuelve concurrente() guarda
+ * las entradas y los comienzos de palabra en listas por saltos concurrentes, de modo que varios hilos pueden
+ * pedir sugerencias a la vez sin tomar ningún lock mientras otro agrega o quita textos; esas consultas ven
+ * los cambios en curso de forma débilmente consistente. El índice que crea el constructor usa árboles
+ * y solo admite consultas desde el hilo que lo modifica.
+ */
+class IndiceAutocompletado {
+    /**
+     * Orden de las sugerencias: primero los textos que comienzan con el prefijo, después los que usan
+     * más libros y, a igual relevancia, por su clave de búsqueda
+     */
+    private static final Comparator<Candidato> RELEVANCIA = Comparator
+            .comparing((Candidato candidato) -> !candidato.alComienzo)
+            .thenComparingInt(candidato -> -candidato.apariciones)
+            .thenComparing(candidato -> candidato.entrada.clave);
+
+    /**
+     * Cantidad máxima de textos que comienzan con el prefijo, y de textos que lo contienen en otra palabra,
+     * que se examinan en cada consulta
+     */
+    static final int LIMITE_CANDIDATOS = 1024;
+
+    private final NavigableSet<InicioDePalabra> inicios;
+    private final NavigableMap<String, Entrada> entradas;
+
+    /**
+     * Constructor que inicializa un índice vacío
+     */
+    IndiceAutocompletado() {
+        this(new TreeSet<>(), new TreeMap<>());
+    }
+
+    private IndiceAutocompletado(NavigableSet<InicioDePalabra> inicios, NavigableMap<String, Entrada> entradas) {
+        this.inicios = inicios;
+        this.entradas = entradas;
+    }
+
+    /**
+     * Crea un índice vacío que admite consultas sin locks mientras otros hilos lo modifican
+     * @return Un índice respaldado por listas por saltos concurrentes
+     */
+    static IndiceAutocompletado concurrente() {
+        return new IndiceAutocompletado(new ConcurrentSkipListSet<>(), new ConcurrentSkipListMap<>());
+    }
+
+    /**
+     * Registra un texto. Los textos con la misma clave de búsqueda se sugieren una sola vez.
+     * @param texto El texto a registrar (puede ser nulo)
+     */
+    synchronized void agregar(String texto) {
+        String clave = ClaveBusqueda.normalizar(texto);
+        if (clave == null || clave.isEmpty()) {
+            return;
+        }
+
+        Entrada entrada = entradas.get(clave);
+        if (entrada == null) {
+            entrada = new Entrada(clave, texto);
+            entradas.put(clave, entrada);
+            for (int inicio : iniciosDePalabra(clave)) {
+                inicios.add(new InicioDePalabra(entrada, inicio));
+            }
+        }
+        entrada.apariciones++;
+    }
+
+    /**
+     * Quita una aparición de un texto, dejando de sugerirlo cuando no quedan libros que lo usen
+     * @param texto El texto que se había registrado (puede ser nulo)
+     */
+    synchronized void quitar(String texto) {
+        String clave = ClaveBusqueda.normalizar(texto);
+        Entrada entrada = clave != null ? entradas.get(clave) : null;
+        if (entrada == null) {
+            return;
+        }
+
+        entrada.apariciones--;
+        if (entrada.apariciones == 0) {
+            entradas.remove(clave);
+            for (int inicio : iniciosDePalabra(clave)) {
+                inicios.remove(new InicioDePalabra(entrada, inicio));
+            }
+        }
+    }
+
+    /**
+     * Obtiene los textos que tienen alguna palabra que comienza con el prefijo, sin distinguir mayúsculas ni tildes.
+     * Las sugerencias se ordenan por relevancia: primero los textos que comienzan con el prefijo, después
+     * los que usan más libros y, a igual relevancia, alfabéticamente por su clave de búsqueda.
+     * Los textos que comienzan con el prefijo se buscan primero, por rango sobre las claves; solo si no alcanzan
+     * para completar la cantidad pedida se buscan los que lo contienen en otra palabra. Si coinciden más
+     * de LIMITE_CANDIDATOS textos de un tipo, se eligen entre los primeros LIMITE_CANDIDATOS en orden alfabético
+     * desde el prefijo, por lo que el orden por cantidad de libros es aproximado hasta que se escriben más letras.
+     * @param prefijo El texto escrito hasta el momento
+     * @param cantidad Cantidad máxima de sugerencias
+     * @return Lista con hasta cantidad textos distintos
+     */
+    List<String> completar(String prefijo, int cantidad) {
+        List<String> resultado = new ArrayList<>();
+        String clavePrefijo = ClaveBusqueda.normalizar(prefijo.stripLeading());
+        if (clavePrefijo.isEmpty() || cantidad <= 0) {
+            return resultado;
+        }
+
+        // Se conservan los cantidad más relevantes en un montículo cuya raíz es el menos relevante
+        PriorityQueue<Candidato> mejores = new PriorityQueue<>(RELEVANCIA.reversed());
+        int examinados = 0;
+        for (Map.Entry<String, Entrada> entrada : entradas.tailMap(clavePrefijo, true).entrySet()) {
+            if (!entrada.getKey().startsWith(clavePrefijo) || examinados++ == LIMITE_CANDIDATOS) {
+                break;
+            }
+            conservar(mejores, new Candidato(entrada.getValue(), true), cantidad);
+        }
+
+        // Los textos que lo contienen en otra palabra solo completan la cantidad pedida
+        if (mejores.size() < cantidad) {
+            Set<Entrada> vistas = new HashSet<>();
+            examinados = 0;
+            for (InicioDePalabra inicio : inicios.tailSet(new InicioDePalabra(new Entrada(clavePrefijo, null), 0), true)) {
+                if (!inicio.comienzaCon(clavePrefijo) || examinados == LIMITE_CANDIDATOS) {
+                    break;
+                }
+                Entrada entrada = inicio.entrada;
+                if (!entrada.clave.startsWith(clavePrefijo) && vistas.add(entrada)) {
+                    examinados++;
+                    conservar(mejores, new Candidato(entrada, false), cantidad);
+                }
+            }
+        }
+
+        while (!mejores.isEmpty()) {
+            resultado.add(mejores.poll().entrada.texto);
+        }
+        Collections.reverse(resultado);
+        return resultado;
+    }
+
+    /**
+     * Agrega un candidato al montículo de los más relevantes, descartando el menos relevante si sobra uno
+     */
+    private static void conservar(PriorityQueue<Candidato> mejores, Candidato candidato, int cantidad) {
+        if (candidato.apariciones == 0) {
+            // Otro hilo quitó el último libro que lo usaba mientras se recorría el índice
+            return;
+        }
+        mejores.add(candidato);
+        if (mejores.size() > cantidad) {
+            mejores.poll();
+        }
+    }
+
+    private static List<Integer> iniciosDePalabra(String clave) {
+        List<Integer> inicios = new ArrayList<>();
+        for (int i = 0; i < clave.length(); i++) {
+            boolean esParteDePalabra = Character.isLetterOrDigit(clave.charAt(i));
+            if (esParteDePalabra && (i == 0 || !Character.isLetterOrDigit(clave.charAt(i - 1)))) {
+                inicios.add(i);
+            }
+        }
+        return inicios;
+    }
+
+    /**
+     * Clave de búsqueda, texto a mostrar y cantidad de libros que lo usan
+     */
+    private static class Entrada {
+        private final String clave;
+        private final String texto;
+        private volatile int apariciones;
+
+        private Entrada(String clave, String texto) {
+            this.clave = clave;
+            this.texto = texto;
+        }
+    }
+
+    /**
+     * Comienzo de una palabra dentro de la clave de una entrada. Se ordena por la clave desde ese comienzo,
+     * comparando los caracteres sin crear subcadenas; a igual resto, la entrada sin texto (la consulta)
+     * va primero y las demás se desempatan por su clave completa.
+     */
+    private static final class InicioDePalabra implements Comparable<InicioDePalabra> {
+        private final Entrada entrada;
+        private final int desde;
+
+        private InicioDePalabra(Entrada entrada, int desde) {
+            this.entrada = entrada;
+            this.desde = desde;
+        }
+
+        private boolean comienzaCon(String prefijo) {
+            return entrada.clave.startsWith(prefijo, desde);
+        }
+
+        @Override
+        public int compareTo(InicioDePalabra otro) {
+            String clave = entrada.clave;
+            String otraClave = otro.entrada.clave;
+            int longitud = clave.length() - desde;
+            int otraLongitud = otraClave.length() - otro.desde;
+            for (int i = 0; i < Math.min(longitud, otraLongitud); i++) {
+                int diferencia = clave.charAt(desde + i) - otraClave.charAt(otro.desde + i);
+                if (diferencia != 0) {
+                    return diferencia;
+                }
+            }
+            if (longitud != otraLongitud) {
+                return longitud - otraLongitud;
+            }
+            if (entrada == otro.entrada) {
+                return 0;
+            }
+            if (entrada.texto == null || otro.entrada.texto == null) {
+                return entrada.texto == null ? -1 : 1;
+            }
+            return clave.compareTo(otraClave);
+        }
+    }
+
+    /**
+     * Texto que coincide con una consulta, indicando si coincide desde su primera palabra.
+     * Guarda la cantidad de libros leída al examinarlo, para que el montículo no cambie de orden
+     * si otro hilo modifica la entrada durante la consulta.
+     */
+    private static final class Candidato {
+        private final Entrada entrada;
+        private final boolean alComienzo;
+        private final int apariciones;
+
+        private Candidato(Entrada entrada, boolean alComienzo) {
+            this.entrada = entrada;
+            this.alComienzo = alComienzo;
+            this.apariciones = entrada.apariciones;
+        }
+    }
+}
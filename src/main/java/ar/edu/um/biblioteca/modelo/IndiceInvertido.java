@@ -0,0 +1,316 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Índice invertido que asocia cada palabra normalizada con el conjunto de libros que la contienen.
+ * Lo utiliza el catálogo para resolver búsquedas por palabras sin recorrer toda la colección.
+ * Las palabras indexadas se guardan también en un árbol BK para las búsquedas aproximadas,
+ * y la cantidad de palabras de cada texto para ordenar los resultados por relevancia con BM25.
+ */
+class IndiceInvertido {
+    static final double BM25_K1 = 1.2;
+    static final double BM25_B = 0.75;
+
+    private final Map<String, Set<Libro>> postings;
+    private final ArbolBK palabras;
+    private final Map<Libro, Integer> longitudes;
+    private long sumaLongitudes;
+
+    /**
+     * Constructor que inicializa un índice vacío
+     */
+    IndiceInvertido() {
+        this.postings = new HashMap<>();
+        this.palabras = new ArbolBK();
+        this.longitudes = new HashMap<>();
+    }
+
+    /**
+     * Indexa las palabras de un texto para el libro indicado
+     * @param libro El libro al que pertenece el texto
+     * @param texto El texto a indexar (puede ser nulo)
+     */
+    void agregar(Libro libro, String texto) {
+        Set<String> palabrasDelTexto = tokenizar(texto);
+        longitudes.put(libro, palabrasDelTexto.size());
+        sumaLongitudes += palabrasDelTexto.size();
+        for (String palabra : palabrasDelTexto) {
+            Set<Libro> libros = postings.get(palabra);
+            if (libros == null) {
+                libros = new LinkedHashSet<>();
+                postings.put(palabra, libros);
+                palabras.agregar(palabra);
+            }
+            libros.add(libro);
+        }
+    }
+
+    /**
+     * Quita del índice las palabras de un texto para el libro indicado
+     * @param libro El libro al que pertenece el texto
+     * @param texto El texto que se había indexado (puede ser nulo)
+     */
+    void quitar(Libro libro, String texto) {
+        Integer longitud = longitudes.remove(libro);
+        if (longitud != null) {
+            sumaLongitudes -= longitud;
+        }
+        for (String palabra : tokenizar(texto)) {
+            Set<Libro> libros = postings.get(palabra);
+            if (libros != null) {
+                libros.remove(libro);
+                if (libros.isEmpty()) {
+                    postings.remove(palabra);
+                }
+            }
+        }
+        // El árbol BK no admite bajas: las palabras sin libros se ignoran al buscar
+        // y se descartan reconstruyendo el árbol cuando superan a las vigentes
+        if (palabras.tamanio() > 2 * postings.size() + 64) {
+            palabras.reconstruir(postings.keySet());
+        }
+    }
+
+    /**
+     * Busca los libros que contienen todas las palabras de la consulta.
+     * Se recorre la lista más corta y se verifica la pertenencia en las demás.
+     * @param consulta Las palabras a buscar
+     * @return Lista de libros que contienen todas las palabras, en el orden en que fueron indexados
+     */
+    List<Libro> buscar(String consulta) {
+        List<Set<Libro>> listas = new ArrayList<>();
+        for (String palabra : tokenizar(consulta)) {
+            Set<Libro> libros = postings.get(palabra);
+            if (libros == null) {
+                return new ArrayList<>();
+            }
+            listas.add(libros);
+        }
+        if (listas.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Libro> menor = listas.get(0);
+        for (Set<Libro> libros : listas) {
+            if (libros.size() < menor.size()) {
+                menor = libros;
+            }
+        }
+
+        List<Libro> resultado = new ArrayList<>();
+        for (Libro libro : menor) {
+            if (estaEnTodas(libro, listas)) {
+                resultado.add(libro);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Obtiene la lista de libros más corta entre las de las palabras completas de una subcadena buscada.
+     * Una palabra de la subcadena es completa si dentro de la propia subcadena tiene un separador antes y después
+     * (como "del" en "nombre del viento"), por lo que todo texto que contiene la subcadena contiene esa palabra.
+     * @param subcadena La subcadena buscada, ya normalizada con ClaveBusqueda
+     * @return Los libros de la palabra completa menos frecuente, vacío si alguna no aparece en el índice,
+     *         o null si la subcadena no tiene palabras completas
+     */
+    Set<Libro> listaMasCortaDePalabrasCompletas(String subcadena) {
+        Set<Libro> menor = null;
+        int inicio = -1;
+        for (int i = 0; i < subcadena.length(); i++) {
+            boolean esParteDePalabra = Character.isLetterOrDigit(subcadena.charAt(i));
+            if (esParteDePalabra && inicio < 0) {
+                inicio = i;
+            } else if (!esParteDePalabra && inicio >= 0) {
+                // La última palabra sin separador final queda fuera porque el ciclo termina antes
+                if (inicio > 0) {
+                    Set<Libro> libros = postings.get(subcadena.substring(inicio, i));
+                    if (libros == null) {
+                        return Collections.emptySet();
+                    }
+                    if (menor == null || libros.size() < menor.size()) {
+                        menor = libros;
+                    }
+                }
+                inicio = -1;
+            }
+        }
+        return menor != null ? Collections.unmodifiableSet(menor) : null;
+    }
+
+    /**
+     * Busca los libros que contienen, para cada palabra de la consulta, alguna palabra a distancia
+     * de edición menor o igual a la indicada.
+     * Los resultados se ordenan por la suma de las distancias de sus palabras a las de la consulta.
+     * @param consulta Las palabras a buscar
+     * @param distanciaMaxima La distancia de edición máxima admitida para cada palabra
+     * @return Lista de libros que coinciden, de la coincidencia más cercana a la más lejana
+     */
+    List<Libro> buscarAproximado(String consulta, int distanciaMaxima) {
+        Map<Libro, Integer> distancias = null;
+        for (String buscada : tokenizar(consulta)) {
+            Map<Libro, Integer> coincidencias = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> palabra : palabras.buscar(buscada, distanciaMaxima).entrySet()) {
+                Set<Libro> libros = postings.get(palabra.getKey());
+                if (libros == null) {
+                    continue;
+                }
+                for (Libro libro : libros) {
+                    coincidencias.merge(libro, palabra.getValue(), Math::min);
+                }
+            }
+
+            if (distancias == null) {
+                distancias = coincidencias;
+            } else {
+                distancias.keySet().retainAll(coincidencias.keySet());
+                for (Map.Entry<Libro, Integer> distancia : distancias.entrySet()) {
+                    distancia.setValue(distancia.getValue() + coincidencias.get(distancia.getKey()));
+                }
+            }
+            if (distancias.isEmpty()) {
+                break;
+            }
+        }
+
+        List<Libro> resultado = new ArrayList<>();
+        if (distancias == null) {
+            return resultado;
+        }
+        resultado.addAll(distancias.keySet());
+        resultado.sort(Comparator.comparingInt(distancias::get));
+        return resultado;
+    }
+
+    /**
+     * Busca los libros que contienen alguna de las palabras de la consulta y devuelve los más relevantes según BM25.
+     * Las palabras poco frecuentes en el índice y los textos cortos puntúan más.
+     * @param consulta Las palabras a buscar
+     * @param cantidad Cantidad máxima de resultados
+     * @return Lista con hasta cantidad libros, del más relevante al menos relevante
+     */
+    List<Libro> buscarMasRelevantes(String consulta, int cantidad) {
+        Map<Libro, Double> puntajes = new LinkedHashMap<>();
+        double longitudPromedio = longitudes.isEmpty() ? 0 : (double) sumaLongitudes / longitudes.size();
+        for (String palabra : tokenizar(consulta)) {
+            Set<Libro> libros = postings.get(palabra);
+            if (libros == null) {
+                continue;
+            }
+            for (Libro libro : libros) {
+                double puntaje = bm25(libros.size(), longitudes.size(), longitudes.get(libro), longitudPromedio);
+                puntajes.merge(libro, puntaje, Double::sum);
+            }
+        }
+        return mejores(puntajes, cantidad);
+    }
+
+    /**
+     * Calcula el aporte BM25 de una palabra presente en un texto.
+     * Cada palabra cuenta una sola vez por texto, como en el resto del índice.
+     * @param textosConPalabra Cantidad de textos indexados que contienen la palabra
+     * @param totalTextos Cantidad total de textos indexados
+     * @param longitud Cantidad de palabras distintas del texto
+     * @param longitudPromedio Cantidad promedio de palabras distintas por texto
+     * @return Puntaje de la palabra para el texto
+     */
+    static double bm25(int textosConPalabra, int totalTextos, int longitud, double longitudPromedio) {
+        double idf = Math.log(1 + (totalTextos - textosConPalabra + 0.5) / (textosConPalabra + 0.5));
+        double normalizacion = longitudPromedio > 0 ? longitud / longitudPromedio : 1;
+        return idf * (BM25_K1 + 1) / (1 + BM25_K1 * (1 - BM25_B + BM25_B * normalizacion));
+    }
+
+    /**
+     * Selecciona los libros de mayor puntaje con un montículo acotado a la cantidad pedida,
+     * sin ordenar todos los candidatos. A igual puntaje se prefiere el que aparece antes en el mapa.
+     * @param puntajes Puntaje de cada candidato
+     * @param cantidad Cantidad máxima de resultados
+     * @return Lista con hasta cantidad libros, de mayor a menor puntaje
+     */
+    static List<Libro> mejores(Map<Libro, Double> puntajes, int cantidad) {
+        List<Libro> resultado = new ArrayList<>();
+        if (cantidad <= 0) {
+            return resultado;
+        }
+
+        // El montículo guarda el peor de los seleccionados en la raíz para poder descartarlo
+        Comparator<Candidato> peorPrimero = Comparator.<Candidato>comparingDouble(c -> c.puntaje)
+                .thenComparing(Comparator.<Candidato>comparingInt(c -> c.posicion).reversed());
+        PriorityQueue<Candidato> seleccionados = new PriorityQueue<>(cantidad, peorPrimero);
+        int posicion = 0;
+        for (Map.Entry<Libro, Double> puntaje : puntajes.entrySet()) {
+            Candidato candidato = new Candidato(puntaje.getKey(), puntaje.getValue(), posicion++);
+            if (seleccionados.size() < cantidad) {
+                seleccionados.add(candidato);
+            } else if (peorPrimero.compare(candidato, seleccionados.peek()) > 0) {
+                seleccionados.poll();
+                seleccionados.add(candidato);
+            }
+        }
+
+        while (!seleccionados.isEmpty()) {
+            resultado.add(seleccionados.poll().libro);
+        }
+        Collections.reverse(resultado);
+        return resultado;
+    }
+
+    /**
+     * Divide un texto en palabras en minúsculas y sin tildes, descartando signos de puntuación
+     * @param texto El texto a dividir (puede ser nulo)
+     * @return Conjunto de palabras distintas del texto, en orden de aparición
+     */
+    static Set<String> tokenizar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return Collections.emptySet();
+        }
+
+        Set<String> palabras = new LinkedHashSet<>();
+        String minusculas = ClaveBusqueda.normalizar(texto);
+        int inicio = -1;
+        for (int i = 0; i <= minusculas.length(); i++) {
+            boolean esParteDePalabra = i < minusculas.length() && Character.isLetterOrDigit(minusculas.charAt(i));
+            if (esParteDePalabra && inicio < 0) {
+                inicio = i;
+            } else if (!esParteDePalabra && inicio >= 0) {
+                palabras.add(minusculas.substring(inicio, i));
+                inicio = -1;
+            }
+        }
+        return palabras;
+    }
+
+    /**
+     * Libro candidato con su puntaje y su posición de aparición
+     */
+    private static class Candidato {
+        private final Libro libro;
+        private final double puntaje;
+        private final int posicion;
+
+        private Candidato(Libro libro, double puntaje, int posicion) {
+            this.libro = libro;
+            this.puntaje = puntaje;
+            this.posicion = posicion;
+        }
+    }
+
+    private static boolean estaEnTodas(Libro libro, List<Set<Libro>> listas) {
+        for (Set<Libro> libros : listas) {
+            if (!libros.contains(libro)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,133 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Índice de valores por ISBN.
+ * Los ISBN válidos se guardan como números ISBN-13 en una tabla de direccionamiento abierto con claves long,
+ * por lo que las búsquedas no calculan el hash del String ni crean objetos, y distintas escrituras
+ * del mismo ISBN (con o sin guiones, ISBN-10 o ISBN-13) se consideran la misma clave.
+ * Los identificadores que no son ISBN válidos se guardan aparte, en un HashMap por texto exacto.
+ * La tabla y los valores se guardan en bloques (ver TablaIsbn).
+ *
+ * @param <V> El tipo de los valores indexados
+ */
+public class IndiceIsbn<V> extends TablaIsbn {
+    private Object[][] valores;
+    private final Map<String, V> otros;
+    
+    /**
+     * Constructor que inicializa un índice vacío
+     */
+    public IndiceIsbn() {
+        super(0);
+        this.otros = new HashMap<>();
+        this.valores = new Object[bloques()][tamanioBloque()];
+    }
+    
+    /**
+     * Busca el valor asociado a un ISBN
+     * @param isbn El ISBN buscado (puede ser nulo)
+     * @return El valor asociado o null si no existe
+     */
+    public V buscar(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        long numero = Isbn.aNumero(isbn);
+        if (numero == Isbn.NO_VALIDO) {
+            return otros.get(isbn);
+        }
+        int posicion = posicionDe(numero);
+        return claveEn(posicion) == numero ? valorEn(posicion) : null;
+    }
+    
+    /**
+     * Indica si hay un valor asociado a un ISBN
+     * @param isbn El ISBN buscado (puede ser nulo)
+     * @return true si el ISBN está en el índice
+     */
+    public boolean contiene(String isbn) {
+        return buscar(isbn) != null;
+    }
+    
+    /**
+     * Asocia un valor a un ISBN solo si el ISBN no estaba en el índice
+     * @param isbn El ISBN
+     * @param valor El valor a asociar (no nulo)
+     * @return null si se agregó, o el valor que ya estaba asociado al ISBN
+     */
+    public V agregarSiAusente(String isbn, V valor) {
+        long numero = Isbn.aNumero(isbn);
+        if (numero == Isbn.NO_VALIDO) {
+            return otros.putIfAbsent(isbn, valor);
+        }
+        
+        int posicion = posicionDe(numero);
+        if (claveEn(posicion) == numero) {
+            return valorEn(posicion);
+        }
+        valores[bloqueDe(posicion)][indiceEnBloque(posicion)] = valor;
+        ocupar(posicion, numero);
+        return null;
+    }
+    
+    /**
+     * Quita un ISBN del índice
+     * @param isbn El ISBN a quitar (puede ser nulo)
+     * @return El valor que estaba asociado o null si no existía
+     */
+    public V quitar(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        long numero = Isbn.aNumero(isbn);
+        if (numero == Isbn.NO_VALIDO) {
+            return otros.remove(isbn);
+        }
+        
+        int posicion = posicionDe(numero);
+        if (claveEn(posicion) != numero) {
+            return null;
+        }
+        V anterior = valorEn(posicion);
+        borrarEn(posicion);
+        return anterior;
+    }
+    
+    /**
+     * Obtiene la cantidad de ISBN en el índice
+     * @return Número de entradas
+     */
+    public int tamanio() {
+        return cantidadNumericos() + otros.size();
+    }
+    
+    @Override
+    Object reemplazarValores(int bloques, int tamanioBloque) {
+        Object[][] anteriores = valores;
+        valores = new Object[bloques][tamanioBloque];
+        return anteriores;
+    }
+    
+    @Override
+    void copiarValor(Object anteriores, int desde, int hacia) {
+        valores[bloqueDe(hacia)][indiceEnBloque(hacia)] = ((Object[][]) anteriores)[bloqueDe(desde)][indiceEnBloque(desde)];
+    }
+    
+    @Override
+    void moverValor(int desde, int hacia) {
+        valores[bloqueDe(hacia)][indiceEnBloque(hacia)] = valores[bloqueDe(desde)][indiceEnBloque(desde)];
+    }
+    
+    @Override
+    void vaciarValor(int posicion) {
+        valores[bloqueDe(posicion)][indiceEnBloque(posicion)] = null;
+    }
+    
+    @SuppressWarnings("unchecked")
+    private V valorEn(int posicion) {
+        return (V) valores[bloqueDe(posicion)][indiceEnBloque(posicion)];
+    }
+}
@@ -0,0 +1,168 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice de trigramas (secuencias de tres caracteres) sobre las claves de búsqueda de los textos.
+ * Permite acotar una búsqueda por subcadena a los libros que contienen todos los trigramas
+ * de la consulta; el catálogo luego verifica cada candidato con contains, por lo que
+ * el resultado es exactamente el mismo que el de recorrer toda la colección.
+ */
+class IndiceTrigramas {
+    static final int LONGITUD = 3;
+
+    private final Map<String, Set<Libro>> postings;
+    private final Map<Libro, Long> ordenDeAlta;
+    private long proximoOrden;
+
+    /**
+     * Constructor que inicializa un índice vacío
+     */
+    IndiceTrigramas() {
+        this.postings = new HashMap<>();
+        this.ordenDeAlta = new IdentityHashMap<>();
+        this.proximoOrden = 0;
+    }
+
+    /**
+     * Indexa un libro nuevo con su texto
+     * @param libro El libro a indexar
+     * @param texto El texto del libro (puede ser nulo)
+     */
+    void agregar(Libro libro, String texto) {
+        ordenDeAlta.putIfAbsent(libro, proximoOrden++);
+        agregarTrigramas(libro, texto);
+    }
+
+    /**
+     * Quita un libro del índice
+     * @param libro El libro a quitar
+     * @param texto El texto con el que se había indexado (puede ser nulo)
+     */
+    void quitar(Libro libro, String texto) {
+        quitarTrigramas(libro, texto);
+        ordenDeAlta.remove(libro);
+    }
+
+    /**
+     * Actualiza el texto indexado de un libro conservando su posición en el orden de alta
+     * @param libro El libro modificado
+     * @param textoAnterior El texto con el que se había indexado
+     * @param textoNuevo El texto actual del libro
+     */
+    void actualizar(Libro libro, String textoAnterior, String textoNuevo) {
+        quitarTrigramas(libro, textoAnterior);
+        agregarTrigramas(libro, textoNuevo);
+    }
+
+    /**
+     * Obtiene los libros que contienen todos los trigramas de la consulta
+     * @param consulta La subcadena buscada, ya normalizada con ClaveBusqueda
+     * @return Los candidatos en orden de alta, o null si la consulta es demasiado corta para usar el índice
+     */
+    List<Libro> candidatos(String consulta) {
+        Set<String> trigramas = trigramas(consulta);
+        if (trigramas.isEmpty()) {
+            return null;
+        }
+
+        List<Set<Libro>> listas = new ArrayList<>();
+        for (String trigrama : trigramas) {
+            Set<Libro> libros = postings.get(trigrama);
+            if (libros == null) {
+                return new ArrayList<>();
+            }
+            listas.add(libros);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        List<Libro> resultado = new ArrayList<>();
+        for (Libro libro : listas.get(0)) {
+            boolean estaEnTodas = true;
+            for (int i = 1; i < listas.size() && estaEnTodas; i++) {
+                estaEnTodas = listas.get(i).contains(libro);
+            }
+            if (estaEnTodas) {
+                resultado.add(libro);
+            }
+        }
+        resultado.sort(Comparator.comparingLong(ordenDeAlta::get));
+        return resultado;
+    }
+
+    /**
+     * Obtiene la lista de libros más corta entre las de los trigramas de la consulta, sin intersecarlas.
+     * Todo libro cuyo texto contiene la consulta está en esa lista, por lo que su tamaño acota
+     * la cantidad de coincidencias y alcanza con recorrerla verificando cada libro.
+     * @param consulta La subcadena buscada, ya normalizada con ClaveBusqueda
+     * @return Los libros del trigrama menos frecuente, sin un orden determinado, vacío si algún trigrama
+     *         no aparece en el índice, o null si la consulta es demasiado corta para usar el índice
+     */
+    Set<Libro> listaMasCorta(String consulta) {
+        Set<String> trigramas = trigramas(consulta);
+        if (trigramas.isEmpty()) {
+            return null;
+        }
+
+        Set<Libro> menor = null;
+        for (String trigrama : trigramas) {
+            Set<Libro> libros = postings.get(trigrama);
+            if (libros == null) {
+                return Collections.emptySet();
+            }
+            if (menor == null || libros.size() < menor.size()) {
+                menor = libros;
+            }
+        }
+        return Collections.unmodifiableSet(menor);
+    }
+
+    /**
+     * Obtiene los trigramas distintos de un texto
+     * @param texto El texto, ya normalizado con ClaveBusqueda (puede ser nulo)
+     * @return Conjunto de trigramas del texto, vacío si tiene menos de tres caracteres
+     */
+    static Set<String> trigramas(String texto) {
+        if (texto == null || texto.length() < LONGITUD) {
+            return Collections.emptySet();
+        }
+
+        Set<String> trigramas = new HashSet<>();
+        for (int i = 0; i + LONGITUD <= texto.length(); i++) {
+            trigramas.add(texto.substring(i, i + LONGITUD));
+        }
+        return trigramas;
+    }
+
+    private void agregarTrigramas(Libro libro, String texto) {
+        if (texto == null) {
+            return;
+        }
+        for (String trigrama : trigramas(ClaveBusqueda.normalizar(texto))) {
+            postings.computeIfAbsent(trigrama, t -> new HashSet<>()).add(libro);
+        }
+    }
+
+    private void quitarTrigramas(Libro libro, String texto) {
+        if (texto == null) {
+            return;
+        }
+        for (String trigrama : trigramas(ClaveBusqueda.normalizar(texto))) {
+            Set<Libro> libros = postings.get(trigrama);
+            if (libros != null) {
+                libros.remove(libro);
+                if (libros.isEmpty()) {
+                    postings.remove(trigrama);
+                }
+            }
+        }
+    }
+}
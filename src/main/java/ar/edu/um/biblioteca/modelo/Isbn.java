@@ -0,0 +1,171 @@
+package ar.edu.um.biblioteca.modelo;
+
+/**
+ * Valor inmutable que representa un ISBN validado, almacenado como el número ISBN-13 en un long.
+ * Acepta ISBN-13 (prefijos 978 y 979) e ISBN-10, que se convierten a su forma ISBN-13;
+ * los guiones y espacios se ignoran y el dígito verificador se comprueba una única vez al crear el valor.
+ */
+public final class Isbn {
+    
+    /**
+     * Valor que devuelve aNumero cuando el texto no es un ISBN válido
+     */
+    public static final long NO_VALIDO = -1;
+    
+    private final long numero;
+    
+    private Isbn(long numero) {
+        this.numero = numero;
+    }
+    
+    /**
+     * Crea un ISBN a partir de su representación textual
+     * @param texto El ISBN-10 o ISBN-13, con o sin guiones
+     * @return El ISBN validado
+     * @throws IllegalArgumentException si el texto no es un ISBN válido
+     */
+    public static Isbn parsear(String texto) {
+        long numero = aNumero(texto);
+        if (numero == NO_VALIDO) {
+            throw new IllegalArgumentException("ISBN no válido: " + texto);
+        }
+        return new Isbn(numero);
+    }
+    
+    /**
+     * Indica si un texto es un ISBN válido
+     * @param texto El texto a verificar
+     * @return true si el texto es un ISBN-10 o ISBN-13 con dígito verificador correcto
+     */
+    public static boolean esValido(String texto) {
+        return aNumero(texto) != NO_VALIDO;
+    }
+    
+    /**
+     * Obtiene la forma canónica de un identificador de libro
+     * @param texto El identificador (puede ser nulo)
+     * @return El ISBN-13 sin guiones si el texto es un ISBN válido, o el mismo texto en caso contrario
+     */
+    public static String normalizar(String texto) {
+        long numero = aNumero(texto);
+        return numero != NO_VALIDO ? Long.toString(numero) : texto;
+    }
+    
+    /**
+     * Obtiene la forma canónica de un ISBN completo o parcial, para compararlo con las formas que devuelve normalizar
+     * @param texto El ISBN o prefijo de ISBN, con o sin guiones
+     * @return El ISBN-13 sin guiones si el texto es un ISBN válido, sus dígitos sin guiones ni espacios
+     *         si es un prefijo numérico, o el mismo texto en caso contrario
+     */
+    static String normalizarParcial(String texto) {
+        long numero = aNumero(texto);
+        if (numero != NO_VALIDO) {
+            return Long.toString(numero);
+        }
+
+        StringBuilder digitos = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            } else if (c != '-' && c != ' ') {
+                return texto;
+            }
+        }
+        return digitos.toString();
+    }
+    
+    /**
+     * Convierte un texto en el número ISBN-13 equivalente sin crear objetos intermedios
+     * @param texto El ISBN-10 o ISBN-13, con o sin guiones (puede ser nulo)
+     * @return El número ISBN-13, o NO_VALIDO si el texto no es un ISBN válido
+     */
+    public static long aNumero(String texto) {
+        if (texto == null) {
+            return NO_VALIDO;
+        }
+        
+        long numero = 0;
+        int digitos = 0;
+        int sumaIsbn10 = 0;
+        int sumaIsbn13 = 0;
+        boolean terminaEnX = false;
+        
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '-' || c == ' ') {
+                continue;
+            }
+            if (terminaEnX || digitos >= 13) {
+                return NO_VALIDO;
+            }
+            
+            int valor;
+            if (c >= '0' && c <= '9') {
+                valor = c - '0';
+            } else if ((c == 'X' || c == 'x') && digitos == 9) {
+                valor = 10;
+                terminaEnX = true;
+            } else {
+                return NO_VALIDO;
+            }
+            
+            sumaIsbn10 += valor * (10 - digitos);
+            sumaIsbn13 += valor * (digitos % 2 == 0 ? 1 : 3);
+            numero = numero * 10 + valor;
+            digitos++;
+        }
+        
+        if (digitos == 10) {
+            if (sumaIsbn10 % 11 != 0) {
+                return NO_VALIDO;
+            }
+            return isbn10AIsbn13((terminaEnX ? numero - 10 : numero) / 10);
+        }
+        if (digitos == 13 && !terminaEnX && sumaIsbn13 % 10 == 0) {
+            long prefijo = numero / 10_000_000_000L;
+            return prefijo == 978 || prefijo == 979 ? numero : NO_VALIDO;
+        }
+        return NO_VALIDO;
+    }
+    
+    /**
+     * Calcula el ISBN-13 correspondiente a los nueve primeros dígitos de un ISBN-10
+     */
+    private static long isbn10AIsbn13(long nueveDigitos) {
+        long sinVerificador = 978_000_000_000L + nueveDigitos;
+        int suma = 0;
+        long resto = sinVerificador;
+        for (int i = 0; i < 12; i++) {
+            int digito = (int) (resto % 10);
+            suma += digito * (i % 2 == 0 ? 3 : 1);
+            resto /= 10;
+        }
+        return sinVerificador * 10 + (10 - suma % 10) % 10;
+    }
+    
+    /**
+     * Obtiene el número ISBN-13
+     * @return El ISBN-13 como número de 13 dígitos
+     */
+    public long getNumero() {
+        return numero;
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return numero == ((Isbn) o).numero;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(numero);
+    }
+    
+    @Override
+    public String toString() {
+        return Long.toString(numero);
+    }
+}
@@ -1,5 +1,7 @@
 package ar.edu.um.biblioteca.modelo;
 
+import java.util.Arrays;
+
 /**
  * Clase que representa un libro en el sistema de biblioteca
  */
@@ -8,6 +10,11 @@ public class Libro {
     private String titulo;
     private String autor;
     private Estado estado;
+    private String claveTitulo;
+    private String claveAutor;
+    private volatile ObservadorLibro[] observadores;
+    
+    private static final ObservadorLibro[] SIN_OBSERVADORES = new ObservadorLibro[0];
 
     /**
      * Constructor para crear un nuevo libro
@@ -19,7 +26,30 @@ public class Libro {
         this.isbn = isbn;
         this.titulo = titulo;
         this.autor = autor;
+        this.claveTitulo = ClaveBusqueda.normalizar(titulo);
+        this.claveAutor = ClaveBusqueda.normalizar(autor);
         this.estado = Estado.DISPONIBLE; // Por defecto, el libro está disponible
+        this.observadores = SIN_OBSERVADORES;
+    }
+
+    /**
+     * Constructor que recibe las claves de búsqueda ya calculadas, para recrear un libro guardado
+     * sin volver a normalizar sus textos
+     * @param isbn El ISBN del libro
+     * @param titulo El título del libro
+     * @param autor El autor del libro
+     * @param claveTitulo La clave de búsqueda del título
+     * @param claveAutor La clave de búsqueda del autor
+     * @param estado El estado del libro
+     */
+    Libro(String isbn, String titulo, String autor, String claveTitulo, String claveAutor, Estado estado) {
+        this.isbn = isbn;
+        this.titulo = titulo;
+        this.autor = autor;
+        this.claveTitulo = claveTitulo;
+        this.claveAutor = claveAutor;
+        this.estado = estado;
+        this.observadores = SIN_OBSERVADORES;
     }
 
     // Getters y setters
@@ -28,7 +58,15 @@ public class Libro {
     }
 
     public void setIsbn(String isbn) {
+        ObservadorLibro[] observadores = this.observadores;
+        for (ObservadorLibro observador : observadores) {
+            observador.isbnCambiando(this, isbn);
+        }
+        String isbnAnterior = this.isbn;
         this.isbn = isbn;
+        for (ObservadorLibro observador : observadores) {
+            observador.isbnCambiado(this, isbnAnterior);
+        }
     }
 
     public String getTitulo() {
@@ -36,7 +74,12 @@ public class Libro {
     }
 
     public void setTitulo(String titulo) {
+        String tituloAnterior = this.titulo;
         this.titulo = titulo;
+        this.claveTitulo = ClaveBusqueda.normalizar(titulo);
+        for (ObservadorLibro observador : observadores) {
+            observador.tituloCambiado(this, tituloAnterior);
+        }
     }
 
     public String getAutor() {
@@ -44,7 +87,12 @@ public class Libro {
     }
 
     public void setAutor(String autor) {
+        String autorAnterior = this.autor;
         this.autor = autor;
+        this.claveAutor = ClaveBusqueda.normalizar(autor);
+        for (ObservadorLibro observador : observadores) {
+            observador.autorCambiado(this, autorAnterior);
+        }
     }
 
     public Estado getEstado() {
@@ -52,15 +100,78 @@ public class Libro {
     }
 
     public void setEstado(Estado estado) {
-        this.estado = estado;
+        cambiarEstado(estado);
     }
     
     /**
-     * Cambia el estado del libro
+     * Cambia el estado del libro. Los observadores se notifican aunque el estado no cambie,
+     * porque una copia desactualizada del libro puede tener un estado distinto del que guarda el catálogo.
      * @param nuevoEstado El nuevo estado del libro
      */
     public void cambiarEstado(Estado nuevoEstado) {
+        Estado estadoAnterior = this.estado;
         this.estado = nuevoEstado;
+        for (ObservadorLibro observador : observadores) {
+            observador.estadoCambiado(this, estadoAnterior);
+        }
+    }
+    
+    /**
+     * Obtiene el título en minúsculas y sin tildes, calculado al asignar el título
+     * @return La clave de búsqueda del título
+     */
+    String getClaveTitulo() {
+        return claveTitulo;
+    }
+    
+    /**
+     * Obtiene el autor en minúsculas y sin tildes, calculado al asignar el autor
+     * @return La clave de búsqueda del autor
+     */
+    String getClaveAutor() {
+        return claveAutor;
+    }
+    
+    /**
+     * Reemplaza el autor y su clave de búsqueda por copias compartidas de los mismos textos,
+     * sin notificar a los observadores.
+     * Lo usa el catálogo para que los libros de un mismo autor no guarden cada uno su propia copia.
+     * @param autorCompartido Un texto igual al autor actual
+     * @param claveCompartida Un texto igual a la clave de búsqueda del autor actual
+     */
+    void compartirAutor(String autorCompartido, String claveCompartida) {
+        if (autorCompartido.equals(this.autor) && claveCompartida.equals(this.claveAutor)) {
+            this.autor = autorCompartido;
+            this.claveAutor = claveCompartida;
+        }
+    }
+    
+    /**
+     * Registra un observador que será notificado de los cambios del libro.
+     * La lista se copia en cada alta para que las notificaciones no reserven memoria, y se publica en un campo
+     * volatile para que un hilo que modifica el libro vea los observadores registrados desde otro hilo.
+     * @param observador El observador a registrar
+     */
+    synchronized void agregarObservador(ObservadorLibro observador) {
+        ObservadorLibro[] nuevos = Arrays.copyOf(observadores, observadores.length + 1);
+        nuevos[observadores.length] = observador;
+        observadores = nuevos;
+    }
+    
+    /**
+     * Quita un observador previamente registrado
+     * @param observador El observador a quitar
+     */
+    synchronized void quitarObservador(ObservadorLibro observador) {
+        for (int i = 0; i < observadores.length; i++) {
+            if (observadores[i] == observador) {
+                ObservadorLibro[] nuevos = new ObservadorLibro[observadores.length - 1];
+                System.arraycopy(observadores, 0, nuevos, 0, i);
+                System.arraycopy(observadores, i + 1, nuevos, i, observadores.length - i - 1);
+                observadores = nuevos;
+                return;
+            }
+        }
     }
     
     @Override
@@ -0,0 +1,44 @@
+package ar.edu.um.biblioteca.modelo;
+
+/**
+ * Interfaz interna que permite al catálogo enterarse de los cambios de un libro
+ * para mantener sus índices actualizados
+ */
+interface ObservadorLibro {
+    
+    /**
+     * Se invoca antes de que el libro cambie su ISBN, por lo que puede rechazar el cambio
+     * @param libro El libro que va a cambiar
+     * @param nuevoIsbn El ISBN que se le va a asignar
+     * @throws IllegalArgumentException si el cambio no se puede aplicar
+     */
+    void isbnCambiando(Libro libro, String nuevoIsbn);
+    
+    /**
+     * Se invoca después de que el libro cambió su ISBN
+     * @param libro El libro modificado
+     * @param isbnAnterior El ISBN que tenía antes del cambio
+     */
+    void isbnCambiado(Libro libro, String isbnAnterior);
+    
+    /**
+     * Se invoca después de que el libro cambió su título
+     * @param libro El libro modificado
+     * @param tituloAnterior El título que tenía antes del cambio
+     */
+    void tituloCambiado(Libro libro, String tituloAnterior);
+    
+    /**
+     * Se invoca después de que el libro cambió su autor
+     * @param libro El libro modificado
+     * @param autorAnterior El autor que tenía antes del cambio
+     */
+    void autorCambiado(Libro libro, String autorAnterior);
+    
+    /**
+     * Se invoca después de que se asignó el estado del libro, aunque sea igual al anterior
+     * @param libro El libro modificado
+     * @param estadoAnterior El estado que tenía antes del cambio
+     */
+    void estadoCambiado(Libro libro, Estado estadoAnterior);
+} 
\ No newline at end of file
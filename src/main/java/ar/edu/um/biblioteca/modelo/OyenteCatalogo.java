@@ -0,0 +1,56 @@
+package ar.edu.um.biblioteca.modelo;
+
+/**
+ * Interfaz para enterarse de los cambios de un catálogo y mantener actualizadas estructuras derivadas
+ * (índices, cachés, estadísticas) sin volver a recorrerlo.
+ * Los métodos se invocan en el hilo que hizo el cambio, después de que el catálogo actualizó sus propios índices.
+ * Todos tienen una implementación vacía, por lo que basta con redefinir los eventos que interesan.
+ */
+public interface OyenteCatalogo {
+
+    /**
+     * Se invoca después de agregar un libro al catálogo
+     * @param libro El libro agregado
+     */
+    default void libroAgregado(Libro libro) {
+    }
+
+    /**
+     * Se invoca después de eliminar un libro del catálogo
+     * @param libro El libro eliminado
+     */
+    default void libroEliminado(Libro libro) {
+    }
+
+    /**
+     * Se invoca después de que un libro del catálogo cambió su ISBN
+     * @param libro El libro modificado
+     * @param isbnAnterior El ISBN que tenía antes del cambio
+     */
+    default void isbnCambiado(Libro libro, String isbnAnterior) {
+    }
+
+    /**
+     * Se invoca después de que un libro del catálogo cambió su título
+     * @param libro El libro modificado
+     * @param tituloAnterior El título que tenía antes del cambio
+     */
+    default void tituloCambiado(Libro libro, String tituloAnterior) {
+    }
+
+    /**
+     * Se invoca después de que un libro del catálogo cambió su autor
+     * @param libro El libro modificado
+     * @param autorAnterior El autor que tenía antes del cambio
+     */
+    default void autorCambiado(Libro libro, String autorAnterior) {
+    }
+
+    /**
+     * Se invoca después de que un libro del catálogo cambió su estado
+     * @param libro El libro modificado
+     * @param estadoAnterior El estado que tenía antes del cambio
+     */
+    default void estadoCambiado(Libro libro, Estado estadoAnterior) {
+    }
+}
@@ -0,0 +1,92 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.Arrays;
+
+/**
+ * Lista de oyentes de un catálogo que reenvía cada evento a todos ellos.
+ * La lista se copia en cada alta o baja de un oyente, de modo que las notificaciones no reservan memoria
+ * ni toman locks y pueden hacerse desde varios hilos mientras otro registra oyentes.
+ */
+final class OyentesCatalogo implements OyenteCatalogo {
+    private static final OyenteCatalogo[] SIN_OYENTES = new OyenteCatalogo[0];
+
+    private volatile OyenteCatalogo[] oyentes = SIN_OYENTES;
+
+    /**
+     * Registra un oyente
+     * @param oyente El oyente a registrar
+     */
+    synchronized void agregar(OyenteCatalogo oyente) {
+        OyenteCatalogo[] nuevos = Arrays.copyOf(oyentes, oyentes.length + 1);
+        nuevos[oyentes.length] = oyente;
+        oyentes = nuevos;
+    }
+
+    /**
+     * Quita un oyente previamente registrado
+     * @param oyente El oyente a quitar
+     * @return true si el oyente estaba registrado
+     */
+    synchronized boolean quitar(OyenteCatalogo oyente) {
+        for (int i = 0; i < oyentes.length; i++) {
+            if (oyentes[i] == oyente) {
+                OyenteCatalogo[] nuevos = new OyenteCatalogo[oyentes.length - 1];
+                System.arraycopy(oyentes, 0, nuevos, 0, i);
+                System.arraycopy(oyentes, i + 1, nuevos, i, oyentes.length - i - 1);
+                oyentes = nuevos;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Indica si hay algún oyente registrado, para no preparar eventos que nadie recibirá
+     * @return true si hay al menos un oyente
+     */
+    boolean hayOyentes() {
+        return oyentes.length > 0;
+    }
+
+    @Override
+    public void libroAgregado(Libro libro) {
+        for (OyenteCatalogo oyente : oyentes) {
+            oyente.libroAgregado(libro);
+        }
+    }
+
+    @Override
+    public void libroEliminado(Libro libro) {
+        for (OyenteCatalogo oyente : oyentes) {
+            oyente.libroEliminado(libro);
+        }
+    }
+
+    @Override
+    public void isbnCambiado(Libro libro, String isbnAnterior) {
+        for (OyenteCatalogo oyente : oyentes) {
+            oyente.isbnCambiado(libro, isbnAnterior);
+        }
+    }
+
+    @Override
+    public void tituloCambiado(Libro libro, String tituloAnterior) {
+        for (OyenteCatalogo oyente : oyentes) {
+            oyente.tituloCambiado(libro, tituloAnterior);
+        }
+    }
+
+    @Override
+    public void autorCambiado(Libro libro, String autorAnterior) {
+        for (OyenteCatalogo oyente : oyentes) {
+            oyente.autorCambiado(libro, autorAnterior);
+        }
+    }
+
+    @Override
+    public void estadoCambiado(Libro libro, Estado estadoAnterior) {
+        for (OyenteCatalogo oyente : oyentes) {
+            oyente.estadoCambiado(libro, estadoAnterior);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Índice de números de registro (posiciones de los libros en un almacenamiento) por ISBN, con la misma
+ * tabla que IndiceIsbn pero con valores int en bloques de arreglos primitivos, de modo que cada entrada numérica
+ * ocupa 12 bytes sin objetos por entrada.
+ * Los identificadores que no son ISBN válidos se guardan aparte, en un HashMap por texto exacto.
+ */
+class RegistrosPorIsbn extends TablaIsbn {
+    static final int AUSENTE = -1;
+
+    private int[][] registros;
+    private final Map<String, Integer> otros;
+
+    /**
+     * Constructor que inicializa un índice vacío con lugar para la cantidad indicada de ISBN
+     * @param capacidadEsperada La cantidad de ISBN que se espera guardar
+     */
+    RegistrosPorIsbn(int capacidadEsperada) {
+        super(capacidadEsperada);
+        this.otros = new HashMap<>();
+        this.registros = new int[bloques()][tamanioBloque()];
+    }
+
+    /**
+     * Busca el registro asociado a un ISBN
+     * @param isbn El ISBN buscado (puede ser nulo)
+     * @return El número de registro, o AUSENTE si el ISBN no está en el índice
+     */
+    int buscar(String isbn) {
+        if (isbn == null) {
+            return AUSENTE;
+        }
+        long numero = Isbn.aNumero(isbn);
+        if (numero == Isbn.NO_VALIDO) {
+            return otros.getOrDefault(isbn, AUSENTE);
+        }
+        int posicion = posicionDe(numero);
+        return claveEn(posicion) == numero ? registroEn(posicion) : AUSENTE;
+    }
+
+    /**
+     * Asocia un registro a un ISBN solo si el ISBN no estaba en el índice
+     * @param isbn El ISBN
+     * @param registro El número de registro
+     * @return true si se agregó, false si el ISBN ya tenía un registro asociado
+     */
+    boolean agregarSiAusente(String isbn, int registro) {
+        long numero = Isbn.aNumero(isbn);
+        if (numero == Isbn.NO_VALIDO) {
+            return otros.putIfAbsent(isbn, registro) == null;
+        }
+
+        int posicion = posicionDe(numero);
+        if (claveEn(posicion) == numero) {
+            return false;
+        }
+        registros[bloqueDe(posicion)][indiceEnBloque(posicion)] = registro;
+        ocupar(posicion, numero);
+        return true;
+    }
+
+    /**
+     * Cambia el registro asociado a un ISBN que ya está en el índice
+     * @param isbn El ISBN
+     * @param registro El nuevo número de registro
+     */
+    void actualizar(String isbn, int registro) {
+        long numero = Isbn.aNumero(isbn);
+        if (numero == Isbn.NO_VALIDO) {
+            otros.replace(isbn, registro);
+            return;
+        }
+
+        int posicion = posicionDe(numero);
+        if (claveEn(posicion) == numero) {
+            registros[bloqueDe(posicion)][indiceEnBloque(posicion)] = registro;
+        }
+    }
+
+    /**
+     * Quita un ISBN del índice
+     * @param isbn El ISBN a quitar (puede ser nulo)
+     * @return El registro que estaba asociado, o AUSENTE si no existía
+     */
+    int quitar(String isbn) {
+        if (isbn == null) {
+            return AUSENTE;
+        }
+        long numero = Isbn.aNumero(isbn);
+        if (numero == Isbn.NO_VALIDO) {
+            Integer anterior = otros.remove(isbn);
+            return anterior != null ? anterior : AUSENTE;
+        }
+
+        int posicion = posicionDe(numero);
+        if (claveEn(posicion) != numero) {
+            return AUSENTE;
+        }
+        int anterior = registroEn(posicion);
+        borrarEn(posicion);
+        return anterior;
+    }
+
+    /**
+     * Obtiene la cantidad de ISBN en el índice
+     * @return Número de entradas
+     */
+    int tamanio() {
+        return cantidadNumericos() + otros.size();
+    }
+
+    @Override
+    Object reemplazarValores(int bloques, int tamanioBloque) {
+        int[][] anteriores = registros;
+        registros = new int[bloques][tamanioBloque];
+        return anteriores;
+    }
+
+    @Override
+    void copiarValor(Object anteriores, int desde, int hacia) {
+        registros[bloqueDe(hacia)][indiceEnBloque(hacia)] = ((int[][]) anteriores)[bloqueDe(desde)][indiceEnBloque(desde)];
+    }
+
+    @Override
+    void moverValor(int desde, int hacia) {
+        registros[bloqueDe(hacia)][indiceEnBloque(hacia)] = registroEn(desde);
+    }
+
+    @Override
+    void vaciarValor(int posicion) {
+        // Los registros de las posiciones libres no se leen
+    }
+
+    private int registroEn(int posicion) {
+        return registros[bloqueDe(posicion)][indiceEnBloque(posicion)];
+    }
+}
@@ -0,0 +1,98 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.util.List;
+
+/**
+ * Clase que resume el resultado de una importación masiva de libros al catálogo.
+ * Guarda el resultado de cada registro en la misma posición que ocupaba en la entrada.
+ */
+public class ResultadoImportacion {
+    
+    /**
+     * Resultado posible para cada registro importado
+     */
+    public enum Resultado {
+        AGREGADO,
+        DUPLICADO,
+        INVALIDO
+    }
+    
+    private final Resultado[] resultados;
+    private final int agregados;
+    private final int duplicados;
+    private final int invalidos;
+    
+    /**
+     * Constructor que crea el resumen a partir del resultado de cada registro
+     * @param resultados Resultado de cada registro, en el orden de la entrada
+     */
+    ResultadoImportacion(Resultado[] resultados) {
+        this.resultados = resultados;
+        int agregados = 0;
+        int duplicados = 0;
+        for (Resultado resultado : resultados) {
+            if (resultado == Resultado.AGREGADO) {
+                agregados++;
+            } else if (resultado == Resultado.DUPLICADO) {
+                duplicados++;
+            }
+        }
+        this.agregados = agregados;
+        this.duplicados = duplicados;
+        this.invalidos = resultados.length - agregados - duplicados;
+    }
+    
+    /**
+     * Reúne en un solo resumen los de varias importaciones sucesivas, por ejemplo las de los bloques de un archivo
+     * @param partes Los resúmenes de cada importación, en el orden en que se hicieron
+     * @return Resumen con el resultado de cada registro de todas las importaciones, en el mismo orden
+     */
+    public static ResultadoImportacion concatenar(List<ResultadoImportacion> partes) {
+        int total = 0;
+        for (ResultadoImportacion parte : partes) {
+            total += parte.resultados.length;
+        }
+        Resultado[] resultados = new Resultado[total];
+        int posicion = 0;
+        for (ResultadoImportacion parte : partes) {
+            System.arraycopy(parte.resultados, 0, resultados, posicion, parte.resultados.length);
+            posicion += parte.resultados.length;
+        }
+        return new ResultadoImportacion(resultados);
+    }
+    
+    /**
+     * Obtiene el resultado de un registro
+     * @param indice La posición del registro en la entrada
+     * @return El resultado de ese registro
+     */
+    public Resultado getResultado(int indice) {
+        return resultados[indice];
+    }
+    
+    public int getTotal() {
+        return resultados.length;
+    }
+    
+    public int getAgregados() {
+        return agregados;
+    }
+    
+    public int getDuplicados() {
+        return duplicados;
+    }
+    
+    public int getInvalidos() {
+        return invalidos;
+    }
+    
+    @Override
+    public String toString() {
+        return "ResultadoImportacion{" +
+                "total=" + resultados.length +
+                ", agregados=" + agregados +
+                ", duplicados=" + duplicados +
+                ", invalidos=" + invalidos +
+                '}';
+    }
+}
@@ -0,0 +1,75 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Búsqueda de subcadenas en bytes UTF-8 que recorre los datos de a 8 bytes por vez (SWAR: varias comparaciones
+ * en un mismo long), marcando las posiciones donde coinciden a la vez el primer y el último byte del patrón,
+ * y solo compara el resto del patrón en esas posiciones. Como UTF-8 es autosincronizante, una coincidencia
+ * de bytes equivale a una coincidencia de caracteres.
+ * Los arreglos deben tener RELLENO bytes disponibles después del último dato, porque las lecturas de 8 bytes
+ * pueden pasarse del final; su contenido no importa.
+ */
+final class SubcadenaSwar {
+    static final int RELLENO = Long.BYTES;
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long UNOS = 0x0101010101010101L;
+    private static final long ALTOS = 0x7F7F7F7F7F7F7F7FL;
+
+    private SubcadenaSwar() {
+    }
+
+    /**
+     * Indica si un tramo de bytes contiene el patrón.
+     * Por cada bloque de 8 posiciones se cargan los bytes en la posición y en la posición más la longitud
+     * del patrón menos uno, y se detectan a la vez las que coinciden con el primer y el último byte del patrón.
+     * Como String.contains, un patrón vacío (por ejemplo, una consulta formada solo por tildes sueltas) está
+     * contenido en cualquier texto.
+     * @param datos Los bytes, con RELLENO bytes disponibles después del tramo
+     * @param inicio La posición del primer byte del tramo
+     * @param longitud La cantidad de bytes del tramo
+     * @param patron Los bytes a buscar
+     * @return true si el tramo contiene el patrón
+     */
+    static boolean contiene(byte[] datos, int inicio, int longitud, byte[] patron) {
+        int m = patron.length;
+        if (m == 0) {
+            return true;
+        }
+        if (m > longitud) {
+            return false;
+        }
+        long primero = (patron[0] & 0xFFL) * UNOS;
+        long ultimo = (patron[m - 1] & 0xFFL) * UNOS;
+        int ultimaPosicion = inicio + longitud - m;
+
+        for (int i = inicio; i <= ultimaPosicion; i += Long.BYTES) {
+            long bloqueInicial = (long) LONG_LE.get(datos, i);
+            long bloqueFinal = (long) LONG_LE.get(datos, i + m - 1);
+            long iguales = bytesEnCero((bloqueInicial ^ primero) | (bloqueFinal ^ ultimo));
+            int restantes = ultimaPosicion - i + 1;
+            if (restantes < Long.BYTES) {
+                iguales &= (1L << (restantes * Byte.SIZE)) - 1;
+            }
+            while (iguales != 0) {
+                int posicion = i + (Long.numberOfTrailingZeros(iguales) >>> 3);
+                if (m <= 2 || Arrays.equals(datos, posicion + 1, posicion + m - 1, patron, 1, m - 1)) {
+                    return true;
+                }
+                iguales &= iguales - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Marca con el bit alto de cada byte los bytes en cero de un long, sin falsos positivos
+     */
+    private static long bytesEnCero(long valor) {
+        return ~(((valor & ALTOS) + ALTOS) | valor | ALTOS);
+    }
+}
@@ -0,0 +1,192 @@
+package ar.edu.um.biblioteca.modelo;
+
+/**
+ * Tabla de direccionamiento abierto con claves ISBN-13 numéricas, base de los índices por ISBN.
+ * Las colisiones se resuelven con sondeo lineal y los borrados desplazan hacia atrás las claves siguientes
+ * del mismo grupo, sin dejar marcas de borrado que alarguen las búsquedas.
+ * Las claves se guardan en bloques de tamaño fijo en lugar de un único arreglo, de modo que una tabla
+ * de millones de ISBN no reserve arreglos contiguos proporcionales a su tamaño (que en G1 serían objetos gigantes).
+ * Cada subclase guarda sus valores en bloques con la misma disposición que las claves (ver bloqueDe e indiceEnBloque)
+ * y se ocupa de los identificadores que no son ISBN válidos.
+ */
+abstract class TablaIsbn {
+    static final long VACIO = 0; // Ningún ISBN-13 válido es 0
+
+    private static final int BITS_BLOQUE = 13;
+    private static final int TAMANIO_BLOQUE = 1 << BITS_BLOQUE;
+    private static final int CAPACIDAD_MINIMA = 16;
+
+    private long[][] claves;
+    private int mascara;
+    private int cantidadNumericos;
+
+    /**
+     * Constructor que inicializa una tabla vacía con lugar para la cantidad indicada de claves.
+     * La subclase debe reservar sus valores en su propio constructor, con la disposición de bloques()
+     * y tamanioBloque(), sin llamar a reemplazarValores.
+     * @param capacidadEsperada La cantidad de claves que se espera guardar
+     */
+    TablaIsbn(int capacidadEsperada) {
+        reservarClaves(Integer.highestOneBit(Math.max(CAPACIDAD_MINIMA, capacidadEsperada) * 2 - 1) * 2);
+    }
+
+    /**
+     * Reemplaza el lugar de los valores por uno vacío con la disposición indicada
+     * @param bloques La cantidad de bloques
+     * @param tamanioBloque La cantidad de valores de cada bloque
+     * @return El lugar anterior, que se pasará a copiarValor
+     */
+    abstract Object reemplazarValores(int bloques, int tamanioBloque);
+
+    /**
+     * Copia un valor del lugar anterior de los valores al actual
+     * @param anteriores El lugar que devolvió reemplazarValores
+     * @param desde La posición del valor en el lugar anterior
+     * @param hacia La posición en el lugar actual
+     */
+    abstract void copiarValor(Object anteriores, int desde, int hacia);
+
+    /**
+     * Mueve un valor de una posición a otra dentro del lugar actual
+     * @param desde La posición de origen
+     * @param hacia La posición de destino
+     */
+    abstract void moverValor(int desde, int hacia);
+
+    /**
+     * Descarta el valor de una posición que quedó libre
+     * @param posicion La posición liberada
+     */
+    abstract void vaciarValor(int posicion);
+
+    /**
+     * Obtiene el bloque de valores que corresponde a una posición
+     * @param posicion La posición en la tabla
+     * @return El índice del bloque
+     */
+    static int bloqueDe(int posicion) {
+        return posicion >>> BITS_BLOQUE;
+    }
+
+    /**
+     * Obtiene el índice dentro de su bloque de una posición de la tabla
+     * @param posicion La posición en la tabla
+     * @return El índice dentro del bloque
+     */
+    static int indiceEnBloque(int posicion) {
+        return posicion & (TAMANIO_BLOQUE - 1);
+    }
+
+    /**
+     * Obtiene la cantidad de bloques de la tabla actual
+     * @return Número de bloques
+     */
+    final int bloques() {
+        return claves.length;
+    }
+
+    /**
+     * Obtiene la cantidad de posiciones de cada bloque de la tabla actual
+     * @return Tamaño de los bloques
+     */
+    final int tamanioBloque() {
+        return claves[0].length;
+    }
+
+    /**
+     * Obtiene la posición donde está la clave o, si no está, la posición vacía donde debería insertarse
+     * @param numero El ISBN-13 como número
+     * @return La posición en la tabla
+     */
+    final int posicionDe(long numero) {
+        int posicion = dispersar(numero) & mascara;
+        long clave;
+        while ((clave = claveEn(posicion)) != VACIO && clave != numero) {
+            posicion = (posicion + 1) & mascara;
+        }
+        return posicion;
+    }
+
+    /**
+     * Obtiene la clave guardada en una posición
+     * @param posicion La posición en la tabla
+     * @return La clave, o VACIO si la posición está libre
+     */
+    final long claveEn(int posicion) {
+        return claves[bloqueDe(posicion)][indiceEnBloque(posicion)];
+    }
+
+    /**
+     * Guarda una clave en la posición vacía que devolvió posicionDe, después de que la subclase escribió
+     * su valor en esa posición. Si la tabla supera la mitad de su capacidad, duplica su tamaño.
+     * @param posicion La posición vacía
+     * @param numero La clave
+     */
+    final void ocupar(int posicion, long numero) {
+        fijarClave(posicion, numero);
+        cantidadNumericos++;
+        if (cantidadNumericos * 2 > mascara + 1) {
+            redimensionar();
+        }
+    }
+
+    /**
+     * Borra una posición ocupada desplazando hacia atrás las claves siguientes del mismo grupo
+     * @param posicion La posición a borrar
+     */
+    final void borrarEn(int posicion) {
+        int libre = posicion;
+        int siguiente = (libre + 1) & mascara;
+        long clave;
+        while ((clave = claveEn(siguiente)) != VACIO) {
+            int ideal = dispersar(clave) & mascara;
+            // Se mueve la clave si su posición ideal no está entre el hueco (exclusive) y su posición actual
+            if (((siguiente - ideal) & mascara) >= ((siguiente - libre) & mascara)) {
+                fijarClave(libre, clave);
+                moverValor(siguiente, libre);
+                libre = siguiente;
+            }
+            siguiente = (siguiente + 1) & mascara;
+        }
+        fijarClave(libre, VACIO);
+        vaciarValor(libre);
+        cantidadNumericos--;
+    }
+
+    /**
+     * Obtiene la cantidad de claves numéricas de la tabla
+     * @return Número de claves
+     */
+    final int cantidadNumericos() {
+        return cantidadNumericos;
+    }
+
+    private void fijarClave(int posicion, long numero) {
+        claves[bloqueDe(posicion)][indiceEnBloque(posicion)] = numero;
+    }
+
+    private void reservarClaves(int capacidad) {
+        claves = new long[Math.max(1, capacidad >>> BITS_BLOQUE)][Math.min(capacidad, TAMANIO_BLOQUE)];
+        mascara = capacidad - 1;
+    }
+
+    private void redimensionar() {
+        long[][] clavesAnteriores = claves;
+        int capacidadAnterior = mascara + 1;
+        reservarClaves(capacidadAnterior * 2);
+        Object valoresAnteriores = reemplazarValores(bloques(), tamanioBloque());
+        for (int i = 0; i < capacidadAnterior; i++) {
+            long clave = clavesAnteriores[bloqueDe(i)][indiceEnBloque(i)];
+            if (clave != VACIO) {
+                int posicion = posicionDe(clave);
+                fijarClave(posicion, clave);
+                copiarValor(valoresAnteriores, i, posicion);
+            }
+        }
+    }
+
+    private static int dispersar(long numero) {
+        long h = numero * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
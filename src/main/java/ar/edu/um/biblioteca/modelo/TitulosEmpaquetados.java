@@ -0,0 +1,163 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Claves de búsqueda de los títulos guardadas de forma contigua como bytes UTF-8, en el orden de alta de los libros.
+ * La búsqueda por subcadena recorre los bytes de a 8 por vez con SubcadenaSwar.
+ * Las bajas y los cambios de título dejan huecos que se eliminan compactando cuando superan a los datos vigentes.
+ */
+class TitulosEmpaquetados {
+    private static final int RELLENO = SubcadenaSwar.RELLENO;
+
+    private byte[] datos;
+    private int usados;
+    private int basura;
+    private Libro[] libros;
+    private int[] inicios;
+    private int[] longitudes;
+    private int ranuras;
+    private int vacias;
+    private final Map<Libro, Integer> ranuraDe;
+
+    /**
+     * Constructor que inicializa un almacenamiento vacío
+     */
+    TitulosEmpaquetados() {
+        this.datos = new byte[1024 + RELLENO];
+        this.libros = new Libro[64];
+        this.inicios = new int[64];
+        this.longitudes = new int[64];
+        this.ranuraDe = new IdentityHashMap<>();
+    }
+
+    /**
+     * Agrega el título de un libro al final del almacenamiento
+     * @param libro El libro a agregar
+     */
+    void agregar(Libro libro) {
+        if (ranuras == libros.length) {
+            int capacidad = ranuras * 2;
+            libros = Arrays.copyOf(libros, capacidad);
+            inicios = Arrays.copyOf(inicios, capacidad);
+            longitudes = Arrays.copyOf(longitudes, capacidad);
+        }
+        libros[ranuras] = libro;
+        escribir(ranuras, libro.getClaveTitulo());
+        ranuraDe.put(libro, ranuras);
+        ranuras++;
+    }
+
+    /**
+     * Quita el título de un libro, dejando su ranura vacía hasta la próxima compactación
+     * @param libro El libro a quitar
+     */
+    void quitar(Libro libro) {
+        Integer ranura = ranuraDe.remove(libro);
+        if (ranura == null) {
+            return;
+        }
+        libros[ranura] = null;
+        basura += longitudes[ranura];
+        vacias++;
+        compactarSiHaceFalta();
+    }
+
+    /**
+     * Actualiza el título de un libro conservando su posición en el orden de alta
+     * @param libro El libro cuyo título cambió
+     */
+    void actualizar(Libro libro) {
+        Integer ranura = ranuraDe.get(libro);
+        if (ranura == null) {
+            return;
+        }
+        basura += longitudes[ranura];
+        escribir(ranura, libro.getClaveTitulo());
+        compactarSiHaceFalta();
+    }
+
+    /**
+     * Busca los libros cuyo título contiene la consulta
+     * @param consulta La subcadena buscada, ya normalizada con ClaveBusqueda
+     * @param enParalelo true para repartir las ranuras entre los hilos del ForkJoinPool común
+     * @return Lista de libros que coinciden, en orden de alta
+     */
+    List<Libro> buscar(String consulta, boolean enParalelo) {
+        byte[] patron = consulta.getBytes(StandardCharsets.UTF_8);
+        IntStream coincidencias = IntStream.range(0, ranuras);
+        if (enParalelo) {
+            coincidencias = coincidencias.parallel();
+        }
+        return coincidencias
+                .filter(ranura -> libros[ranura] != null && SubcadenaSwar.contiene(datos, inicios[ranura], longitudes[ranura], patron))
+                .mapToObj(ranura -> libros[ranura])
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Obtiene la cantidad de títulos guardados
+     * @return Número de libros en el almacenamiento
+     */
+    int tamanio() {
+        return ranuraDe.size();
+    }
+
+    private void escribir(int ranura, String clave) {
+        byte[] bytes = clave != null ? clave.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        if (usados + bytes.length + RELLENO > datos.length) {
+            datos = Arrays.copyOf(datos, Math.max(datos.length * 2, usados + bytes.length + RELLENO));
+        }
+        System.arraycopy(bytes, 0, datos, usados, bytes.length);
+        inicios[ranura] = usados;
+        longitudes[ranura] = bytes.length;
+        usados += bytes.length;
+    }
+
+    private void compactarSiHaceFalta() {
+        if (basura > usados / 2 || vacias > ranuras / 2) {
+            compactar();
+        }
+    }
+
+    /**
+     * Reescribe los títulos vigentes de forma contigua, descartando huecos y ranuras vacías
+     */
+    private void compactar() {
+        byte[] anteriores = datos;
+        int[] iniciosAnteriores = inicios;
+        int[] longitudesAnteriores = longitudes;
+        Libro[] librosAnteriores = libros;
+        int ranurasAnteriores = ranuras;
+
+        int capacidad = Math.max(64, Integer.highestOneBit(Math.max(1, ranuraDe.size())) * 2);
+        datos = new byte[Math.max(1024, usados - basura) + RELLENO];
+        libros = new Libro[capacidad];
+        inicios = new int[capacidad];
+        longitudes = new int[capacidad];
+        usados = 0;
+        basura = 0;
+        ranuras = 0;
+        vacias = 0;
+        for (int i = 0; i < ranurasAnteriores; i++) {
+            Libro libro = librosAnteriores[i];
+            if (libro == null) {
+                continue;
+            }
+            System.arraycopy(anteriores, iniciosAnteriores[i], datos, usados, longitudesAnteriores[i]);
+            libros[ranuras] = libro;
+            inicios[ranuras] = usados;
+            longitudes[ranuras] = longitudesAnteriores[i];
+            ranuraDe.put(libro, ranuras);
+            usados += longitudesAnteriores[i];
+            ranuras++;
+        }
+    }
+}
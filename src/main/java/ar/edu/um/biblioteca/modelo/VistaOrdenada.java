@@ -0,0 +1,198 @@
+package ar.edu.um.biblioteca.modelo;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Vista de los libros de un catálogo ordenada por título o por autor según las reglas del español
+ * (las tildes y las mayúsculas solo desempatan, y la ñ va después de la n).
+ * Cada libro se guarda con la CollationKey de su título o autor, calculada una sola vez al agregarlo
+ * o al cambiar ese dato, por lo que mantener el orden no compara textos con el Collator.
+ * La vista se registra como oyente del catálogo y se actualiza con cada alta, baja o cambio, sin reordenar
+ * todo el catálogo. Guarda el ISBN de cada libro y no el libro, que se obtiene del catálogo al recorrer la vista;
+ * así también sirve para los catálogos que crean un libro nuevo en cada acceso.
+ * Las estructuras son concurrentes, de modo que la vista de un catálogo concurrente puede recorrerse
+ * mientras otros hilos lo modifican, y cada alta, baja o reubicación es atómica para su ISBN aunque
+ * el catálogo notifique los cambios de título y autor fuera de sus locks.
+ * Las páginas saltean entradas sin buscar sus libros en el catálogo y recuerdan dónde terminó la última;
+ * mientras la vista no cambie, la página siguiente continúa desde esa entrada con tailSet en lugar de volver
+ * a recorrer la vista desde el comienzo, por lo que recorrerla página por página no es cuadrático.
+ */
+final class VistaOrdenada implements OyenteCatalogo {
+    private static final Locale ESPANIOL = Locale.forLanguageTag("es");
+
+    private final Catalogo catalogo;
+    private final boolean porTitulo;
+    private final Collator collator;
+    private final NavigableSet<Entrada> orden;
+    private final Map<String, Entrada> porIsbn;
+    private final AtomicLong version;
+    private volatile Posicion ultimaPagina;
+
+    /**
+     * Constructor que crea una vista vacía; debe registrarse como oyente del catálogo y llenarse con agregar
+     * @param catalogo El catálogo del que se obtienen los libros al recorrer la vista
+     * @param porTitulo true para ordenar por título, false para ordenar por autor
+     */
+    VistaOrdenada(Catalogo catalogo, boolean porTitulo) {
+        this.catalogo = catalogo;
+        this.porTitulo = porTitulo;
+        this.collator = Collator.getInstance(ESPANIOL);
+        this.orden = new ConcurrentSkipListSet<>();
+        this.porIsbn = new ConcurrentHashMap<>();
+        this.version = new AtomicLong();
+    }
+
+    /**
+     * Agrega o reubica un libro según el valor actual de su título o autor.
+     * El reemplazo de la entrada se hace dentro de compute, de modo que dos actualizaciones del mismo ISBN
+     * no se intercalan y la última en ejecutarse lee el texto vigente del libro.
+     * @param libro El libro a agregar
+     */
+    void agregar(Libro libro) {
+        porIsbn.compute(Isbn.normalizar(libro.getIsbn()), (isbn, anterior) -> {
+            if (anterior != null) {
+                orden.remove(anterior);
+            }
+            String texto = porTitulo ? libro.getTitulo() : libro.getAutor();
+            Entrada nueva = new Entrada(collator.getCollationKey(texto != null ? texto : ""), isbn);
+            orden.add(nueva);
+            version.incrementAndGet();
+            return nueva;
+        });
+    }
+
+    /**
+     * Obtiene un flujo perezoso con los libros de la vista, en orden. Los libros que el catálogo
+     * eliminó mientras se consume el flujo se omiten.
+     * @return Flujo con los libros ordenados
+     */
+    Stream<Libro> stream() {
+        return orden.stream().map(entrada -> catalogo.buscarPorIsbn(entrada.isbn)).filter(Objects::nonNull);
+    }
+
+    /**
+     * Obtiene una página de la vista. Las entradas anteriores a la página se saltean sin buscar sus libros;
+     * si la vista no cambió desde la página anterior y esta comienza después, se continúa desde la última
+     * entrada de aquella en lugar de desde el comienzo.
+     * @param desde Cantidad de entradas a saltear desde el comienzo (no negativa)
+     * @param cantidad Cantidad máxima de libros a devolver (positiva)
+     * @return Lista con los libros de la página
+     */
+    List<Libro> pagina(int desde, int cantidad) {
+        // La versión se lee antes de recorrer: si la vista cambia durante el recorrido, la posición guardada
+        // queda con una versión vieja y no se reutiliza
+        long versionLeida = version.get();
+        Posicion anterior = ultimaPagina;
+        Iterator<Entrada> entradas;
+        int posicion;
+        if (anterior != null && anterior.version == versionLeida && anterior.indice < desde) {
+            entradas = orden.tailSet(anterior.entrada, false).iterator();
+            posicion = anterior.indice + 1;
+        } else {
+            entradas = orden.iterator();
+            posicion = 0;
+        }
+
+        for (; posicion < desde && entradas.hasNext(); posicion++) {
+            entradas.next();
+        }
+        List<Libro> resultado = new ArrayList<>();
+        Entrada ultima = null;
+        while (resultado.size() < cantidad && entradas.hasNext()) {
+            ultima = entradas.next();
+            posicion++;
+            Libro libro = catalogo.buscarPorIsbn(ultima.isbn);
+            if (libro != null) {
+                resultado.add(libro);
+            }
+        }
+        if (ultima != null) {
+            ultimaPagina = new Posicion(ultima, posicion - 1, versionLeida);
+        }
+        return resultado;
+    }
+
+    @Override
+    public void libroAgregado(Libro libro) {
+        agregar(libro);
+    }
+
+    @Override
+    public void libroEliminado(Libro libro) {
+        quitar(Isbn.normalizar(libro.getIsbn()));
+    }
+
+    @Override
+    public void isbnCambiado(Libro libro, String isbnAnterior) {
+        quitar(Isbn.normalizar(isbnAnterior));
+        agregar(libro);
+    }
+
+    @Override
+    public void tituloCambiado(Libro libro, String tituloAnterior) {
+        if (porTitulo) {
+            agregar(libro);
+        }
+    }
+
+    @Override
+    public void autorCambiado(Libro libro, String autorAnterior) {
+        if (!porTitulo) {
+            agregar(libro);
+        }
+    }
+
+    private void quitar(String isbn) {
+        porIsbn.computeIfPresent(isbn, (clave, entrada) -> {
+            orden.remove(entrada);
+            version.incrementAndGet();
+            return null;
+        });
+    }
+
+    /**
+     * Última entrada devuelta por pagina, con su índice en la vista y la versión de la vista en la que se calculó
+     */
+    private static final class Posicion {
+        private final Entrada entrada;
+        private final int indice;
+        private final long version;
+
+        Posicion(Entrada entrada, int indice, long version) {
+            this.entrada = entrada;
+            this.indice = indice;
+            this.version = version;
+        }
+    }
+
+    /**
+     * Posición de un libro en la vista: la clave de ordenamiento y, para desempatar, la forma canónica del ISBN
+     */
+    private static final class Entrada implements Comparable<Entrada> {
+        private final CollationKey clave;
+        private final String isbn;
+
+        Entrada(CollationKey clave, String isbn) {
+            this.clave = clave;
+            this.isbn = isbn;
+        }
+
+        @Override
+        public int compareTo(Entrada otra) {
+            int comparacion = clave.compareTo(otra.clave);
+            return comparacion != 0 ? comparacion : isbn.compareTo(otra.isbn);
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package ar.edu.um.biblioteca.persistencia;
+
+import ar.edu.um.biblioteca.modelo.Catalogo;
+import ar.edu.um.biblioteca.modelo.Estado;
+import ar.edu.um.biblioteca.modelo.Libro;
+import ar.edu.um.biblioteca.modelo.ResultadoImportacion;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Carga libros en un catálogo a partir de un archivo de texto delimitado (CSV o TSV) codificado en UTF-8.
+ * Cada línea tiene los campos ISBN, título, autor y, opcionalmente, estado. Los campos pueden ir entre
+ * comillas dobles para incluir el separador, pero no pueden contener saltos de línea.
+ * 
+ * El archivo se mapea en memoria con NIO y se divide en bloques que terminan en un fin de línea;
+ * los bloques se procesan en paralelo leyendo directamente del mapeo, sin cargar el archivo completo
+ * como bytes en el heap. Cada bloque se agrega al catálogo con una importación masiva apenas se procesa,
+ * respetando el orden del archivo, y luego se descarta: se procesan por adelantado a lo sumo tantos bloques
+ * como procesadores haya, por lo que fuera del catálogo solo conviven en el heap los libros de esos bloques.
+ */
+public class CargadorCatalogo {
+    public static final char SEPARADOR_CSV = ',';
+    public static final char SEPARADOR_TSV = '\t';
+    
+    private static final long TAMANIO_BLOQUE_DEFAULT = 32L * 1024 * 1024; // 32 MB por bloque
+    private static final int TAMANIO_LINEA_INICIAL = 256;
+    
+    private final byte separador;
+    private final boolean tieneEncabezado;
+    private final long tamanioBloque;
+    
+    /**
+     * Constructor que especifica el formato del archivo
+     * @param separador El separador de campos, por ejemplo SEPARADOR_CSV o SEPARADOR_TSV
+     * @param tieneEncabezado true si la primera línea del archivo contiene los nombres de las columnas
+     * @throws IllegalArgumentException si el separador no es un carácter ASCII
+     */
+    public CargadorCatalogo(char separador, boolean tieneEncabezado) {
+        this(separador, tieneEncabezado, TAMANIO_BLOQUE_DEFAULT);
+    }
+    
+    /**
+     * Constructor que además permite indicar el tamaño aproximado de cada bloque
+     * @param separador El separador de campos
+     * @param tieneEncabezado true si la primera línea del archivo contiene los nombres de las columnas
+     * @param tamanioBloque El tamaño aproximado en bytes de cada bloque que se procesa en paralelo
+     * @throws IllegalArgumentException si el separador no es un carácter ASCII o el tamaño de bloque no es positivo
+     */
+    CargadorCatalogo(char separador, boolean tieneEncabezado, long tamanioBloque) {
+        if (separador > 127 || separador == '"' || separador == '\n' || separador == '\r') {
+            throw new IllegalArgumentException("Separador no válido: " + separador);
+        }
+        if (tamanioBloque <= 0) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo: " + tamanioBloque);
+        }
+        this.separador = (byte) separador;
+        this.tieneEncabezado = tieneEncabezado;
+        this.tamanioBloque = tamanioBloque;
+    }
+    
+    /**
+     * Carga los libros de un archivo en el catálogo.
+     * Las líneas vacías se ignoran; las líneas con menos de tres campos o con un estado desconocido
+     * se informan como inválidas en el resultado.
+     * @param archivo La ruta del archivo a cargar
+     * @param catalogo El catálogo donde agregar los libros
+     * @return Resumen con el resultado de cada línea de datos, en el orden del archivo
+     * @throws IOException si no se puede leer el archivo
+     */
+    public ResultadoImportacion cargar(Path archivo, Catalogo catalogo) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            List<long[]> bloques = dividirEnBloques(canal);
+            int adelantados = Runtime.getRuntime().availableProcessors();
+            
+            Deque<CompletableFuture<List<Libro>>> pendientes = new ArrayDeque<>();
+            List<ResultadoImportacion> parciales = new ArrayList<>(bloques.size());
+            int siguiente = 0;
+            while (siguiente < bloques.size() || !pendientes.isEmpty()) {
+                // Mantener procesándose en paralelo los bloques siguientes mientras se importa el primero
+                while (siguiente < bloques.size() && pendientes.size() < adelantados) {
+                    long[] bloque = bloques.get(siguiente);
+                    boolean omitirEncabezado = siguiente == 0 && tieneEncabezado;
+                    pendientes.addLast(CompletableFuture.supplyAsync(() -> leerBloque(canal, bloque, omitirEncabezado)));
+                    siguiente++;
+                }
+                parciales.add(catalogo.agregarLibros(esperar(pendientes.removeFirst())));
+            }
+            return ResultadoImportacion.concatenar(parciales);
+        }
+    }
+    
+    /**
+     * Espera a que termine de procesarse un bloque
+     * @param bloque El procesamiento del bloque
+     * @return Lista de libros del bloque
+     * @throws IOException si no se pudo leer el bloque
+     */
+    private static List<Libro> esperar(CompletableFuture<List<Libro>> bloque) throws IOException {
+        try {
+            return bloque.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Divide el archivo en bloques de aproximadamente tamanioBloque bytes que terminan en un fin de línea
+     * @param canal El canal del archivo
+     * @return Lista de pares {inicio, fin} con las posiciones de cada bloque
+     */
+    private List<long[]> dividirEnBloques(FileChannel canal) throws IOException {
+        long tamanio = canal.size();
+        List<long[]> bloques = new ArrayList<>();
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        
+        long inicio = 0;
+        while (inicio < tamanio) {
+            long fin = Math.min(inicio + tamanioBloque, tamanio);
+            if (fin < tamanio) {
+                fin = buscarFinDeLinea(canal, fin - 1, tamanio, buffer);
+            }
+            bloques.add(new long[] {inicio, fin});
+            inicio = fin;
+        }
+        return bloques;
+    }
+    
+    /**
+     * Busca el primer salto de línea a partir de una posición
+     * @return La posición siguiente al salto de línea, o el tamaño del archivo si no hay más saltos
+     */
+    private static long buscarFinDeLinea(FileChannel canal, long posicion, long tamanio, ByteBuffer buffer) throws IOException {
+        while (posicion < tamanio) {
+            buffer.clear();
+            int leidos = canal.read(buffer, posicion);
+            if (leidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < leidos; i++) {
+                if (buffer.get(i) == '\n') {
+                    return posicion + i + 1;
+                }
+            }
+            posicion += leidos;
+        }
+        return tamanio;
+    }
+    
+    /**
+     * Mapea un bloque del archivo y lo convierte en libros
+     * @param canal El canal del archivo
+     * @param bloque Las posiciones {inicio, fin} del bloque
+     * @param omitirPrimeraLinea true si la primera línea del bloque es el encabezado
+     * @return Lista de libros del bloque, con null en lugar de cada línea inválida
+     */
+    private List<Libro> leerBloque(FileChannel canal, long[] bloque, boolean omitirPrimeraLinea) {
+        MappedByteBuffer datos;
+        try {
+            datos = canal.map(FileChannel.MapMode.READ_ONLY, bloque[0], bloque[1] - bloque[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        List<Libro> libros = new ArrayList<>();
+        byte[] linea = new byte[TAMANIO_LINEA_INICIAL];
+        byte[] campo = new byte[TAMANIO_LINEA_INICIAL];
+        int largo = 0;
+        boolean omitir = omitirPrimeraLinea;
+        
+        while (datos.hasRemaining()) {
+            byte b = datos.get();
+            if (b != '\n') {
+                if (largo == linea.length) {
+                    linea = Arrays.copyOf(linea, linea.length * 2);
+                    campo = new byte[linea.length];
+                }
+                linea[largo++] = b;
+                continue;
+            }
+            
+            if (omitir) {
+                omitir = false;
+            } else {
+                agregarLinea(libros, linea, largo, campo);
+            }
+            largo = 0;
+        }
+        if (largo > 0 && !omitir) {
+            agregarLinea(libros, linea, largo, campo);
+        }
+        return libros;
+    }
+    
+    private void agregarLinea(List<Libro> libros, byte[] linea, int largo, byte[] campo) {
+        if (largo > 0 && linea[largo - 1] == '\r') {
+            largo--;
+        }
+        if (largo == 0) {
+            return;
+        }
+        libros.add(crearLibro(separarCampos(linea, largo, campo)));
+    }
+    
+    /**
+     * Separa una línea en campos, respetando los campos entre comillas dobles
+     * @param linea Los bytes de la línea
+     * @param largo La cantidad de bytes válidos de la línea
+     * @param campo Buffer auxiliar de al menos largo bytes
+     * @return Los campos de la línea, sin espacios al comienzo ni al final
+     */
+    private List<String> separarCampos(byte[] linea, int largo, byte[] campo) {
+        List<String> campos = new ArrayList<>(4);
+        int largoCampo = 0;
+        boolean entreComillas = false;
+        
+        for (int i = 0; i < largo; i++) {
+            byte b = linea[i];
+            if (b == '"') {
+                if (entreComillas && i + 1 < largo && linea[i + 1] == '"') {
+                    campo[largoCampo++] = '"';
+                    i++;
+                } else {
+                    entreComillas = !entreComillas;
+                }
+            } else if (b == separador && !entreComillas) {
+                campos.add(new String(campo, 0, largoCampo, StandardCharsets.UTF_8).trim());
+                largoCampo = 0;
+            } else {
+                campo[largoCampo++] = b;
+            }
+        }
+        campos.add(new String(campo, 0, largoCampo, StandardCharsets.UTF_8).trim());
+        return campos;
+    }
+    
+    /**
+     * Crea un libro a partir de los campos de una línea
+     * @param campos Los campos ISBN, título, autor y opcionalmente estado
+     * @return El libro creado o null si la línea no es válida
+     */
+    private static Libro crearLibro(List<String> campos) {
+        if (campos.size() < 3) {
+            return null;
+        }
+        
+        Libro libro = new Libro(campos.get(0), campos.get(1), campos.get(2));
+        if (campos.size() > 3 && !campos.get(3).isEmpty()) {
+            try {
+                libro.cambiarEstado(Estado.valueOf(campos.get(3).toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+        return libro;
+    }
+}
@@ -2,19 +2,26 @@ package ar.edu.um.biblioteca.sistema;
 
 import ar.edu.um.biblioteca.modelo.Catalogo;
 import ar.edu.um.biblioteca.modelo.Estado;
+import ar.edu.um.biblioteca.modelo.IndiceIsbn;
 import ar.edu.um.biblioteca.modelo.Libro;
+import ar.edu.um.biblioteca.modelo.OyenteCatalogo;
 import ar.edu.um.biblioteca.modelo.Prestamo;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
- * Clase que gestiona los préstamos de libros en la biblioteca
+ * Clase que gestiona los préstamos de libros en la biblioteca.
+ * Los préstamos activos se indexan por el ISBN de su libro; el sistema se registra como oyente del catálogo
+ * para reindexarlos cuando un libro prestado cambia de ISBN.
  */
 public class SistemaPrestamos {
     private Catalogo catalogo;
-    private List<Prestamo> prestamosActivos;
+    private Set<Prestamo> prestamosActivos;
+    private IndiceIsbn<Prestamo> prestamosPorIsbn;
     
     /**
      * Constructor que inicializa el sistema de préstamos con un catálogo
@@ -22,7 +29,9 @@ public class SistemaPrestamos {
      */
     public SistemaPrestamos(Catalogo catalogo) {
         this.catalogo = catalogo;
-        this.prestamosActivos = new ArrayList<>();
+        this.prestamosActivos = new LinkedHashSet<>();
+        this.prestamosPorIsbn = new IndiceIsbn<>();
+        catalogo.agregarOyente(new OyenteIsbn());
     }
     
     /**
@@ -48,7 +57,7 @@ public class SistemaPrestamos {
         
         // Crear el préstamo y agregarlo a la lista de activos
         Prestamo prestamo = new Prestamo(libro);
-        prestamosActivos.add(prestamo);
+        registrarPrestamoActivo(prestamo);
         
         return prestamo;
     }
@@ -83,7 +92,7 @@ public class SistemaPrestamos {
         
         // Crear el préstamo y agregarlo a la lista de activos
         Prestamo prestamo = new Prestamo(libro, LocalDate.now(), diasPrestamo);
-        prestamosActivos.add(prestamo);
+        registrarPrestamoActivo(prestamo);
         
         return prestamo;
     }
@@ -123,6 +132,7 @@ public class SistemaPrestamos {
         // Finalizar el préstamo y quitarlo de la lista de activos
         prestamoActivo.finalizar();
         prestamosActivos.remove(prestamoActivo);
+        prestamosPorIsbn.quitar(isbn);
         
         return true;
     }
@@ -160,12 +170,16 @@ public class SistemaPrestamos {
      * @return El préstamo encontrado o null si no existe
      */
     private Prestamo buscarPrestamoActivoPorIsbn(String isbn) {
-        for (Prestamo prestamo : prestamosActivos) {
-            if (prestamo.getLibro().getIsbn().equals(isbn)) {
-                return prestamo;
-            }
-        }
-        return null;
+        return prestamosPorIsbn.buscar(isbn);
+    }
+    
+    /**
+     * Agrega un préstamo a los activos y lo indexa por el ISBN de su libro
+     * @param prestamo El préstamo a registrar
+     */
+    private void registrarPrestamoActivo(Prestamo prestamo) {
+        prestamosActivos.add(prestamo);
+        prestamosPorIsbn.agregarSiAusente(prestamo.getLibro().getIsbn(), prestamo);
     }
     
     /**
@@ -216,4 +230,17 @@ public class SistemaPrestamos {
     public int contarPrestamosVencidos() {
         return obtenerPrestamosVencidos().size();
     }
+    
+    /**
+     * Oyente que mueve el préstamo activo de un libro a su nuevo ISBN cuando el libro cambia de ISBN
+     */
+    private class OyenteIsbn implements OyenteCatalogo {
+        @Override
+        public void isbnCambiado(Libro libro, String isbnAnterior) {
+            Prestamo prestamo = prestamosPorIsbn.quitar(isbnAnterior);
+            if (prestamo != null) {
+                prestamosPorIsbn.agregarSiAusente(libro.getIsbn(), prestamo);
+            }
+        }
+    }
 } 
\ No newline at end of file
@@ -7,6 +7,7 @@ import ar.edu.um.biblioteca.modelo.Prestamo;
 import ar.edu.um.biblioteca.sistema.SistemaPrestamos;
 
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
 
@@ -14,6 +15,8 @@ import java.util.Scanner;
  * Interfaz de usuario basada en consola para el sistema de biblioteca
  */
 public class ConsolaUI {
+    private static final int LIBROS_POR_PAGINA = 20;
+    
     private final Scanner scanner;
     private final Catalogo catalogo;
     private final SistemaPrestamos sistemaPrestamos;
@@ -276,19 +279,45 @@ public class ConsolaUI {
     }
     
     /**
-     * Muestra todos los libros del catálogo
+     * Muestra todos los libros del catálogo de a una página por vez, en el orden elegido
+     * (en el que se ingresaron al catálogo, por título o por autor), recorriendo el catálogo sin copiarlo
      */
     public void mostrarTodosLosLibros() {
-        List<Libro> libros = catalogo.obtenerTodosLosLibros();
+        System.out.println("Ordenar por: 1. Orden de ingreso  2. Título  3. Autor");
+        System.out.print("Seleccione una opción: ");
+        int orden = obtenerEntero();
         
-        if (!libros.isEmpty()) {
-            System.out.println("\n----- Todos los Libros -----");
-            for (Libro libro : libros) {
-                mostrarDetallesLibro(libro);
-                System.out.println("----------------------------");
-            }
-        } else {
+        Iterator<Libro> libros;
+        switch (orden) {
+            case 2:
+                libros = catalogo.streamOrdenadoPorTitulo().iterator();
+                break;
+            case 3:
+                libros = catalogo.streamOrdenadoPorAutor().iterator();
+                break;
+            default:
+                libros = catalogo.streamLibros().iterator();
+                break;
+        }
+        
+        if (!libros.hasNext()) {
             System.out.println("El catálogo está vacío.");
+            return;
+        }
+        
+        System.out.println("\n----- Todos los Libros -----");
+        int mostrados = 0;
+        while (libros.hasNext()) {
+            mostrarDetallesLibro(libros.next());
+            System.out.println("----------------------------");
+            mostrados++;
+            
+            if (mostrados % LIBROS_POR_PAGINA == 0 && libros.hasNext()) {
+                System.out.print("Presione Enter para ver más libros o 'q' para volver: ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    return;
+                }
+            }
         }
     }
     
@@ -0,0 +1,58 @@
+package ar.edu.um.biblioteca.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlmacenLibrosTest {
+
+    @Test
+    void testAltasYBajasConservanElOrden() {
+        Map<Libro, Integer> ranuras = new HashMap<>();
+        AlmacenLibros almacen = new AlmacenLibros(ranuras::put);
+        List<Libro> esperados = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            Libro libro = new Libro("isbn-" + i, "Título " + i, "Autor");
+            ranuras.put(libro, almacen.agregar(libro));
+            esperados.add(libro);
+        }
+
+        // Quitar dos de cada tres libros obliga a compactar varias veces
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 3 != 0) {
+                Libro libro = esperados.get(i);
+                almacen.quitar(ranuras.remove(libro));
+            }
+        }
+        esperados.removeIf(libro -> !ranuras.containsKey(libro));
+
+        assertEquals(esperados.size(), almacen.size());
+        assertEquals(esperados, new ArrayList<>(almacen));
+        assertEquals(esperados, almacen.parallelStream().collect(Collectors.toList()));
+        for (Libro libro : esperados) {
+            assertSame(libro, almacen.obtener(ranuras.get(libro)));
+        }
+    }
+
+    @Test
+    void testLasRanurasVaciasNoSeRecorren() {
+        AlmacenLibros almacen = new AlmacenLibros((libro, ranura) -> { });
+        Libro primero = new Libro("isbn-1", "Uno", "Autor");
+        Libro segundo = new Libro("isbn-2", "Dos", "Autor");
+        Libro tercero = new Libro("isbn-3", "Tres", "Autor");
+        almacen.agregar(primero);
+        int ranura = almacen.agregar(segundo);
+        almacen.agregar(tercero);
+
+        almacen.quitar(ranura);
+        assertNull(almacen.obtener(ranura));
+        assertEquals(List.of(primero, tercero), new ArrayList<>(almacen));
+        assertEquals(3, almacen.proximaRanura());
+    }
+}
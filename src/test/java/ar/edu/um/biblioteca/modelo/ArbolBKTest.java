@@ -0,0 +1,38 @@
+package ar.edu.um.biblioteca.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ArbolBKTest {
+
+    @Test
+    void testDistancia() {
+        assertEquals(0, ArbolBK.distancia("libro", "libro"));
+        assertEquals(1, ArbolBK.distancia("libro", "libros"));
+        assertEquals(1, ArbolBK.distancia("libro", "litro"));
+        assertEquals(3, ArbolBK.distancia("kitten", "sitting"));
+        assertEquals(5, ArbolBK.distancia("", "libro"));
+    }
+
+    @Test
+    void testBuscarCoincideConRecorridoCompleto() {
+        String[] palabras = {"soledad", "soleado", "sol", "salud", "solitario", "sonido", "sal", "saludo", "cien", "cine"};
+        ArbolBK arbol = new ArbolBK();
+        for (String palabra : palabras) {
+            arbol.agregar(palabra);
+        }
+        arbol.agregar("sol");
+        assertEquals(palabras.length, arbol.tamanio());
+
+        for (int distancia = 0; distancia <= 3; distancia++) {
+            Map<String, Integer> encontradas = arbol.buscar("solead", distancia);
+            for (String palabra : palabras) {
+                int esperada = ArbolBK.distancia(palabra, "solead");
+                assertEquals(esperada <= distancia, encontradas.containsKey(palabra));
+            }
+        }
+    }
+}
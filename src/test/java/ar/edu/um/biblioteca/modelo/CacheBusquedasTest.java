@@ -0,0 +1,58 @@
+package ar.edu.um.biblioteca.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheBusquedasTest {
+
+    @Test
+    void testDesalojaLaMenosUsada() {
+        CacheBusquedas cache = new CacheBusquedas(2);
+        cache.guardar("uno", List.of());
+        cache.guardar("dos", List.of());
+        assertNotNull(cache.obtener("uno"));
+
+        cache.guardar("tres", List.of());
+        assertEquals(2, cache.tamanio());
+        assertNotNull(cache.obtener("uno"));
+        assertNull(cache.obtener("dos"));
+        assertNotNull(cache.obtener("tres"));
+    }
+
+    @Test
+    void testInvalidaSoloLasConsultasAfectadas() {
+        CacheBusquedas cache = new CacheBusquedas(10);
+        cache.guardar("sol", List.of());
+        cache.guardar("soledad", List.of());
+        cache.guardar("luna", List.of());
+
+        cache.invalidar("cien anos de soledad");
+        assertNull(cache.obtener("sol"));
+        assertNull(cache.obtener("soledad"));
+        assertNotNull(cache.obtener("luna"));
+    }
+
+    @Test
+    void testInvalidaPorSubcadenasConMuchasConsultas() {
+        CacheBusquedas cache = new CacheBusquedas(1000);
+        for (int i = 0; i < 500; i++) {
+            cache.guardar("consulta " + i, List.of());
+        }
+        cache.guardar("sol", List.of());
+        cache.guardar("soledad", List.of());
+
+        cache.invalidar("cien anos de soledad");
+        assertNull(cache.obtener("sol"));
+        assertNull(cache.obtener("soledad"));
+        assertEquals(500, cache.tamanio());
+
+        cache.invalidar("consulta 42");
+        assertNull(cache.obtener("consulta 4"));
+        assertNull(cache.obtener("consulta 42"));
+        assertNotNull(cache.obtener("consulta 43"));
+        assertEquals(498, cache.tamanio());
+    }
+}
@@ -0,0 +1,343 @@
+package ar.edu.um.biblioteca.modelo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.text.Collator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogoConcurrenteTest {
+    
+    private static final Collator COLLATOR = Collator.getInstance(Locale.forLanguageTag("es"));
+    
+    private CatalogoConcurrente catalogo;
+    
+    @BeforeEach
+    void setUp() {
+        catalogo = new CatalogoConcurrente();
+    }
+    
+    @Test
+    void testOperacionesBasicas() {
+        Libro libro1 = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin");
+        Libro libro2 = new Libro("978-1-449-33737-8", "Effective Java", "Joshua Bloch");
+        
+        assertTrue(catalogo.agregarLibro(libro1));
+        assertTrue(catalogo.agregarLibro(libro2));
+        assertFalse(catalogo.agregarLibro(new Libro("978-0-306-40615-7", "Otro", "Otro")));
+        assertSame(libro1, catalogo.agregarSiAusente(new Libro("978-0-306-40615-7", "Otro", "Otro")));
+        
+        assertEquals(List.of(libro1, libro2), catalogo.obtenerTodosLosLibros());
+        assertSame(libro2, catalogo.buscarPorIsbn("978-1-449-33737-8"));
+        assertEquals(List.of(libro2), catalogo.buscarPorTitulo("java"));
+        assertEquals(List.of(libro1), catalogo.buscarPorPalabrasDelAutor("martin robert"));
+        
+        // Los cambios de estado se reflejan en los contadores y listados
+        new Prestamo(libro1);
+        assertEquals(1, catalogo.contarLibrosPrestados());
+        assertEquals(List.of(libro2), catalogo.obtenerLibrosDisponibles());
+        
+        // El cambio de ISBN conserva la posición del libro
+        libro1.setIsbn("978-0-132-35088-4");
+        assertNull(catalogo.buscarPorIsbn("978-0-306-40615-7"));
+        assertEquals(List.of(libro1, libro2), catalogo.obtenerTodosLosLibros());
+        
+        assertTrue(catalogo.eliminarLibro("978-0-132-35088-4"));
+        assertEquals(0, catalogo.contarLibrosPrestados());
+        assertEquals(1, catalogo.contarLibros());
+    }
+    
+    @Test
+    void testLibrosPorEstadoEnOrdenDeCambioDeEstado() {
+        Libro libro1 = new Libro("isbn-1", "Ficciones", "Jorge Luis Borges");
+        Libro libro2 = new Libro("isbn-2", "Rayuela", "Julio Cortázar");
+        Libro libro3 = new Libro("isbn-3", "Pedro Páramo", "Juan Rulfo");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        catalogo.agregarLibro(libro3);
+        
+        // Igual que en CatalogoIndexado, los libros se listan en el orden en que pasaron a su estado
+        libro3.setEstado(Estado.PRESTADO);
+        libro1.setEstado(Estado.PRESTADO);
+        assertEquals(List.of(libro3, libro1), catalogo.obtenerLibrosPrestados());
+        libro1.setEstado(Estado.DISPONIBLE);
+        libro3.setEstado(Estado.DISPONIBLE);
+        assertEquals(List.of(libro2, libro1, libro3), catalogo.obtenerLibrosDisponibles());
+        
+        // Asignar el mismo estado no cambia la posición
+        libro2.setEstado(Estado.DISPONIBLE);
+        assertEquals(List.of(libro2, libro1, libro3), catalogo.streamPorEstado(Estado.DISPONIBLE).collect(Collectors.toList()));
+        assertEquals(3, catalogo.contarLibrosDisponibles());
+    }
+    
+    @Test
+    void testAltasConcurrentesConIsbnRepetidos() throws InterruptedException {
+        int numThreads = 8;
+        int numLibros = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+        AtomicInteger agregados = new AtomicInteger();
+        
+        // Todos los hilos intentan agregar los mismos ISBN: solo una de las altas debe prosperar
+        for (int t = 0; t < numThreads; t++) {
+            executor.submit(() -> {
+                try {
+                    for (int i = 0; i < numLibros; i++) {
+                        if (catalogo.agregarLibro(new Libro("ISBN-" + i, "Título " + i, "Autor"))) {
+                            agregados.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        
+        assertEquals(numLibros, agregados.get());
+        assertEquals(numLibros, catalogo.contarLibros());
+        assertEquals(numLibros, catalogo.contarLibrosDisponibles());
+        assertEquals(numLibros, catalogo.obtenerTodosLosLibros().size());
+    }
+    
+    @Test
+    void testVistaOrdenadaConCambiosDeTituloConcurrentes() throws InterruptedException {
+        int numThreads = 8;
+        int numLibros = 100;
+        for (int i = 0; i < numLibros; i++) {
+            catalogo.agregarLibro(new Libro("ISBN-" + i, "Título " + i, "Autor"));
+        }
+        assertEquals(numLibros, catalogo.streamOrdenadoPorTitulo().count());
+        ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+        CountDownLatch latch = new CountDownLatch(numThreads);
+        
+        // Todos los hilos renombran los mismos libros: cada libro debe quedar una sola vez en la vista
+        for (int t = 0; t < numThreads; t++) {
+            int hilo = t;
+            executor.submit(() -> {
+                try {
+                    for (int ronda = 0; ronda < 50; ronda++) {
+                        for (int i = 0; i < numLibros; i++) {
+                            catalogo.buscarPorIsbn("ISBN-" + i).setTitulo("Título " + i + " " + hilo + " " + ronda);
+                        }
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        
+        assertTrue(latch.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+        
+        List<Libro> ordenados = catalogo.streamOrdenadoPorTitulo().collect(Collectors.toList());
+        assertEquals(numLibros, ordenados.size());
+        for (int i = 1; i < ordenados.size(); i++) {
+            String anterior = ordenados.get(i - 1).getTitulo();
+            String actual = ordenados.get(i).getTitulo();
+            assertTrue(COLLATOR.compare(anterior, actual) <= 0, anterior + " antes de " + actual);
+        }
+    }
+    
+    @Test
+    void testCambioDeEstadoMientrasCambiaElIsbn() {
+        Libro libro = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin");
+        catalogo.agregarLibro(libro);
+        // Otro observador cambia el estado y el título entre el aviso previo al cambio de ISBN y su asignación,
+        // cuando el libro todavía tiene el ISBN anterior
+        libro.agregarObservador(new ObservadorLibro() {
+            @Override
+            public void isbnCambiando(Libro cambiado, String nuevoIsbn) {
+                cambiado.cambiarEstado(Estado.PRESTADO);
+                cambiado.setTitulo("Código limpio");
+            }
+
+            @Override
+            public void isbnCambiado(Libro cambiado, String isbnAnterior) {
+            }
+
+            @Override
+            public void tituloCambiado(Libro cambiado, String tituloAnterior) {
+            }
+
+            @Override
+            public void autorCambiado(Libro cambiado, String autorAnterior) {
+            }
+
+            @Override
+            public void estadoCambiado(Libro cambiado, Estado estadoAnterior) {
+            }
+        });
+
+        libro.setIsbn("978-0-132-35088-4");
+        assertSame(libro, catalogo.buscarPorIsbn("978-0-132-35088-4"));
+        assertEquals(1, catalogo.contarLibrosPrestados());
+        assertEquals(List.of(libro), catalogo.obtenerLibrosPrestados());
+        assertEquals(List.of("Código limpio"), catalogo.autocompletarTitulo("cod", 5));
+        assertTrue(catalogo.autocompletarTitulo("clean", 5).isEmpty());
+    }
+    
+    @Test
+    void testAutocompletarMientrasOtrosHilosModifican() throws InterruptedException {
+        catalogo.agregarLibro(new Libro("isbn-fijo", "Cien años de soledad", "Gabriel García Márquez"));
+        ExecutorService ejecutor = Executors.newFixedThreadPool(4);
+        AtomicInteger fallas = new AtomicInteger();
+        CountDownLatch inicio = new CountDownLatch(1);
+        for (int hilo = 0; hilo < 2; hilo++) {
+            int base = hilo * 1000;
+            ejecutor.submit(() -> {
+                try {
+                    inicio.await();
+                    for (int i = base; i < base + 1000; i++) {
+                        catalogo.agregarLibro(new Libro("isbn-" + i, "Ciudad " + i, "Autor " + i));
+                        catalogo.eliminarLibro("isbn-" + i);
+                    }
+                } catch (RuntimeException | InterruptedException e) {
+                    fallas.incrementAndGet();
+                }
+            });
+            ejecutor.submit(() -> {
+                try {
+                    inicio.await();
+                    for (int i = 0; i < 1000; i++) {
+                        if (!catalogo.autocompletarTitulo("ci", 3).contains("Cien años de soledad")) {
+                            fallas.incrementAndGet();
+                        }
+                    }
+                } catch (RuntimeException | InterruptedException e) {
+                    fallas.incrementAndGet();
+                }
+            });
+        }
+        inicio.countDown();
+        ejecutor.shutdown();
+        assertTrue(ejecutor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(0, fallas.get());
+        assertEquals(List.of("Cien años de soledad"), catalogo.autocompletarTitulo("ci", 5));
+    }
+    
+    @Test
+    void testBusquedaSinTildes() {
+        catalogo.agregarLibro(new Libro("978-84-376-0494-7", "Crónica de una muerte anunciada", "Gabriel García Márquez"));
+
+        assertEquals(1, catalogo.buscarPorAutor("garcia").size());
+        assertEquals(1, catalogo.buscarPorTitulo("CRONICA").size());
+        assertEquals(1, catalogo.streamPorAutor("márquez").count());
+    }
+    
+    @Test
+    void testAutocompletar() {
+        catalogo.agregarLibro(new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez"));
+        catalogo.agregarLibro(new Libro("978-0-14-118776-1", "Ciudades de papel", "John Green"));
+
+        assertEquals(List.of("Cien años de soledad", "Ciudades de papel"), catalogo.autocompletarTitulo("ci", 5));
+        assertEquals(List.of("Gabriel García Márquez"), catalogo.autocompletarAutor("garcia", 5));
+
+        // El índice se mantiene ante cambios de título y bajas
+        catalogo.buscarPorIsbn("978-0-14-118776-1").setTitulo("Bajo la misma estrella");
+        assertEquals(List.of("Cien años de soledad"), catalogo.autocompletarTitulo("ci", 5));
+        assertEquals(List.of("Bajo la misma estrella"), catalogo.autocompletarTitulo("estr", 5));
+        catalogo.eliminarLibro("978-84-376-0494-7");
+        assertTrue(catalogo.autocompletarTitulo("ci", 5).isEmpty());
+        assertTrue(catalogo.autocompletarAutor("garcia", 5).isEmpty());
+    }
+    
+    @Test
+    void testBusquedaAproximada() {
+        Libro libro = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        catalogo.agregarLibro(libro);
+        catalogo.agregarLibro(new Libro("978-0-14-118776-1", "Rayuela", "Julio Cortázar"));
+
+        assertEquals(List.of(libro), catalogo.buscarPorTituloAproximado("soledd", 1));
+        assertEquals(List.of(libro), catalogo.buscarPorAutorAproximado("markez", 2));
+        assertTrue(catalogo.buscarPorTituloAproximado("ciem soled", 1).isEmpty());
+    }
+    
+    @Test
+    void testBusquedaPorRelevanciaIgualQueCatalogo() {
+        Catalogo secuencial = new CatalogoIndexado();
+        String[] titulos = {"Breve historia de Grecia", "Historia de Roma", "Roma soy yo", "Clean Code", "Historia de la historia"};
+        for (int i = 0; i < titulos.length; i++) {
+            Libro libro = new Libro("isbn-" + i, titulos[i], "Autor");
+            catalogo.agregarLibro(libro);
+            secuencial.agregarLibro(libro);
+        }
+
+        assertEquals(secuencial.buscarMasRelevantesPorTitulo("historia roma", 3),
+                catalogo.buscarMasRelevantesPorTitulo("historia roma", 3));
+        assertEquals(secuencial.buscarMasRelevantesPorTitulo("historia", 10),
+                catalogo.buscarMasRelevantesPorTitulo("historia", 10));
+    }
+    
+    @Test
+    void testConsultaCompuesta() {
+        Libro libro1 = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        Libro libro2 = new Libro("978-0-06-112008-4", "El otoño del patriarca", "Gabriel García Márquez");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        libro1.setEstado(Estado.PRESTADO);
+
+        Consulta consulta = new Consulta();
+        consulta.setAutor("garcia");
+        consulta.setEstado(Estado.DISPONIBLE);
+        assertEquals(List.of(libro2), catalogo.buscar(consulta));
+
+        consulta.setEstado(null);
+        consulta.setIsbn("978-84-376-0494-7");
+        assertEquals(List.of(libro1), catalogo.buscar(consulta));
+    }
+    
+    @Test
+    void testBusquedaPorPrefijoYRangoDeIsbn() {
+        Libro libro1 = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        Libro libro2 = new Libro("978-0-306-40615-7", "Otro", "Otro");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+
+        assertEquals(List.of(libro1), catalogo.buscarPorPrefijoIsbn("978-84-376"));
+        assertEquals(List.of(libro2, libro1), catalogo.buscarPorRangoIsbn("978", "979"));
+        catalogo.eliminarLibro("978-84-376-0494-7");
+        assertTrue(catalogo.buscarPorPrefijoIsbn("978-84").isEmpty());
+    }
+    
+    @Test
+    void testBusquedaParalelaConservaElOrden() {
+        for (int i = 0; i < 2000; i++) {
+            catalogo.agregarLibro(new Libro("isbn-" + i, "Título " + i, "Autor " + (i % 3)));
+        }
+        List<Libro> secuencial = catalogo.buscarPorAutor("autor 2");
+
+        catalogo.setUmbralBusquedaParalela(100);
+        assertEquals(secuencial, catalogo.buscarPorAutor("autor 2"));
+    }
+    
+    @Test
+    void testLasOpcionesDeIndicesSeIgnoran() {
+        Libro libro = new Libro("isbn-1", "El nombre del viento", "Patrick Rothfuss");
+        catalogo.agregarLibro(libro);
+        
+        catalogo.setBusquedaPorTrigramas(true);
+        catalogo.setDiccionarioDeAutores(true);
+        catalogo.setTitulosEmpaquetados(true);
+        catalogo.setCacheDeBusquedas(10);
+        
+        assertFalse(catalogo.isBusquedaPorTrigramas());
+        assertFalse(catalogo.isDiccionarioDeAutores());
+        assertFalse(catalogo.isTitulosEmpaquetados());
+        assertEquals(0, catalogo.getCapacidadCacheDeBusquedas());
+        assertEquals(List.of(libro), catalogo.buscarPorTitulo("viento"));
+        assertEquals(List.of(libro), catalogo.buscarPorAutor("rothfuss"));
+    }
+}
@@ -0,0 +1,287 @@
+package ar.edu.um.biblioteca.modelo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogoFueraDelHeapTest {
+
+    private CatalogoFueraDelHeap catalogo;
+
+    @BeforeEach
+    void setUp() {
+        catalogo = new CatalogoFueraDelHeap(4);
+    }
+
+    @Test
+    void testOperacionesBasicas() {
+        Libro libro1 = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin");
+        Libro libro2 = new Libro("isbn-2", "Cien años de soledad", "Gabriel García Márquez");
+
+        assertTrue(catalogo.agregarLibro(libro1));
+        assertTrue(catalogo.agregarLibro(libro2));
+        assertFalse(catalogo.agregarLibro(new Libro("0306406152", "Otro", "Otro")));
+
+        Libro encontrado = catalogo.buscarPorIsbn("9780306406157");
+        assertEquals("978-0-306-40615-7", encontrado.getIsbn());
+        assertEquals("Clean Code", encontrado.getTitulo());
+        assertEquals("Robert C. Martin", encontrado.getAutor());
+        assertEquals(Estado.DISPONIBLE, encontrado.getEstado());
+        assertNull(catalogo.buscarPorIsbn("isbn-3"));
+
+        assertEquals(List.of("978-0-306-40615-7", "isbn-2"), isbns(catalogo.obtenerTodosLosLibros()));
+        assertEquals(List.of("isbn-2"), isbns(catalogo.buscarPorTitulo("AÑOS")));
+        assertEquals(List.of("isbn-2"), isbns(catalogo.buscarPorAutor("garcia marq")));
+        assertEquals(List.of("isbn-2"), isbns(catalogo.buscarPorPalabrasDelAutor("marquez gabriel")));
+        assertEquals(2, catalogo.contarLibros());
+    }
+
+    @Test
+    void testLosCambiosSobreLosLibrosSeEscribenEnElRegistro() {
+        Libro libro = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin");
+        catalogo.agregarLibro(libro);
+
+        // Cambios sobre el libro agregado
+        new Prestamo(libro);
+        assertEquals(1, catalogo.contarLibrosPrestados());
+        assertEquals(Estado.PRESTADO, catalogo.buscarPorIsbn("978-0-306-40615-7").getEstado());
+
+        // Cambios sobre un libro obtenido del catálogo
+        Libro copia = catalogo.buscarPorIsbn("978-0-306-40615-7");
+        copia.setTitulo("Código Limpio");
+        copia.setEstado(Estado.DISPONIBLE);
+        assertEquals(List.of("978-0-306-40615-7"), isbns(catalogo.buscarPorTitulo("codigo")));
+        assertTrue(catalogo.buscarPorTitulo("clean").isEmpty());
+        assertEquals(0, catalogo.contarLibrosPrestados());
+        assertEquals(1, catalogo.contarLibrosDisponibles());
+
+        // Las copias obtenidas antes no cambian
+        assertEquals("Clean Code", libro.getTitulo());
+    }
+
+    @Test
+    void testCambioDeIsbn() {
+        Libro libro = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin");
+        catalogo.agregarLibro(libro);
+        catalogo.agregarLibro(new Libro("isbn-2", "Effective Java", "Joshua Bloch"));
+
+        assertThrows(IllegalArgumentException.class, () -> libro.setIsbn("isbn-2"));
+        libro.setIsbn("843760494X");
+        assertNull(catalogo.buscarPorIsbn("978-0-306-40615-7"));
+        assertEquals("843760494X", catalogo.buscarPorIsbn("978-84-376-0494-7").getIsbn());
+        assertEquals(List.of("843760494X", "isbn-2"), isbns(catalogo.obtenerTodosLosLibros()));
+        assertEquals(List.of("843760494X"), isbns(catalogo.buscarPorPrefijoIsbn("978-84")));
+    }
+
+    @Test
+    void testEliminarLibro() {
+        Libro libro = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin");
+        catalogo.agregarLibro(libro);
+        catalogo.agregarLibro(new Libro("isbn-2", "Effective Java", "Joshua Bloch"));
+        new Prestamo(libro);
+
+        assertTrue(catalogo.eliminarLibro("0306406152"));
+        assertFalse(catalogo.eliminarLibro("978-0-306-40615-7"));
+        assertEquals(1, catalogo.contarLibros());
+        assertEquals(0, catalogo.contarLibrosPrestados());
+        assertEquals(List.of("isbn-2"), isbns(catalogo.obtenerTodosLosLibros()));
+
+        // Los cambios sobre un libro dado de baja ya no afectan al catálogo
+        libro.setEstado(Estado.DISPONIBLE);
+        assertEquals(1, catalogo.contarLibrosDisponibles());
+        assertTrue(catalogo.agregarLibro(new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin")));
+    }
+
+    @Test
+    void testLibrosPorEstadoEnOrdenDeCambioDeEstado() {
+        catalogo.agregarLibro(new Libro("isbn-1", "Ficciones", "Jorge Luis Borges"));
+        catalogo.agregarLibro(new Libro("isbn-2", "Rayuela", "Julio Cortázar"));
+        catalogo.agregarLibro(new Libro("isbn-3", "Pedro Páramo", "Juan Rulfo"));
+
+        // Igual que en CatalogoIndexado, los libros se listan en el orden en que pasaron a su estado
+        catalogo.buscarPorIsbn("isbn-3").setEstado(Estado.PRESTADO);
+        catalogo.buscarPorIsbn("isbn-1").setEstado(Estado.PRESTADO);
+        assertEquals(List.of("isbn-3", "isbn-1"), isbns(catalogo.obtenerLibrosPrestados()));
+        catalogo.buscarPorIsbn("isbn-1").setEstado(Estado.DISPONIBLE);
+        catalogo.buscarPorIsbn("isbn-3").setEstado(Estado.DISPONIBLE);
+        assertEquals(List.of("isbn-2", "isbn-1", "isbn-3"), isbns(catalogo.obtenerLibrosDisponibles()));
+
+        // Asignar el mismo estado no cambia la posición, y las bajas salen de la lista de su estado
+        catalogo.buscarPorIsbn("isbn-2").setEstado(Estado.DISPONIBLE);
+        catalogo.eliminarLibro("isbn-1");
+        assertEquals(List.of("isbn-2", "isbn-3"), isbns(catalogo.obtenerLibrosDisponibles()));
+        assertEquals(2, catalogo.contarLibrosDisponibles());
+        assertTrue(catalogo.obtenerLibrosPrestados().isEmpty());
+    }
+
+    @Test
+    void testCrecimientoDeLosBuffers() {
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(catalogo.agregarLibro(new Libro("isbn-" + i, "Título número " + i, "Autor " + (i % 10))));
+        }
+
+        assertEquals(1000, catalogo.contarLibros());
+        assertEquals(100, catalogo.buscarPorAutor("autor 7").size());
+        assertEquals("Título número 999", catalogo.buscarPorIsbn("isbn-999").getTitulo());
+        assertEquals(List.of("isbn-10", "isbn-11"), isbns(catalogo.obtenerPagina(10, 2)));
+    }
+
+    @Test
+    void testAutocompletarConCopiasDesactualizadas() {
+        catalogo.agregarLibro(new Libro("isbn-1", "El nombre del viento", "Patrick Rothfuss"));
+        Libro copia = catalogo.buscarPorIsbn("isbn-1");
+        catalogo.buscarPorIsbn("isbn-1").setTitulo("El temor de un hombre sabio");
+        assertTrue(catalogo.autocompletarTitulo("nom", 5).isEmpty());
+
+        // La copia todavía tiene el título original; el anterior se toma del registro
+        copia.setTitulo("Las puertas de piedra");
+        assertTrue(catalogo.autocompletarTitulo("temor", 5).isEmpty());
+        assertEquals(List.of("Las puertas de piedra"), catalogo.autocompletarTitulo("puer", 5));
+
+        catalogo.eliminarLibro("isbn-1");
+        assertTrue(catalogo.autocompletarTitulo("puer", 5).isEmpty());
+        assertTrue(catalogo.autocompletarAutor("roth", 5).isEmpty());
+        copia.setTitulo("Otro título");
+        assertTrue(catalogo.autocompletarTitulo("otro", 5).isEmpty());
+    }
+
+    @Test
+    void testReutilizaLosRegistrosDadosDeBaja() {
+        catalogo.agregarLibro(new Libro("isbn-1", "Ficciones", "Jorge Luis Borges"));
+        catalogo.agregarLibro(new Libro("isbn-2", "Rayuela", "Julio Cortázar"));
+        Libro copia = catalogo.buscarPorIsbn("isbn-1");
+        catalogo.eliminarLibro("isbn-1");
+        catalogo.agregarLibro(new Libro("isbn-3", "Pedro Páramo", "Juan Rulfo"));
+
+        // El libro nuevo ocupa el registro liberado, pero se recorre en orden de inserción
+        assertEquals(List.of("isbn-2", "isbn-3"), isbns(catalogo.obtenerTodosLosLibros()));
+
+        // Las copias del libro dado de baja no escriben en el libro que ocupa su registro
+        copia.setTitulo("Otro título");
+        copia.setEstado(Estado.PRESTADO);
+        Libro nuevo = catalogo.buscarPorIsbn("isbn-3");
+        assertEquals("Pedro Páramo", nuevo.getTitulo());
+        assertEquals(Estado.DISPONIBLE, nuevo.getEstado());
+        assertEquals(0, catalogo.contarLibrosPrestados());
+        assertEquals(List.of("isbn-2", "isbn-3"), isbns(catalogo.obtenerLibrosDisponibles()));
+    }
+
+    @Test
+    void testCompactaLaArena() {
+        catalogo.agregarLibro(new Libro("isbn-1", "Ficciones", "Jorge Luis Borges"));
+        catalogo.agregarLibro(new Libro("isbn-2", "rayuela", "Julio Cortázar"));
+        Libro libro = catalogo.buscarPorIsbn("isbn-2");
+        for (int i = 0; i < 10_000; i++) {
+            libro.setTitulo("Un título bastante largo número " + i);
+            catalogo.agregarLibro(new Libro("temporal", "Un libro que se da de baja enseguida", "Autor"));
+            catalogo.eliminarLibro("temporal");
+        }
+
+        // Sin compactar, la arena habría acumulado más de 1 MB de textos descartados
+        assertTrue(catalogo.bytesUsadosEnArena() < 300_000);
+        assertEquals(2, catalogo.contarLibros());
+        assertEquals("Ficciones", catalogo.buscarPorIsbn("isbn-1").getTitulo());
+        assertEquals("Un título bastante largo número 9999", catalogo.buscarPorIsbn("isbn-2").getTitulo());
+        assertEquals(List.of("isbn-2"), isbns(catalogo.buscarPorTitulo("numero 9999")));
+        assertEquals(List.of("isbn-1"), isbns(catalogo.buscarPorAutor("borges")));
+    }
+
+    @Test
+    void testVariosSegmentos() {
+        // Más registros que los de un segmento, y textos que ocupan más de un segmento de la arena
+        String largo = "x".repeat(100_000);
+        for (int i = 0; i < 70_000; i++) {
+            String titulo = i % 250 == 0 ? largo + i : "Título " + i;
+            assertTrue(catalogo.agregarLibro(new Libro("isbn-" + i, titulo, "Autor")));
+        }
+
+        assertEquals(70_000, catalogo.contarLibros());
+        assertEquals("Título 69999", catalogo.buscarPorIsbn("isbn-69999").getTitulo());
+        assertEquals(largo + 69000, catalogo.buscarPorIsbn("isbn-69000").getTitulo());
+        assertEquals(List.of("isbn-65537"), isbns(catalogo.buscarPorTitulo("título 65537")));
+        assertTrue(catalogo.bytesUsadosEnArena() > 1L << 24);
+    }
+
+    @Test
+    void testBusquedasPorRecorrido() {
+        catalogo.agregarLibro(new Libro("isbn-1", "El nombre del viento", "Patrick Rothfuss"));
+        catalogo.agregarLibro(new Libro("isbn-2", "El temor de un hombre sabio", "Patrick Rothfuss"));
+
+        Consulta consulta = new Consulta();
+        consulta.setAutor("rothfuss");
+        consulta.setTitulo("viento");
+        assertEquals(List.of("isbn-1"), isbns(catalogo.buscar(consulta)));
+        assertEquals(List.of("isbn-2"), isbns(catalogo.buscarPorTituloAproximado("tenor", 1)));
+        assertEquals(List.of("El nombre del viento"), catalogo.autocompletarTitulo("nom", 5));
+
+        // Las opciones de índices se ignoran
+        catalogo.setBusquedaPorTrigramas(true);
+        catalogo.setCacheDeBusquedas(10);
+        assertFalse(catalogo.isBusquedaPorTrigramas());
+        assertEquals(0, catalogo.getCapacidadCacheDeBusquedas());
+        assertEquals(List.of("isbn-1"), isbns(catalogo.buscarPorTitulo("viento")));
+    }
+
+    @Test
+    void testOyentesRecibenLosCambiosDeLosRegistros() {
+        int[] prestados = new int[1];
+        catalogo.agregarOyente(new OyenteCatalogo() {
+            @Override
+            public void estadoCambiado(Libro libro, Estado estadoAnterior) {
+                prestados[0] += libro.getEstado() == Estado.PRESTADO ? 1 : -1;
+            }
+        });
+        catalogo.agregarLibro(new Libro("isbn-1", "El Aleph", "Jorge Luis Borges"));
+
+        // Dos copias del mismo registro: el segundo préstamo no cambia el estado del registro
+        Libro copia1 = catalogo.buscarPorIsbn("isbn-1");
+        Libro copia2 = catalogo.buscarPorIsbn("isbn-1");
+        copia1.setEstado(Estado.PRESTADO);
+        copia2.setEstado(Estado.PRESTADO);
+        assertEquals(1, prestados[0]);
+        copia1.setEstado(Estado.DISPONIBLE);
+        assertEquals(0, prestados[0]);
+    }
+
+    private static List<String> isbns(List<Libro> libros) {
+        return libros.stream().map(Libro::getIsbn).collect(Collectors.toList());
+    }
+    
+
+    @Test
+    void testUnaCopiaDesactualizadaPuedeVolverAlEstadoQueTenia() {
+        catalogo.agregarLibro(new Libro("isbn-1", "El Aleph", "Jorge Luis Borges"));
+        Libro copia1 = catalogo.buscarPorIsbn("isbn-1");
+        Libro copia2 = catalogo.buscarPorIsbn("isbn-1");
+        assertNotSame(copia1, copia2);
+
+        copia1.setEstado(Estado.PRESTADO);
+        // copia2 todavía está disponible, pero la asignación debe llegar al registro
+        copia2.setEstado(Estado.DISPONIBLE);
+        assertEquals(Estado.DISPONIBLE, catalogo.buscarPorIsbn("isbn-1").getEstado());
+        assertEquals(0, catalogo.contarLibrosPrestados());
+        assertEquals(1, catalogo.contarLibrosDisponibles());
+    }
+
+    @Test
+    void testBusquedaPorSubcadenaEnClavesDeDistintasLongitudes() {
+        catalogo.agregarLibro(new Libro("isbn-1", "Ana", "Autor"));
+        catalogo.agregarLibro(new Libro("isbn-2", "Una historia de la lectura y de los lectores", "Alberto Manguel"));
+        catalogo.agregarLibro(new Libro("isbn-3", null, null));
+
+        assertEquals(List.of("isbn-1"), isbns(catalogo.buscarPorTitulo("ana")));
+        assertEquals(List.of("isbn-2"), isbns(catalogo.buscarPorTitulo("los lectores")));
+        assertEquals(List.of("isbn-2"), isbns(catalogo.buscarPorTitulo("una h")));
+        assertTrue(catalogo.buscarPorTitulo("lectoras").isEmpty());
+        assertEquals(List.of("isbn-2"), isbns(catalogo.buscarPorAutor("manguel")));
+
+        Libro libro = catalogo.buscarPorIsbn("isbn-2");
+        assertEquals("una historia de la lectura y de los lectores", libro.getClaveTitulo());
+        assertEquals("alberto manguel", libro.getClaveAutor());
+        assertNull(catalogo.buscarPorIsbn("isbn-3").getClaveTitulo());
+    }
+}
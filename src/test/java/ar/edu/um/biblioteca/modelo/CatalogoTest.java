@@ -3,7 +3,12 @@ package ar.edu.um.biblioteca.modelo;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,19 +21,19 @@ class CatalogoTest {
     
     @BeforeEach
     void setUp() {
-        catalogo = new Catalogo();
+        catalogo = new CatalogoIndexado();
         
         // Crear algunos libros para las pruebas
-        libro1 = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin", "Programación");
-        libro2 = new Libro("978-0-132-35088-4", "Design Patterns", "Erich Gamma", "Programación");
-        libro3 = new Libro("978-1-449-33737-8", "Effective Java", "Joshua Bloch", "Java");
+        libro1 = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin");
+        libro2 = new Libro("978-0-132-35088-4", "Design Patterns", "Erich Gamma");
+        libro3 = new Libro("978-1-449-33737-8", "Effective Java", "Joshua Bloch");
     }
     
     @Test
     void testConstructor() {
         // Verificar que el catálogo se inicializa vacío
-        assertEquals(0, catalogo.obtenerCantidadLibros());
-        assertTrue(catalogo.obtenerLibros().isEmpty());
+        assertEquals(0, catalogo.contarLibros());
+        assertTrue(catalogo.obtenerTodosLosLibros().isEmpty());
     }
     
     @Test
@@ -37,17 +42,17 @@ class CatalogoTest {
         catalogo.agregarLibro(libro1);
         
         // Verificar que se agregó correctamente
-        assertEquals(1, catalogo.obtenerCantidadLibros());
-        assertTrue(catalogo.obtenerLibros().contains(libro1));
+        assertEquals(1, catalogo.contarLibros());
+        assertTrue(catalogo.obtenerTodosLosLibros().contains(libro1));
         
         // Agregar otro libro
         catalogo.agregarLibro(libro2);
-        assertEquals(2, catalogo.obtenerCantidadLibros());
-        assertTrue(catalogo.obtenerLibros().contains(libro2));
+        assertEquals(2, catalogo.contarLibros());
+        assertTrue(catalogo.obtenerTodosLosLibros().contains(libro2));
         
         // Intentar agregar un libro null no debería modificar el catálogo
         catalogo.agregarLibro(null);
-        assertEquals(2, catalogo.obtenerCantidadLibros());
+        assertEquals(2, catalogo.contarLibros());
     }
     
     @Test
@@ -57,17 +62,17 @@ class CatalogoTest {
         catalogo.agregarLibro(libro2);
         
         // Buscar un libro existente por ISBN
-        Libro libroEncontrado = catalogo.buscarLibroPorISBN(libro1.getIsbn());
+        Libro libroEncontrado = catalogo.buscarPorIsbn(libro1.getIsbn());
         assertNotNull(libroEncontrado);
         assertEquals(libro1.getIsbn(), libroEncontrado.getIsbn());
         
         // Buscar un libro que no existe
-        Libro libroNoEncontrado = catalogo.buscarLibroPorISBN("ISBN-NO-EXISTENTE");
+        Libro libroNoEncontrado = catalogo.buscarPorIsbn("ISBN-NO-EXISTENTE");
         assertNull(libroNoEncontrado);
         
         // Buscar con ISBN null o vacío
-        assertNull(catalogo.buscarLibroPorISBN(null));
-        assertNull(catalogo.buscarLibroPorISBN(""));
+        assertNull(catalogo.buscarPorIsbn(null));
+        assertNull(catalogo.buscarPorIsbn(""));
     }
     
     @Test
@@ -78,27 +83,27 @@ class CatalogoTest {
         catalogo.agregarLibro(libro3);
         
         // Buscar libros por autor existente
-        List<Libro> librosMartin = catalogo.buscarLibrosPorAutor("Robert C. Martin");
+        List<Libro> librosMartin = catalogo.buscarPorAutor("Robert C. Martin");
         assertEquals(1, librosMartin.size());
         assertTrue(librosMartin.contains(libro1));
         
         // Buscar con un autor que tiene múltiples libros
         // Agregamos otro libro del mismo autor
-        Libro libro4 = new Libro("978-0-132-35089-1", "Clean Architecture", "Robert C. Martin", "Programación");
+        Libro libro4 = new Libro("978-0-132-35089-1", "Clean Architecture", "Robert C. Martin");
         catalogo.agregarLibro(libro4);
         
-        List<Libro> librosMartin2 = catalogo.buscarLibrosPorAutor("Robert C. Martin");
+        List<Libro> librosMartin2 = catalogo.buscarPorAutor("Robert C. Martin");
         assertEquals(2, librosMartin2.size());
         assertTrue(librosMartin2.contains(libro1));
         assertTrue(librosMartin2.contains(libro4));
         
         // Buscar con un autor que no tiene libros
-        List<Libro> librosNoExistente = catalogo.buscarLibrosPorAutor("Autor No Existente");
+        List<Libro> librosNoExistente = catalogo.buscarPorAutor("Autor No Existente");
         assertTrue(librosNoExistente.isEmpty());
         
         // Buscar con autor null o vacío
-        assertTrue(catalogo.buscarLibrosPorAutor(null).isEmpty());
-        assertTrue(catalogo.buscarLibrosPorAutor("").isEmpty());
+        assertTrue(catalogo.buscarPorAutor(null).isEmpty());
+        assertTrue(catalogo.buscarPorAutor("").isEmpty());
     }
     
     @Test
@@ -109,22 +114,22 @@ class CatalogoTest {
         catalogo.agregarLibro(libro3);
         
         // Buscar libros por título existente
-        List<Libro> librosClean = catalogo.buscarLibrosPorTitulo("Clean Code");
+        List<Libro> librosClean = catalogo.buscarPorTitulo("Clean Code");
         assertEquals(1, librosClean.size());
         assertTrue(librosClean.contains(libro1));
         
         // Buscar con un título parcial
-        List<Libro> librosJava = catalogo.buscarLibrosPorTitulo("Java");
+        List<Libro> librosJava = catalogo.buscarPorTitulo("Java");
         assertEquals(1, librosJava.size());
         assertTrue(librosJava.contains(libro3));
         
         // Buscar título que no existe
-        List<Libro> librosNoExistente = catalogo.buscarLibrosPorTitulo("Título No Existente");
+        List<Libro> librosNoExistente = catalogo.buscarPorTitulo("Título No Existente");
         assertTrue(librosNoExistente.isEmpty());
         
         // Buscar con título null o vacío
-        assertTrue(catalogo.buscarLibrosPorTitulo(null).isEmpty());
-        assertTrue(catalogo.buscarLibrosPorTitulo("").isEmpty());
+        assertTrue(catalogo.buscarPorTitulo(null).isEmpty());
+        assertTrue(catalogo.buscarPorTitulo("").isEmpty());
     }
     
     @Test
@@ -132,19 +137,19 @@ class CatalogoTest {
         // Agregar libros al catálogo
         catalogo.agregarLibro(libro1);
         catalogo.agregarLibro(libro2);
-        assertEquals(2, catalogo.obtenerCantidadLibros());
+        assertEquals(2, catalogo.contarLibros());
         
         // Eliminar un libro existente
-        boolean eliminado = catalogo.eliminarLibro(libro1);
+        boolean eliminado = catalogo.eliminarLibro(libro1.getIsbn());
         assertTrue(eliminado);
-        assertEquals(1, catalogo.obtenerCantidadLibros());
-        assertFalse(catalogo.obtenerLibros().contains(libro1));
-        assertTrue(catalogo.obtenerLibros().contains(libro2));
+        assertEquals(1, catalogo.contarLibros());
+        assertFalse(catalogo.obtenerTodosLosLibros().contains(libro1));
+        assertTrue(catalogo.obtenerTodosLosLibros().contains(libro2));
         
         // Intentar eliminar un libro que no está en el catálogo
-        boolean noEliminado = catalogo.eliminarLibro(libro3);
+        boolean noEliminado = catalogo.eliminarLibro(libro3.getIsbn());
         assertFalse(noEliminado);
-        assertEquals(1, catalogo.obtenerCantidadLibros());
+        assertEquals(1, catalogo.contarLibros());
         
         // Intentar eliminar null
         assertFalse(catalogo.eliminarLibro(null));
@@ -155,23 +160,23 @@ class CatalogoTest {
         // Agregar libros al catálogo
         catalogo.agregarLibro(libro1);
         catalogo.agregarLibro(libro2);
-        assertEquals(2, catalogo.obtenerCantidadLibros());
+        assertEquals(2, catalogo.contarLibros());
         
         // Eliminar un libro existente por ISBN
-        boolean eliminado = catalogo.eliminarLibroPorISBN(libro1.getIsbn());
+        boolean eliminado = catalogo.eliminarLibro(libro1.getIsbn());
         assertTrue(eliminado);
-        assertEquals(1, catalogo.obtenerCantidadLibros());
-        assertNull(catalogo.buscarLibroPorISBN(libro1.getIsbn()));
-        assertNotNull(catalogo.buscarLibroPorISBN(libro2.getIsbn()));
+        assertEquals(1, catalogo.contarLibros());
+        assertNull(catalogo.buscarPorIsbn(libro1.getIsbn()));
+        assertNotNull(catalogo.buscarPorIsbn(libro2.getIsbn()));
         
         // Intentar eliminar un libro con ISBN que no existe
-        boolean noEliminado = catalogo.eliminarLibroPorISBN("ISBN-NO-EXISTENTE");
+        boolean noEliminado = catalogo.eliminarLibro("ISBN-NO-EXISTENTE");
         assertFalse(noEliminado);
-        assertEquals(1, catalogo.obtenerCantidadLibros());
+        assertEquals(1, catalogo.contarLibros());
         
         // Intentar eliminar con ISBN null o vacío
-        assertFalse(catalogo.eliminarLibroPorISBN(null));
-        assertFalse(catalogo.eliminarLibroPorISBN(""));
+        assertFalse(catalogo.eliminarLibro(null));
+        assertFalse(catalogo.eliminarLibro(""));
     }
     
     @Test
@@ -189,7 +194,7 @@ class CatalogoTest {
         assertTrue(disponibles.contains(libro3));
         
         // Cambiar el estado de un libro a PRESTADO
-        libro1.prestar();
+        libro1.setEstado(Estado.PRESTADO);
         
         // Ahora solo dos libros deberían estar disponibles
         disponibles = catalogo.obtenerLibrosDisponibles();
@@ -211,8 +216,8 @@ class CatalogoTest {
         assertTrue(prestados.isEmpty());
         
         // Cambiar el estado de dos libros a PRESTADO
-        libro1.prestar();
-        libro3.prestar();
+        libro1.setEstado(Estado.PRESTADO);
+        libro3.setEstado(Estado.PRESTADO);
         
         // Ahora debería haber dos libros prestados
         prestados = catalogo.obtenerLibrosPrestados();
@@ -230,14 +235,14 @@ class CatalogoTest {
         catalogo.agregarLibro(libro3);
         
         // Inicialmente todos los libros deberían estar disponibles
-        assertEquals(3, catalogo.obtenerCantidadLibrosDisponibles());
+        assertEquals(3, catalogo.contarLibrosDisponibles());
         
         // Cambiar el estado de dos libros a PRESTADO
-        libro1.prestar();
-        libro3.prestar();
+        libro1.setEstado(Estado.PRESTADO);
+        libro3.setEstado(Estado.PRESTADO);
         
         // Ahora solo un libro debería estar disponible
-        assertEquals(1, catalogo.obtenerCantidadLibrosDisponibles());
+        assertEquals(1, catalogo.contarLibrosDisponibles());
     }
     
     @Test
@@ -248,19 +253,861 @@ class CatalogoTest {
         catalogo.agregarLibro(libro3);
         
         // Inicialmente no debería haber libros prestados
-        assertEquals(0, catalogo.obtenerCantidadLibrosPrestados());
+        assertEquals(0, catalogo.contarLibrosPrestados());
         
         // Cambiar el estado de dos libros a PRESTADO
-        libro1.prestar();
-        libro3.prestar();
+        libro1.setEstado(Estado.PRESTADO);
+        libro3.setEstado(Estado.PRESTADO);
         
         // Ahora debería haber dos libros prestados
-        assertEquals(2, catalogo.obtenerCantidadLibrosPrestados());
+        assertEquals(2, catalogo.contarLibrosPrestados());
         
         // Devolver un libro
-        libro1.devolver();
+        libro1.setEstado(Estado.DISPONIBLE);
         
         // Ahora debería haber un libro prestado
-        assertEquals(1, catalogo.obtenerCantidadLibrosPrestados());
+        assertEquals(1, catalogo.contarLibrosPrestados());
+    }
+    
+    @Test
+    void testCambiarIsbnDeLibroEnCatalogo() {
+        Libro libro = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin");
+        Libro otro = new Libro("978-1-449-33737-8", "Effective Java", "Joshua Bloch");
+        catalogo.agregarLibro(libro);
+        catalogo.agregarLibro(otro);
+        
+        // El catálogo debe seguir encontrando el libro por su nuevo ISBN
+        libro.setIsbn("978-0-132-35088-4");
+        assertNull(catalogo.buscarPorIsbn("978-0-306-40615-7"));
+        assertSame(libro, catalogo.buscarPorIsbn("978-0-132-35088-4"));
+        assertEquals(List.of(libro, otro), catalogo.obtenerTodosLosLibros());
+        
+        // No se permite asignar un ISBN que ya pertenece a otro libro del catálogo
+        assertThrows(IllegalArgumentException.class, () -> libro.setIsbn("978-1-449-33737-8"));
+        assertEquals("978-0-132-35088-4", libro.getIsbn());
+        
+        // Una vez eliminado, el libro ya no está vinculado al catálogo
+        assertTrue(catalogo.eliminarLibro("978-0-132-35088-4"));
+        libro.setIsbn("978-1-449-33737-8");
+        assertSame(otro, catalogo.buscarPorIsbn("978-1-449-33737-8"));
+    }
+    
+    @Test
+    void testBuscarPorPalabras() {
+        Libro libro1 = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        Libro libro2 = new Libro("978-84-204-3547-3", "El amor en los tiempos del cólera", "Gabriel García Márquez");
+        Libro libro3 = new Libro("978-84-339-7157-9", "1984", "George Orwell");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        catalogo.agregarLibro(libro3);
+        
+        // Se buscan palabras completas sin importar mayúsculas ni el orden
+        assertEquals(List.of(libro1, libro2), catalogo.buscarPorPalabrasDelAutor("márquez GABRIEL"));
+        assertEquals(List.of(libro2), catalogo.buscarPorPalabrasDelTitulo("tiempos, amor"));
+        assertTrue(catalogo.buscarPorPalabrasDelTitulo("soled").isEmpty());
+        assertTrue(catalogo.buscarPorPalabrasDelTitulo("soledad orwell").isEmpty());
+        assertTrue(catalogo.buscarPorPalabrasDelTitulo("  ").isEmpty());
+        
+        // El índice se mantiene al modificar o eliminar libros
+        libro3.setTitulo("Rebelión en la granja");
+        assertTrue(catalogo.buscarPorPalabrasDelTitulo("1984").isEmpty());
+        assertEquals(List.of(libro3), catalogo.buscarPorPalabrasDelTitulo("granja"));
+        
+        catalogo.eliminarLibro(libro1.getIsbn());
+        assertEquals(List.of(libro2), catalogo.buscarPorPalabrasDelAutor("García"));
+    }
+    
+    @Test
+    void testBusquedaPorTrigramasConservaResultados() {
+        Catalogo sinIndice = new CatalogoIndexado();
+        catalogo.setBusquedaPorTrigramas(true);
+        assertTrue(catalogo.isBusquedaPorTrigramas());
+        
+        String[] titulos = {"Don Quijote de la Mancha", "La Celestina", "El Lazarillo de Tormes", "Quijotes modernos"};
+        String[] autores = {"Miguel de Cervantes", "Fernando de Rojas", "Anónimo", "Varios"};
+        for (int i = 0; i < titulos.length; i++) {
+            catalogo.agregarLibro(new Libro("isbn-" + i, titulos[i], autores[i]));
+            sinIndice.agregarLibro(new Libro("isbn-" + i, titulos[i], autores[i]));
+        }
+        catalogo.buscarPorIsbn("isbn-0").setTitulo("El ingenioso hidalgo Don Quijote");
+        sinIndice.buscarPorIsbn("isbn-0").setTitulo("El ingenioso hidalgo Don Quijote");
+        
+        // Los resultados deben ser idénticos a los del recorrido completo, incluidas consultas cortas
+        for (String consulta : new String[] {"quij", "QUIJOTE", "de", "e", "la mancha", "hidalgo", "tormes", "xyz"}) {
+            assertEquals(isbns(sinIndice.buscarPorTitulo(consulta)), isbns(catalogo.buscarPorTitulo(consulta)));
+            assertEquals(isbns(sinIndice.buscarPorAutor(consulta)), isbns(catalogo.buscarPorAutor(consulta)));
+        }
+        assertEquals(List.of("isbn-0", "isbn-3"), isbns(catalogo.buscarPorTitulo("quij")));
+        
+        catalogo.eliminarLibro("isbn-3");
+        assertEquals(List.of("isbn-0"), isbns(catalogo.buscarPorTitulo("quij")));
+    }
+    
+    private List<String> isbns(List<Libro> libros) {
+        List<String> isbns = new ArrayList<>();
+        for (Libro libro : libros) {
+            isbns.add(libro.getIsbn());
+        }
+        return isbns;
+    }
+    
+    @Test
+    void testContadoresPorEstado() {
+        Libro libro1 = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin");
+        Libro libro2 = new Libro("978-1-449-33737-8", "Effective Java", "Joshua Bloch");
+        libro2.cambiarEstado(Estado.PRESTADO);
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        assertEquals(1, catalogo.contarLibrosDisponibles());
+        assertEquals(1, catalogo.contarLibrosPrestados());
+        
+        // Un préstamo actualiza los contadores a través del cambio de estado del libro
+        Prestamo prestamo = new Prestamo(libro1);
+        assertEquals(0, catalogo.contarLibrosDisponibles());
+        assertEquals(2, catalogo.contarLibrosPorEstado(Estado.PRESTADO));
+        
+        prestamo.finalizar();
+        libro2.setEstado(Estado.DISPONIBLE);
+        assertEquals(2, catalogo.contarLibrosDisponibles());
+        assertEquals(0, catalogo.contarLibrosPrestados());
+        
+        // Los libros eliminados dejan de contarse y de actualizar el catálogo
+        catalogo.eliminarLibro(libro2.getIsbn());
+        libro2.cambiarEstado(Estado.PRESTADO);
+        assertEquals(1, catalogo.contarLibrosDisponibles());
+        assertEquals(0, catalogo.contarLibrosPrestados());
+    }
+    
+    @Test
+    void testParticionPorEstado() {
+        Libro libro1 = new Libro("978-0-306-40615-7", "Clean Code", "Robert C. Martin");
+        Libro libro2 = new Libro("978-0-132-35088-4", "Design Patterns", "Erich Gamma");
+        Libro libro3 = new Libro("978-1-449-33737-8", "Effective Java", "Joshua Bloch");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        catalogo.agregarLibro(libro3);
+        
+        libro1.cambiarEstado(Estado.PRESTADO);
+        libro3.cambiarEstado(Estado.PRESTADO);
+        assertEquals(List.of(libro2), catalogo.obtenerLibrosDisponibles());
+        assertEquals(List.of(libro1, libro3), catalogo.obtenerLibrosPrestados());
+        
+        // Al devolverse, el libro pasa al final de los disponibles
+        libro1.cambiarEstado(Estado.DISPONIBLE);
+        assertEquals(List.of(libro2, libro1), catalogo.obtenerLibrosPorEstado(Estado.DISPONIBLE));
+        assertEquals(List.of(libro3), catalogo.obtenerLibrosPorEstado(Estado.PRESTADO));
+        assertTrue(catalogo.obtenerLibrosPorEstado(null).isEmpty());
+        
+        catalogo.eliminarLibro(libro3.getIsbn());
+        assertTrue(catalogo.obtenerLibrosPrestados().isEmpty());
+    }
+    
+    @Test
+    void testLibrosDisponiblesYPrestadosEnOrdenDeCambioDeEstado() {
+        Libro libro1 = new Libro("isbn-1", "Ficciones", "Jorge Luis Borges");
+        Libro libro2 = new Libro("isbn-2", "Rayuela", "Julio Cortázar");
+        Libro libro3 = new Libro("isbn-3", "Pedro Páramo", "Juan Rulfo");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        catalogo.agregarLibro(libro3);
+        
+        // Los prestados se listan en el orden en que se prestaron, no en el de inserción
+        libro3.setEstado(Estado.PRESTADO);
+        libro1.setEstado(Estado.PRESTADO);
+        assertEquals(List.of(libro3, libro1), catalogo.obtenerLibrosPrestados());
+        assertEquals(List.of(libro3, libro1), catalogo.streamPorEstado(Estado.PRESTADO).collect(Collectors.toList()));
+        
+        // Los devueltos pasan al final de los disponibles
+        libro1.setEstado(Estado.DISPONIBLE);
+        libro3.setEstado(Estado.DISPONIBLE);
+        assertEquals(List.of(libro2, libro1, libro3), catalogo.obtenerLibrosDisponibles());
+        
+        // Asignar el mismo estado no cambia la posición
+        libro2.setEstado(Estado.DISPONIBLE);
+        assertEquals(List.of(libro2, libro1, libro3), catalogo.obtenerLibrosDisponibles());
+    }
+    
+    @Test
+    void testConsultasPaginadasYFlujos() {
+        for (int i = 0; i < 10; i++) {
+            catalogo.agregarLibro(new Libro("isbn-" + i, (i % 2 == 0 ? "Clásico " : "Moderno ") + i, "Autor " + i));
+        }
+        
+        assertEquals(List.of("isbn-3", "isbn-4"), isbns(catalogo.obtenerPagina(3, 2)));
+        assertEquals(List.of("isbn-9"), isbns(catalogo.obtenerPagina(9, 5)));
+        assertTrue(catalogo.obtenerPagina(10, 5).isEmpty());
+        assertTrue(catalogo.obtenerPagina(-1, 5).isEmpty());
+        
+        // Las páginas de una búsqueda se calculan sobre las coincidencias
+        assertEquals(List.of("isbn-4", "isbn-6"), isbns(catalogo.buscarPorTitulo("clásico", 2, 2)));
+        assertEquals(List.of("isbn-1"), isbns(catalogo.buscarPorAutor("autor 1", 0, 10)));
+        assertTrue(catalogo.buscarPorTitulo(null, 0, 10).isEmpty());
+        
+        assertEquals(10, catalogo.streamLibros().count());
+        assertEquals(5, catalogo.streamPorTitulo("MODERNO").count());
+        assertEquals(10, catalogo.streamPorEstado(Estado.DISPONIBLE).count());
+        assertEquals(0, catalogo.streamPorEstado(Estado.PRESTADO).count());
+    }
+    
+    @Test
+    void testAgregarLibrosMasivo() {
+        Libro existente = new Libro("isbn-0", "Existente", "Autor");
+        catalogo.agregarLibro(existente);
+        
+        List<Libro> registros = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            registros.add(new Libro("isbn-" + (i % 500), "Título " + i, "Autor " + i));
+        }
+        registros.add(null);
+        registros.add(new Libro(" ", "Sin ISBN", "Autor"));
+        registros.add(new Libro("isbn-sin-titulo", null, "Autor"));
+        
+        ResultadoImportacion resultado = catalogo.agregarLibros(registros);
+        
+        // Se agregan las primeras apariciones de cada ISBN que no estaba en el catálogo
+        assertEquals(1003, resultado.getTotal());
+        assertEquals(499, resultado.getAgregados());
+        assertEquals(501, resultado.getDuplicados());
+        assertEquals(3, resultado.getInvalidos());
+        assertEquals(ResultadoImportacion.Resultado.DUPLICADO, resultado.getResultado(0));
+        assertEquals(ResultadoImportacion.Resultado.AGREGADO, resultado.getResultado(1));
+        assertEquals(ResultadoImportacion.Resultado.DUPLICADO, resultado.getResultado(501));
+        assertEquals(ResultadoImportacion.Resultado.INVALIDO, resultado.getResultado(1000));
+        
+        assertEquals(500, catalogo.contarLibros());
+        assertSame(existente, catalogo.buscarPorIsbn("isbn-0"));
+        assertEquals("Título 1", catalogo.buscarPorIsbn("isbn-1").getTitulo());
+        assertEquals(List.of("isbn-0", "isbn-1", "isbn-2"), isbns(catalogo.obtenerPagina(0, 3)));
+    }
+    
+    @Test
+    void testAgregarLibrosDesdeListaEnlazada() {
+        List<Libro> registros = new LinkedList<>();
+        for (int i = 0; i < 20_000; i++) {
+            registros.add(new Libro("isbn-" + i, "Título " + i, "Autor"));
+        }
+        registros.add(new Libro("isbn-0", "Repetido", "Autor"));
+        
+        ResultadoImportacion resultado = catalogo.agregarLibros(registros);
+        
+        assertEquals(20_000, resultado.getAgregados());
+        assertEquals(ResultadoImportacion.Resultado.DUPLICADO, resultado.getResultado(20_000));
+        assertEquals(List.of("isbn-0", "isbn-1"), isbns(catalogo.obtenerPagina(0, 2)));
+    }
+    
+    @Test
+    void testIsbnConDistintoFormato() {
+        Libro libro = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        catalogo.agregarLibro(libro);
+        
+        // El mismo ISBN escrito sin guiones se reconoce como duplicado y se encuentra en las búsquedas
+        assertFalse(catalogo.agregarLibro(new Libro("9788437604947", "Duplicado", "Otro")));
+        assertSame(libro, catalogo.buscarPorIsbn("9788437604947"));
+        
+        // Reescribir el ISBN del libro con otro formato no es un conflicto
+        libro.setIsbn("9788437604947");
+        assertSame(libro, catalogo.buscarPorIsbn("978-84-376-0494-7"));
+        assertTrue(catalogo.eliminarLibro("978-84-376-0494-7"));
+        assertEquals(0, catalogo.contarLibros());
+    }
+    
+    @Test
+    void testDiccionarioDeAutores() {
+        Libro libro1 = new Libro("978-3-16-148410-0", "Cien años de soledad", new String("Gabriel García Márquez"));
+        Libro libro2 = new Libro("978-84-376-0494-7", "El amor en los tiempos del cólera", new String("Gabriel García Márquez"));
+        Libro libro3 = new Libro("978-0-06-112008-4", "Rayuela", "Julio Cortázar");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+
+        catalogo.setDiccionarioDeAutores(true);
+        assertTrue(catalogo.isDiccionarioDeAutores());
+        assertSame(libro1.getAutor(), libro2.getAutor());
+
+        catalogo.agregarLibro(libro3);
+        assertEquals(2, catalogo.buscarPorAutor("garcía").size());
+        assertEquals(1, catalogo.buscarPorAutor("CORTÁZAR").size());
+        assertEquals(3, catalogo.streamPorAutor("r").count());
+
+        libro3.setAutor("Gabriel García Márquez");
+        assertSame(libro1.getAutor(), libro3.getAutor());
+        assertEquals(3, catalogo.buscarPorAutor("márquez").size());
+        assertTrue(catalogo.buscarPorAutor("cortázar").isEmpty());
+
+        catalogo.eliminarLibro("978-3-16-148410-0");
+        assertEquals(2, catalogo.buscarPorAutor("gabriel").size());
+
+        catalogo.setDiccionarioDeAutores(false);
+        assertEquals(2, catalogo.buscarPorAutor("gabriel").size());
+    }
+    
+    @Test
+    void testDiccionarioDeAutoresConservaElOrden() {
+        catalogo.agregarLibro(new Libro("isbn-1", "Ficciones", "Jorge Luis Borges"));
+        catalogo.agregarLibro(new Libro("isbn-2", "Rayuela", "Julio Cortázar"));
+        catalogo.agregarLibro(new Libro("isbn-3", "El Aleph", "Jorge Luis Borges"));
+        catalogo.agregarLibro(new Libro("isbn-4", "Bestiario", "Julio Cortázar"));
+        List<Libro> sinDiccionario = catalogo.buscarPorAutor("j");
+
+        catalogo.setDiccionarioDeAutores(true);
+        assertEquals(sinDiccionario, catalogo.buscarPorAutor("j"));
+        assertEquals(sinDiccionario, catalogo.streamPorAutor("j").collect(Collectors.toList()));
+
+        // Un autor que se queda sin libros y otro nuevo no alteran el orden de inserción
+        catalogo.eliminarLibro("isbn-1");
+        catalogo.eliminarLibro("isbn-3");
+        catalogo.agregarLibro(new Libro("isbn-5", "Pedro Páramo", "Juan Rulfo"));
+        catalogo.agregarLibro(new Libro("isbn-6", "Final del juego", "Julio Cortázar"));
+        assertEquals(List.of("isbn-2", "isbn-4", "isbn-5", "isbn-6"),
+                catalogo.buscarPorAutor("ju").stream().map(Libro::getIsbn).collect(Collectors.toList()));
+    }
+    
+    @Test
+    void testDiccionarioDeAutoresConCambiosDeAutor() {
+        catalogo.setDiccionarioDeAutores(true);
+        Libro libro1 = new Libro("isbn-1", "Ficciones", "Jorge Luis Borges");
+        Libro libro2 = new Libro("isbn-2", "Rayuela", "Julio Cortázar");
+        Libro libro3 = new Libro("isbn-3", "El Aleph", "Jorge Luis Borges");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        catalogo.agregarLibro(libro3);
+
+        // libro2 cambia el identificador de autor de su ranura, pero conserva su lugar en el resultado
+        libro2.setAutor("Jorge Luis Borges");
+        assertEquals(List.of(libro1, libro2, libro3), catalogo.buscarPorAutor("borges"));
+        assertTrue(catalogo.buscarPorAutor("cortázar").isEmpty());
+
+        // El identificador de Cortázar, que se quedó sin libros, se reutiliza para un autor nuevo
+        Libro libro4 = new Libro("isbn-4", "Pedro Páramo", "Juan Rulfo");
+        catalogo.agregarLibro(libro4);
+        assertEquals(List.of(libro4), catalogo.buscarPorAutor("rulfo"));
+        assertEquals(List.of(libro1, libro2, libro3, libro4), catalogo.streamPorAutor("u").collect(Collectors.toList()));
+    }
+    
+    @Test
+    void testDiccionarioDeAutoresConCompactacion() {
+        catalogo.setDiccionarioDeAutores(true);
+        for (int i = 0; i < 10000; i++) {
+            catalogo.agregarLibro(new Libro("isbn-" + i, "Título " + i, "Autor " + (i % 7)));
+        }
+        // Las bajas de casi todos los libros compactan el almacenamiento y mueven los identificadores con sus libros
+        for (int i = 0; i < 10000; i++) {
+            if (i % 10 != 0) {
+                catalogo.eliminarLibro("isbn-" + i);
+            }
+        }
+        List<String> esperados = new ArrayList<>();
+        for (int i = 0; i < 10000; i += 10) {
+            if (i % 7 == 3) {
+                esperados.add("isbn-" + i);
+            }
+        }
+        assertEquals(esperados, isbns(catalogo.buscarPorAutor("autor 3")));
+
+        catalogo.setDiccionarioDeAutores(false);
+        assertEquals(esperados, isbns(catalogo.buscarPorAutor("autor 3")));
+    }
+    
+    @Test
+    void testBusquedaSinTildes() {
+        Libro libro = new Libro("978-84-376-0494-7", "El Pingüino Ártico", "Gabriel García Márquez");
+        catalogo.agregarLibro(libro);
+
+        assertEquals(1, catalogo.buscarPorAutor("garcia marquez").size());
+        assertEquals(1, catalogo.buscarPorAutor("GARCÍA").size());
+        assertEquals(1, catalogo.buscarPorTitulo("pinguino artico").size());
+        assertEquals(1, catalogo.buscarPorPalabrasDelTitulo("artico").size());
+        assertEquals(1, catalogo.streamPorTitulo("ÁRTICO").count());
+
+        catalogo.setBusquedaPorTrigramas(true);
+        assertEquals(1, catalogo.buscarPorTitulo("pingüino").size());
+        libro.setTitulo("Crónica de una muerte anunciada");
+        assertTrue(catalogo.buscarPorTitulo("pinguino").isEmpty());
+        assertEquals(1, catalogo.buscarPorTitulo("cronica").size());
+
+        catalogo.setDiccionarioDeAutores(true);
+        assertEquals(1, catalogo.buscarPorAutor("marquez").size());
+    }
+    
+    @Test
+    void testLaEnieNoSeConfundeConLaN() {
+        catalogo.agregarLibro(new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez"));
+        catalogo.agregarLibro(new Libro("978-0-06-112008-4", "El ano de la historia", "Autor"));
+        catalogo.agregarLibro(new Libro("978-0-14-118776-1", "Los niños", "Ana Núñez"));
+
+        assertEquals(List.of("978-84-376-0494-7"), isbns(catalogo.buscarPorTitulo("AÑOS")));
+        assertEquals(List.of("978-0-06-112008-4"), isbns(catalogo.buscarPorTitulo("ano")));
+        assertEquals(List.of("978-0-14-118776-1"), isbns(catalogo.buscarPorAutor("nuñez")));
+        assertTrue(catalogo.buscarPorAutor("nunez").isEmpty());
+        // La ñ escrita como n seguida de la tilde combinable es la misma letra
+        assertEquals(List.of("978-0-14-118776-1"), isbns(catalogo.buscarPorTitulo("nin\u0303os")));
+
+        catalogo.setBusquedaPorTrigramas(true);
+        assertEquals(List.of("978-84-376-0494-7"), isbns(catalogo.buscarPorTitulo("año")));
+    }
+    
+    @Test
+    void testAutocompletar() {
+        catalogo.agregarLibro(new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez"));
+        catalogo.agregarLibro(new Libro("978-0-06-112008-4", "Crónica de una muerte anunciada", "Gabriel García Márquez"));
+        catalogo.agregarLibro(new Libro("978-0-14-118776-1", "Ciudades de papel", "John Green"));
+
+        assertEquals(List.of("Cien años de soledad", "Ciudades de papel"), catalogo.autocompletarTitulo("ci", 5));
+        assertEquals(List.of("Cien años de soledad"), catalogo.autocompletarTitulo("ci", 1));
+        assertEquals(List.of("Crónica de una muerte anunciada"), catalogo.autocompletarTitulo("cron", 5));
+        assertEquals(List.of("Cien años de soledad"), catalogo.autocompletarTitulo("SOLE", 5));
+        assertEquals(List.of("Gabriel García Márquez"), catalogo.autocompletarAutor("marq", 5));
+        assertTrue(catalogo.autocompletarAutor("", 5).isEmpty());
+
+        catalogo.eliminarLibro("978-84-376-0494-7");
+        assertEquals(List.of("Gabriel García Márquez"), catalogo.autocompletarAutor("gab", 5));
+        assertEquals(List.of("Ciudades de papel"), catalogo.autocompletarTitulo("ci", 5));
+
+        catalogo.buscarPorIsbn("978-0-14-118776-1").setTitulo("Bajo la misma estrella");
+        assertTrue(catalogo.autocompletarTitulo("ciu", 5).isEmpty());
+        assertEquals(List.of("Bajo la misma estrella"), catalogo.autocompletarTitulo("estr", 5));
+    }
+    
+    @Test
+    void testAutocompletarOrdenaPorRelevancia() {
+        catalogo.agregarLibro(new Libro("isbn-1", "Historia de la lectura", "Alberto Manguel"));
+        catalogo.agregarLibro(new Libro("isbn-2", "Breve historia del tiempo", "Stephen Hawking"));
+        catalogo.agregarLibro(new Libro("isbn-3", "Una historia de dos ciudades", "Charles Dickens"));
+        catalogo.agregarLibro(new Libro("isbn-4", "Historia de la lectura", "Alberto Manguel"));
+        catalogo.agregarLibro(new Libro("isbn-5", "Historias de cronopios y de famas", "Julio Cortázar"));
+
+        // Primero los que comienzan con el prefijo, el más usado antes; después los que lo tienen en otra palabra
+        assertEquals(List.of("Historia de la lectura", "Historias de cronopios y de famas",
+                        "Breve historia del tiempo", "Una historia de dos ciudades"),
+                catalogo.autocompletarTitulo("hist", 10));
+        assertEquals(List.of("Historia de la lectura", "Historias de cronopios y de famas"),
+                catalogo.autocompletarTitulo("hist", 2));
+        // Un título con varias palabras que coinciden se sugiere una sola vez
+        assertEquals(List.of("Historia de la lectura", "Breve historia del tiempo",
+                        "Historias de cronopios y de famas", "Una historia de dos ciudades"),
+                catalogo.autocompletarTitulo("de", 10));
+    }
+    
+    @Test
+    void testAutocompletarConMuchasCoincidencias() {
+        // Más títulos que contienen el prefijo en otra palabra que los que se examinan por consulta
+        for (int i = 0; i < IndiceAutocompletado.LIMITE_CANDIDATOS + 100; i++) {
+            catalogo.agregarLibro(new Libro("isbn-" + i, "Una historia número " + i, "Autor"));
+        }
+        catalogo.agregarLibro(new Libro("isbn-a", "Historias de cronopios y de famas", "Julio Cortázar"));
+        catalogo.agregarLibro(new Libro("isbn-b", "Historia de la lectura", "Alberto Manguel"));
+        catalogo.agregarLibro(new Libro("isbn-c", "Historia de la lectura", "Alberto Manguel"));
+
+        // Los que comienzan con el prefijo siguen primero, y el más usado antes
+        assertEquals(List.of("Historia de la lectura", "Historias de cronopios y de famas"),
+                catalogo.autocompletarTitulo("hist", 2));
+        assertEquals(5, catalogo.autocompletarTitulo("hist", 5).size());
+        assertEquals(List.of("Una historia número 7"), catalogo.autocompletarTitulo("una historia número 7", 1));
+    }
+    
+    @Test
+    void testBusquedaAproximada() {
+        Libro libro1 = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        Libro libro2 = new Libro("978-0-06-112008-4", "El amor en los tiempos del cólera", "Gabriel García Márquez");
+        Libro libro3 = new Libro("978-0-14-118776-1", "Rayuela", "Julio Cortázar");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        catalogo.agregarLibro(libro3);
+
+        assertTrue(catalogo.buscarPorTitulo("soledd").isEmpty());
+        assertEquals(List.of(libro1), catalogo.buscarPorTituloAproximado("soledd", 1));
+        assertEquals(List.of(libro1), catalogo.buscarPorTituloAproximado("cien años soledad", 0));
+        // La ñ es otra letra: escribirla como n cuenta como un error
+        assertTrue(catalogo.buscarPorTituloAproximado("cien anos soledad", 0).isEmpty());
+        assertEquals(List.of(libro1), catalogo.buscarPorTituloAproximado("cien anos soledad", 1));
+        assertTrue(catalogo.buscarPorTituloAproximado("ciem soled", 1).isEmpty());
+        assertEquals(List.of(libro1), catalogo.buscarPorTituloAproximado("ciem soled", 2));
+        assertEquals(List.of(libro3), catalogo.buscarPorTituloAproximado("rayuel", 1));
+        assertEquals(2, catalogo.buscarPorAutorAproximado("garsia markez", 2).size());
+        assertEquals(List.of(libro3), catalogo.buscarPorAutorAproximado("cortazr", 1));
+        assertTrue(catalogo.buscarPorTituloAproximado("soledd", -1).isEmpty());
+
+        catalogo.eliminarLibro("978-84-376-0494-7");
+        assertTrue(catalogo.buscarPorTituloAproximado("soledd", 1).isEmpty());
+        libro3.setTitulo("Historias de cronopios");
+        assertEquals(List.of(libro3), catalogo.buscarPorTituloAproximado("cronopio", 1));
+    }
+    
+    @Test
+    void testBusquedaPorRelevancia() {
+        Libro corto = new Libro("978-84-376-0494-7", "Historia de Roma", "Mary Beard");
+        Libro largo = new Libro("978-0-06-112008-4", "Breve historia de la antigua Grecia y de sus colonias", "Autor Uno");
+        Libro otro = new Libro("978-0-14-118776-1", "Roma soy yo", "Santiago Posteguillo");
+        Libro ajeno = new Libro("978-0-13-235088-4", "Clean Code", "Robert C. Martin");
+        catalogo.agregarLibro(largo);
+        catalogo.agregarLibro(corto);
+        catalogo.agregarLibro(otro);
+        catalogo.agregarLibro(ajeno);
+
+        assertEquals(List.of(corto, largo), catalogo.buscarMasRelevantesPorTitulo("historia", 5));
+        assertEquals(List.of(corto), catalogo.buscarMasRelevantesPorTitulo("historia", 1));
+        assertEquals(corto, catalogo.buscarMasRelevantesPorTitulo("historia roma", 5).get(0));
+        assertEquals(3, catalogo.buscarMasRelevantesPorTitulo("historia roma", 5).size());
+        assertEquals(List.of(ajeno), catalogo.buscarMasRelevantesPorAutor("martin", 5));
+        assertTrue(catalogo.buscarMasRelevantesPorTitulo("historia", 0).isEmpty());
+        assertTrue(catalogo.buscarMasRelevantesPorTitulo("inexistente", 5).isEmpty());
+
+        catalogo.eliminarLibro("978-84-376-0494-7");
+        assertEquals(List.of(largo), catalogo.buscarMasRelevantesPorTitulo("historia", 5));
+    }
+    
+    @Test
+    void testCacheDeBusquedas() {
+        catalogo.setCacheDeBusquedas(10);
+        assertEquals(10, catalogo.getCapacidadCacheDeBusquedas());
+        Libro libro1 = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        Libro libro2 = new Libro("978-0-14-118776-1", "Rayuela", "Julio Cortázar");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+
+        assertEquals(List.of(libro1), catalogo.buscarPorTitulo("soledad"));
+        catalogo.buscarPorTitulo("soledad").clear();
+        assertEquals(List.of(libro1), catalogo.buscarPorTitulo("soledad"));
+        assertEquals(List.of(libro2), catalogo.buscarPorAutor("julio"));
+
+        Libro libro3 = new Libro("978-0-06-112008-4", "Soledad y compañía", "Julio Ramón Ribeyro");
+        catalogo.agregarLibro(libro3);
+        assertEquals(List.of(libro1, libro3), catalogo.buscarPorTitulo("soledad"));
+        assertEquals(List.of(libro2, libro3), catalogo.buscarPorAutor("julio"));
+
+        libro2.setAutor("Otro Autor");
+        assertEquals(List.of(libro3), catalogo.buscarPorAutor("julio"));
+        libro1.setTitulo("El otoño del patriarca");
+        assertEquals(List.of(libro3), catalogo.buscarPorTitulo("soledad"));
+
+        libro3.setEstado(Estado.PRESTADO);
+        assertEquals(Estado.PRESTADO, catalogo.buscarPorTitulo("soledad").get(0).getEstado());
+
+        catalogo.eliminarLibro("978-0-06-112008-4");
+        assertTrue(catalogo.buscarPorTitulo("soledad").isEmpty());
+        assertTrue(catalogo.buscarPorAutor("julio").isEmpty());
+
+        catalogo.setCacheDeBusquedas(0);
+        assertEquals(0, catalogo.getCapacidadCacheDeBusquedas());
+    }
+
+    @Test
+    void testCacheDeBusquedasConImportacion() {
+        catalogo.setCacheDeBusquedas(10);
+        Libro libro1 = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        catalogo.agregarLibro(libro1);
+        assertEquals(List.of(libro1), catalogo.buscarPorTitulo("soledad"));
+
+        Libro libro2 = new Libro("978-0-06-112008-4", "Soledad y compañía", "Julio Ramón Ribeyro");
+        Libro libro3 = new Libro("978-0-14-118776-1", "Rayuela", "Julio Cortázar");
+        assertEquals(2, catalogo.agregarLibros(List.of(libro2, libro3)).getAgregados());
+        assertEquals(List.of(libro1, libro2), catalogo.buscarPorTitulo("soledad"));
+        assertEquals(List.of(libro2, libro3), catalogo.buscarPorAutor("julio"));
+    }
+    
+    @Test
+    void testConsultaCompuesta() {
+        Libro libro1 = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        Libro libro2 = new Libro("978-0-06-112008-4", "El otoño del patriarca", "Gabriel García Márquez");
+        Libro libro3 = new Libro("978-0-14-118776-1", "Rayuela", "Julio Cortázar");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        catalogo.agregarLibro(libro3);
+        libro1.setEstado(Estado.PRESTADO);
+
+        Consulta consulta = new Consulta();
+        consulta.setAutor("garcia");
+        consulta.setEstado(Estado.DISPONIBLE);
+        assertEquals(List.of(libro2), catalogo.buscar(consulta));
+
+        consulta.setEstado(null);
+        assertEquals(List.of(libro1, libro2), catalogo.buscar(consulta));
+
+        consulta.setTitulo("SOLEDAD");
+        assertEquals(List.of(libro1), catalogo.buscar(consulta));
+
+        consulta.setIsbn("843760494X");
+        assertEquals(List.of(libro1), catalogo.buscar(consulta));
+        consulta.setEstado(Estado.DISPONIBLE);
+        assertTrue(catalogo.buscar(consulta).isEmpty());
+
+        catalogo.setBusquedaPorTrigramas(true);
+        Consulta porTitulo = new Consulta();
+        porTitulo.setTitulo("ayuel");
+        porTitulo.setEstado(Estado.DISPONIBLE);
+        assertEquals(List.of(libro3), catalogo.buscar(porTitulo));
+
+        assertEquals(3, catalogo.buscar(new Consulta()).size());
+        assertTrue(catalogo.buscar(null).isEmpty());
+    }
+    
+    @Test
+    void testBusquedaPorPrefijoYRangoDeIsbn() {
+        Libro libro1 = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        Libro libro2 = new Libro("8437604575", "Pedro Páramo", "Juan Rulfo");
+        Libro libro3 = new Libro("978-0-306-40615-7", "Otro", "Otro");
+        Libro libro4 = new Libro("sin-isbn", "Folleto", "Anónimo");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        catalogo.agregarLibro(libro3);
+        catalogo.agregarLibro(libro4);
+
+        assertEquals(List.of(libro2, libro1), catalogo.buscarPorPrefijoIsbn("978-84-376"));
+        assertEquals(List.of(libro3, libro2, libro1), catalogo.buscarPorPrefijoIsbn("978"));
+        assertEquals(List.of(libro1), catalogo.buscarPorPrefijoIsbn("978-84-376-0494-7"));
+        assertEquals(List.of(libro4), catalogo.buscarPorPrefijoIsbn("sin-"));
+        assertTrue(catalogo.buscarPorPrefijoIsbn("979").isEmpty());
+
+        assertEquals(List.of(libro2, libro1), catalogo.buscarPorRangoIsbn("978-84", "978-85"));
+        assertEquals(List.of(libro2), catalogo.buscarPorRangoIsbn("978-84", "978-84-376-0494-7"));
+        assertTrue(catalogo.buscarPorRangoIsbn("978-85", "978-84").isEmpty());
+
+        libro3.setIsbn("978-84-376-0000-0");
+        assertEquals(List.of(libro3, libro2, libro1), catalogo.buscarPorPrefijoIsbn("97884376"));
+        catalogo.eliminarLibro("843760494X");
+        assertEquals(List.of(libro3, libro2), catalogo.buscarPorPrefijoIsbn("978-84-376"));
+    }
+    
+    @Test
+    void testBusquedaPorIsbnTrasAltasYBajasMasivas() {
+        for (int i = 0; i < 3000; i++) {
+            catalogo.agregarLibro(new Libro("isbn-" + i, "Título " + i, "Autor"));
+        }
+        for (int i = 0; i < 3000; i += 2) {
+            catalogo.eliminarLibro("isbn-" + i);
+        }
+        catalogo.buscarPorIsbn("isbn-1").setIsbn("nuevo-1");
+
+        assertNull(catalogo.buscarPorIsbn("isbn-0"));
+        assertNull(catalogo.buscarPorIsbn("isbn-1"));
+        assertNotNull(catalogo.buscarPorIsbn("nuevo-1"));
+        for (int i = 3; i < 3000; i += 2) {
+            assertNotNull(catalogo.buscarPorIsbn("isbn-" + i));
+        }
+        assertNull(catalogo.buscarPorIsbn("978-84-376-0494-8"));
+    }
+    
+    @Test
+    void testBusquedaParalelaConservaElOrden() {
+        for (int i = 0; i < 5000; i++) {
+            catalogo.agregarLibro(new Libro("isbn-" + i, "Título " + (i % 7 == 0 ? "especial " : "") + i, "Autor " + (i % 3)));
+        }
+        List<Libro> porTitulo = catalogo.buscarPorTitulo("especial");
+        List<Libro> porAutor = catalogo.buscarPorAutor("autor 1");
+
+        catalogo.setUmbralBusquedaParalela(100);
+        assertEquals(100, catalogo.getUmbralBusquedaParalela());
+        assertEquals(porTitulo, catalogo.buscarPorTitulo("especial"));
+        assertEquals(porAutor, catalogo.buscarPorAutor("autor 1"));
+
+        catalogo.setUmbralBusquedaParalela(0);
+        assertEquals(0, catalogo.getUmbralBusquedaParalela());
+    }
+    
+    @Test
+    void testTitulosEmpaquetados() {
+        Libro libro1 = new Libro("978-84-376-0494-7", "Cien años de soledad", "Gabriel García Márquez");
+        Libro libro2 = new Libro("978-0-14-118776-1", "Rayuela", "Julio Cortázar");
+        catalogo.agregarLibro(libro1);
+        catalogo.setTitulosEmpaquetados(true);
+        assertTrue(catalogo.isTitulosEmpaquetados());
+        catalogo.agregarLibro(libro2);
+
+        assertEquals(List.of(libro1), catalogo.buscarPorTitulo("AÑOS"));
+        assertEquals(List.of(libro1, libro2), catalogo.buscarPorTitulo("a"));
+        libro2.setTitulo("Historias de cronopios y de famas");
+        assertEquals(List.of(libro1, libro2), catalogo.buscarPorTitulo("de "));
+        catalogo.eliminarLibro("978-84-376-0494-7");
+        assertEquals(List.of(libro2), catalogo.buscarPorTitulo("de "));
+
+        catalogo.setTitulosEmpaquetados(false);
+        assertEquals(List.of(libro2), catalogo.buscarPorTitulo("de "));
+    }
+    
+    @Test
+    void testBajasMasivasConservanElOrdenYLasBusquedasPorIsbn() {
+        for (int i = 0; i < 5000; i++) {
+            catalogo.agregarLibro(new Libro("isbn-" + i, "Título " + i, "Autor " + i));
+        }
+        for (int i = 0; i < 5000; i++) {
+            if (i % 4 != 0) {
+                assertTrue(catalogo.eliminarLibro("isbn-" + i));
+            }
+        }
+        
+        assertEquals(1250, catalogo.contarLibros());
+        assertEquals("isbn-4", catalogo.obtenerTodosLosLibros().get(1).getIsbn());
+        assertEquals("Título 4996", catalogo.buscarPorIsbn("isbn-4996").getTitulo());
+        assertNull(catalogo.buscarPorIsbn("isbn-4997"));
+        assertTrue(catalogo.agregarLibro(new Libro("isbn-4997", "Título nuevo", "Autor")));
+        assertEquals("isbn-4997", catalogo.obtenerTodosLosLibros().get(1250).getIsbn());
+    }
+    
+    @Test
+    void testOyentesRecibenLosCambiosDelCatalogo() {
+        List<String> eventos = new ArrayList<>();
+        OyenteCatalogo oyente = new OyenteCatalogo() {
+            @Override
+            public void libroAgregado(Libro libro) {
+                eventos.add("alta " + libro.getIsbn());
+            }
+            
+            @Override
+            public void libroEliminado(Libro libro) {
+                eventos.add("baja " + libro.getIsbn());
+            }
+            
+            @Override
+            public void isbnCambiado(Libro libro, String isbnAnterior) {
+                eventos.add("isbn " + isbnAnterior + " -> " + libro.getIsbn());
+            }
+            
+            @Override
+            public void tituloCambiado(Libro libro, String tituloAnterior) {
+                eventos.add("titulo " + tituloAnterior + " -> " + libro.getTitulo());
+            }
+            
+            @Override
+            public void estadoCambiado(Libro libro, Estado estadoAnterior) {
+                eventos.add("estado " + estadoAnterior + " -> " + libro.getEstado());
+            }
+        };
+        catalogo.agregarOyente(oyente);
+        
+        Libro libro = new Libro("isbn-1", "El Aleph", "Jorge Luis Borges");
+        catalogo.agregarLibro(libro);
+        catalogo.agregarLibro(new Libro("isbn-1", "Repetido", "Otro"));
+        libro.setTitulo("Ficciones");
+        libro.setAutor("J. L. Borges");
+        libro.setEstado(Estado.PRESTADO);
+        libro.setIsbn("isbn-2");
+        catalogo.eliminarLibro("isbn-2");
+        
+        // Los libros eliminados y los oyentes quitados ya no generan eventos
+        libro.setTitulo("El hacedor");
+        assertTrue(catalogo.quitarOyente(oyente));
+        assertFalse(catalogo.quitarOyente(oyente));
+        catalogo.agregarLibro(new Libro("isbn-3", "Otro", "Otro"));
+        
+        assertEquals(List.of(
+                "alta isbn-1",
+                "titulo El Aleph -> Ficciones",
+                "estado DISPONIBLE -> PRESTADO",
+                "isbn isbn-1 -> isbn-2",
+                "baja isbn-2"), eventos);
+    }
+    
+    @Test
+    void testVistasOrdenadasSeActualizanConCadaCambio() {
+        catalogo.agregarLibro(new Libro("isbn-1", "Ñandú blanco", "Zambrano, María"));
+        catalogo.agregarLibro(new Libro("isbn-2", "árbol de la ciencia", "Baroja, Pío"));
+        catalogo.agregarLibro(new Libro("isbn-3", "Nada", "Laforet, Carmen"));
+        Libro libro = new Libro("isbn-4", "Ocnos", "Cernuda, Luis");
+        catalogo.agregarLibro(libro);
+        
+        // Las tildes y mayúsculas no alteran el orden alfabético y la ñ va después de la n
+        assertEquals(List.of("isbn-2", "isbn-3", "isbn-1", "isbn-4"), isbns(catalogo.streamOrdenadoPorTitulo()));
+        assertEquals(List.of("isbn-2", "isbn-4", "isbn-3", "isbn-1"), isbns(catalogo.streamOrdenadoPorAutor()));
+        
+        // Las vistas ya construidas se actualizan con las altas, bajas y cambios
+        libro.setTitulo("Antología");
+        catalogo.agregarLibro(new Libro("isbn-5", "Marianela", "Pérez Galdós, Benito"));
+        catalogo.eliminarLibro("isbn-3");
+        libro.setIsbn("isbn-6");
+        assertEquals(List.of("isbn-6", "isbn-2", "isbn-5", "isbn-1"), isbns(catalogo.streamOrdenadoPorTitulo()));
+        assertEquals(List.of("isbn-2", "isbn-6", "isbn-5", "isbn-1"), isbns(catalogo.streamOrdenadoPorAutor()));
+        
+        assertEquals(List.of("isbn-5", "isbn-1"),
+                catalogo.obtenerPaginaPorTitulo(2, 5).stream().map(Libro::getIsbn).collect(Collectors.toList()));
+        assertTrue(catalogo.obtenerPaginaPorAutor(-1, 5).isEmpty());
+    }
+    
+    @Test
+    void testPaginasOrdenadasConsecutivasYConCambios() {
+        for (int i = 0; i < 100; i++) {
+            catalogo.agregarLibro(new Libro("isbn-" + i, "Título " + (i * 37 % 100), "Autor " + (i % 10)));
+        }
+        List<Libro> ordenados = catalogo.streamOrdenadoPorTitulo().collect(Collectors.toList());
+        
+        // Las páginas pedidas en orden continúan desde la anterior y cubren la vista completa
+        List<Libro> recorridos = new ArrayList<>();
+        for (int desde = 0; desde < 100; desde += 7) {
+            recorridos.addAll(catalogo.obtenerPaginaPorTitulo(desde, 7));
+        }
+        assertEquals(ordenados, recorridos);
+        
+        // Volver atrás, saltear páginas o cambiar la vista entre dos páginas vuelve a contar desde el comienzo
+        assertEquals(ordenados.subList(7, 14), catalogo.obtenerPaginaPorTitulo(7, 7));
+        assertEquals(ordenados.subList(50, 60), catalogo.obtenerPaginaPorTitulo(50, 10));
+        catalogo.eliminarLibro(ordenados.get(0).getIsbn());
+        catalogo.agregarLibro(new Libro("isbn-nuevo", "Título 555", "Autor"));
+        List<Libro> actuales = catalogo.streamOrdenadoPorTitulo().collect(Collectors.toList());
+        assertEquals(actuales.subList(60, 70), catalogo.obtenerPaginaPorTitulo(60, 10));
+        assertEquals(actuales.subList(70, 80), catalogo.obtenerPaginaPorTitulo(70, 10));
+        assertEquals(actuales.subList(95, 100), catalogo.obtenerPaginaPorTitulo(95, 10));
+        assertTrue(catalogo.obtenerPaginaPorTitulo(100, 10).isEmpty());
+    }
+    
+    private static List<String> isbns(Stream<Libro> libros) {
+        return libros.map(Libro::getIsbn).collect(Collectors.toList());
+    }
+    
+    @Test
+    void testConsultaCompuestaUsaLaFuenteMasSelectiva() {
+        String[] titulos = {"El nombre del viento", "El temor de un hombre sabio", "Cien años de soledad",
+                "Del amor y otros demonios", "La casa de los espíritus", "Crónica de una muerte anunciada"};
+        String[] autores = {"Patrick Rothfuss", "Gabriel García Márquez", "Isabel Allende"};
+        List<Libro> todos = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Libro libro = new Libro("isbn-" + i, titulos[i % titulos.length] + " " + i, autores[i % autores.length]);
+            catalogo.agregarLibro(libro);
+            todos.add(libro);
+            if (i % 4 == 0) {
+                libro.setEstado(Estado.PRESTADO);
+            }
+        }
+        // Un cambio de título mueve el libro al final de las listas del índice de palabras
+        todos.get(3).setTitulo("Del amor y otros demonios, edición anotada");
+        
+        String[][] criterios = {{" del ", null}, {"nombre del viento", "rothfuss"}, {"de soledad 1", "garcia marquez"},
+                {"amor", " allende"}, {"xyz", null}, {null, "isabel allende"}, {" de ", "gabriel"}, {null, "rcia m"}};
+        // Sin índices opcionales, con ambos y solo con el diccionario de autores, que también aporta candidatos
+        boolean[][] opciones = {{false, false}, {true, true}, {false, true}};
+        for (boolean[] opcion : opciones) {
+            catalogo.setBusquedaPorTrigramas(opcion[0]);
+            catalogo.setDiccionarioDeAutores(opcion[1]);
+            for (String[] criterio : criterios) {
+                for (Estado estado : new Estado[] {null, Estado.DISPONIBLE}) {
+                    Consulta consulta = new Consulta();
+                    consulta.setTitulo(criterio[0]);
+                    consulta.setAutor(criterio[1]);
+                    consulta.setEstado(estado);
+                    List<Libro> esperados = todos.stream()
+                            .filter(libro -> consulta.cumple(libro, consulta.getClaveTitulo(), consulta.getClaveAutor()))
+                            .collect(Collectors.toList());
+                    List<Libro> encontrados = catalogo.buscar(consulta);
+                    if (estado == null) {
+                        assertEquals(esperados, encontrados, consulta.toString());
+                    } else {
+                        // Partiendo del estado se sigue el orden en que los libros pasaron a ese estado
+                        assertEquals(new HashSet<>(esperados), new HashSet<>(encontrados), consulta.toString());
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    void testConsultaConIsbnVacioNoRestringe() {
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        
+        Consulta consulta = new Consulta();
+        consulta.setIsbn("  ");
+        consulta.setAutor("martin");
+        assertEquals(List.of(libro1), catalogo.buscar(consulta));
+        
+        CatalogoConcurrente concurrente = new CatalogoConcurrente();
+        concurrente.agregarLibro(libro1);
+        assertEquals(List.of(libro1), concurrente.buscar(consulta));
     }
 } 
\ No newline at end of file
@@ -0,0 +1,63 @@
+package ar.edu.um.biblioteca.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroBloomTest {
+
+    @Test
+    void testSinFalsosNegativos() {
+        FiltroBloom filtro = new FiltroBloom(1000);
+        for (int i = 0; i < 1000; i++) {
+            filtro.agregar("libro-" + i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filtro.puedeContener("libro-" + i));
+        }
+        assertEquals(1000, filtro.tamanio());
+    }
+
+    @Test
+    void testPocosFalsosPositivos() {
+        FiltroBloom filtro = new FiltroBloom(1000);
+        for (int i = 0; i < 1000; i++) {
+            filtro.agregar("libro-" + i);
+        }
+        int falsosPositivos = 0;
+        for (int i = 0; i < 10000; i++) {
+            if (filtro.puedeContener("otro-" + i)) {
+                falsosPositivos++;
+            }
+        }
+        assertTrue(falsosPositivos < 300);
+    }
+
+    @Test
+    void testFormatosDeUnMismoIsbn() {
+        FiltroBloom filtro = new FiltroBloom(10);
+        filtro.agregar("978-84-376-0494-7");
+        assertTrue(filtro.puedeContener("9788437604947"));
+        assertTrue(filtro.puedeContener("84-376-0494-X"));
+    }
+
+    @Test
+    void testVariosBloques() {
+        // 100000 identificadores ocupan 2^20 bits, repartidos en dos bloques
+        FiltroBloom filtro = new FiltroBloom(100_000);
+        for (int i = 0; i < 100_000; i++) {
+            filtro.agregar("libro-" + i);
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(filtro.puedeContener("libro-" + i));
+        }
+    }
+
+    @Test
+    void testTamanioSinDesbordamiento() {
+        assertEquals(128, FiltroBloom.bitsPara(0));
+        assertEquals(1L << 31, FiltroBloom.bitsPara(1 << 27));
+        assertEquals(1L << 32, FiltroBloom.bitsPara(1 << 28));
+        assertEquals(FiltroBloom.MAXIMO_BITS, FiltroBloom.bitsPara(Integer.MAX_VALUE));
+    }
+}
@@ -0,0 +1,98 @@
+package ar.edu.um.biblioteca.modelo;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndiceIsbnTest {
+    
+    private IndiceIsbn<String> indice;
+    
+    @BeforeEach
+    void setUp() {
+        indice = new IndiceIsbn<>();
+    }
+    
+    @Test
+    void testDistintasEscriturasDelMismoIsbn() {
+        assertNull(indice.agregarSiAusente("978-0-306-40615-7", "Libro"));
+        
+        // El mismo ISBN con otro formato se considera la misma clave
+        assertEquals("Libro", indice.agregarSiAusente("0306406152", "Otro"));
+        assertEquals("Libro", indice.buscar("9780306406157"));
+        assertTrue(indice.contiene("0-306-40615-2"));
+        
+        // Los identificadores no válidos se comparan por texto exacto
+        assertNull(indice.agregarSiAusente("isbn-1", "No estándar"));
+        assertNull(indice.buscar("ISBN-1"));
+        assertEquals(2, indice.tamanio());
+        
+        assertEquals("Libro", indice.quitar("978 0 306 40615 7"));
+        assertNull(indice.buscar("978-0-306-40615-7"));
+        assertNull(indice.buscar(null));
+        assertEquals(1, indice.tamanio());
+    }
+    
+    @Test
+    void testOperacionesAleatoriasContraHashMap() {
+        Map<Long, String> esperado = new HashMap<>();
+        Random random = new Random(42);
+        
+        for (int i = 0; i < 20000; i++) {
+            String isbn = isbnValido(9_780_000_000_00L + random.nextInt(3000));
+            long numero = Isbn.aNumero(isbn);
+            if (random.nextInt(3) == 0) {
+                assertEquals(esperado.remove(numero), indice.quitar(isbn));
+            } else {
+                assertEquals(esperado.putIfAbsent(numero, "v" + i), indice.agregarSiAusente(isbn, "v" + i));
+            }
+        }
+        
+        assertEquals(esperado.size(), indice.tamanio());
+        for (Map.Entry<Long, String> entrada : esperado.entrySet()) {
+            assertEquals(entrada.getValue(), indice.buscar(Long.toString(entrada.getKey())));
+        }
+    }
+    
+    @Test
+    void testTablaDeVariosBloques() {
+        RegistrosPorIsbn registros = new RegistrosPorIsbn(0);
+        for (int i = 0; i < 40000; i++) {
+            String isbn = isbnValido(9_780_000_000_00L + i * 7L);
+            assertNull(indice.agregarSiAusente(isbn, "v" + i));
+            assertTrue(registros.agregarSiAusente(isbn, i));
+        }
+        
+        // Las bajas desplazan claves entre bloques
+        for (int i = 0; i < 40000; i += 2) {
+            String isbn = isbnValido(9_780_000_000_00L + i * 7L);
+            assertEquals("v" + i, indice.quitar(isbn));
+            assertEquals(i, registros.quitar(isbn));
+        }
+        
+        assertEquals(20000, indice.tamanio());
+        assertEquals(20000, registros.tamanio());
+        for (int i = 0; i < 40000; i++) {
+            String isbn = isbnValido(9_780_000_000_00L + i * 7L);
+            assertEquals(i % 2 == 0 ? null : "v" + i, indice.buscar(isbn));
+            assertEquals(i % 2 == 0 ? RegistrosPorIsbn.AUSENTE : i, registros.buscar(isbn));
+        }
+    }
+    
+    /**
+     * Completa doce dígitos con el dígito verificador de ISBN-13
+     */
+    private static String isbnValido(long doceDigitos) {
+        String texto = Long.toString(doceDigitos);
+        int suma = 0;
+        for (int i = 0; i < 12; i++) {
+            suma += (texto.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+        }
+        return texto + (10 - suma % 10) % 10;
+    }
+}
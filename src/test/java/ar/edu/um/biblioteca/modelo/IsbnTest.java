@@ -0,0 +1,43 @@
+package ar.edu.um.biblioteca.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IsbnTest {
+    
+    @Test
+    void testParsearIsbn13() {
+        // Arrange & Act
+        Isbn conGuiones = Isbn.parsear("978-84-376-0494-7");
+        Isbn sinGuiones = Isbn.parsear("9788437604947");
+        
+        // Assert
+        assertEquals(9788437604947L, conGuiones.getNumero());
+        assertEquals(conGuiones, sinGuiones);
+        assertEquals(conGuiones.hashCode(), sinGuiones.hashCode());
+        assertEquals("9788437604947", conGuiones.toString());
+    }
+    
+    @Test
+    void testParsearIsbn10() {
+        // Un ISBN-10 se convierte a su ISBN-13 equivalente
+        assertEquals(Isbn.parsear("978-0-306-40615-7"), Isbn.parsear("0-306-40615-2"));
+        assertEquals(9780804429573L, Isbn.aNumero("080442957X"));
+        assertEquals("9780306406157", Isbn.normalizar("0306406152"));
+    }
+    
+    @Test
+    void testIsbnNoValidos() {
+        assertFalse(Isbn.esValido(null));
+        assertFalse(Isbn.esValido(""));
+        assertFalse(Isbn.esValido("978-84-376-0494-8")); // Dígito verificador incorrecto
+        assertFalse(Isbn.esValido("0-306-40615-3"));
+        assertFalse(Isbn.esValido("977-84-376-0494-0")); // Prefijo distinto de 978 y 979
+        assertFalse(Isbn.esValido("X-306-40615-2"));
+        assertFalse(Isbn.esValido("ISBN-NO-EXISTENTE"));
+        assertEquals(Isbn.NO_VALIDO, Isbn.aNumero("978843760494"));
+        assertEquals("isbn-1", Isbn.normalizar("isbn-1"));
+        assertThrows(IllegalArgumentException.class, () -> Isbn.parsear("123"));
+    }
+}
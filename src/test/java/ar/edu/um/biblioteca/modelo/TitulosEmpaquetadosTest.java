@@ -0,0 +1,80 @@
+package ar.edu.um.biblioteca.modelo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TitulosEmpaquetadosTest {
+
+    @Test
+    void testCoincideConContains() {
+        Random aleatorio = new Random(42);
+        String alfabeto = "abcñáé ";
+        TitulosEmpaquetados titulos = new TitulosEmpaquetados();
+        List<Libro> libros = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            StringBuilder titulo = new StringBuilder();
+            int longitud = aleatorio.nextInt(30);
+            for (int j = 0; j < longitud; j++) {
+                titulo.append(alfabeto.charAt(aleatorio.nextInt(alfabeto.length())));
+            }
+            Libro libro = new Libro("isbn-" + i, titulo.toString(), "Autor");
+            libros.add(libro);
+            titulos.agregar(libro);
+        }
+
+        String[] consultas = {"a", "ab", "abc", "n a", "cab", "aaaa", "e", "b b", "abcabcabcab"};
+        for (String consulta : consultas) {
+            List<Libro> esperados = new ArrayList<>();
+            for (Libro libro : libros) {
+                if (libro.getClaveTitulo().contains(consulta)) {
+                    esperados.add(libro);
+                }
+            }
+            assertEquals(esperados, titulos.buscar(consulta, false));
+            assertEquals(esperados, titulos.buscar(consulta, true));
+        }
+    }
+
+    @Test
+    void testBajasCambiosYCompactacion() {
+        TitulosEmpaquetados titulos = new TitulosEmpaquetados();
+        List<Libro> libros = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Libro libro = new Libro("isbn-" + i, "Título " + i, "Autor");
+            libros.add(libro);
+            titulos.agregar(libro);
+        }
+        for (int i = 0; i < 150; i++) {
+            titulos.quitar(libros.get(i));
+        }
+        Libro cambiado = libros.get(160);
+        cambiado.setTitulo("Otro nombre");
+        titulos.actualizar(cambiado);
+
+        assertEquals(50, titulos.tamanio());
+        assertEquals(List.of(cambiado), titulos.buscar("otro", false));
+        assertEquals(List.of(libros.get(199)), titulos.buscar("titulo 199", false));
+        assertEquals(49, titulos.buscar("titulo", false).size());
+        assertTrue(titulos.buscar("titulo 10", false).isEmpty());
+    }
+    
+    @Test
+    void testConsultaSoloConTildesSueltas() {
+        Catalogo catalogo = new CatalogoIndexado();
+        Libro libro1 = new Libro("isbn-1", "Rayuela", "Julio Cortázar");
+        Libro libro2 = new Libro("isbn-2", "Ficciones", "Jorge Luis Borges");
+        catalogo.agregarLibro(libro1);
+        catalogo.agregarLibro(libro2);
+        List<Libro> sinEmpaquetar = catalogo.buscarPorTitulo("\u0301");
+
+        // La consulta se normaliza a "" y, como en el recorrido normal, coincide con todos los títulos
+        catalogo.setTitulosEmpaquetados(true);
+        assertEquals(List.of(libro1, libro2), sinEmpaquetar);
+        assertEquals(sinEmpaquetar, catalogo.buscarPorTitulo("\u0301"));
+    }
+}
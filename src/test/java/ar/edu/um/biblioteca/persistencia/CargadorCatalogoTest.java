@@ -0,0 +1,145 @@
+package ar.edu.um.biblioteca.persistencia;
+
+import ar.edu.um.biblioteca.modelo.Catalogo;
+import ar.edu.um.biblioteca.modelo.CatalogoIndexado;
+import ar.edu.um.biblioteca.modelo.Estado;
+import ar.edu.um.biblioteca.modelo.Libro;
+import ar.edu.um.biblioteca.modelo.ResultadoImportacion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CargadorCatalogoTest {
+    
+    private Path archivo;
+    private Catalogo catalogo;
+    
+    @BeforeEach
+    void setUp() throws IOException {
+        archivo = Files.createTempFile("catalogo", ".csv");
+        catalogo = new CatalogoIndexado();
+    }
+    
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(archivo);
+    }
+    
+    @Test
+    void testCargarCsvConEncabezado() throws IOException {
+        // Arrange
+        Files.write(archivo, ("isbn,titulo,autor,estado\r\n" +
+                "978-84-376-0494-7,Cien años de soledad,Gabriel García Márquez\r\n" +
+                "978-84-339-7157-9,\"1984, edición especial\",George Orwell,prestado\r\n" +
+                "\r\n" +
+                "linea-sin-campos\r\n" +
+                "978-84-376-0494-7,Duplicado,Otro autor\r\n" +
+                "978-0-553-57340-0,\"El \"\"Hobbit\"\"\",J.R.R. Tolkien").getBytes(StandardCharsets.UTF_8));
+        CargadorCatalogo cargador = new CargadorCatalogo(CargadorCatalogo.SEPARADOR_CSV, true);
+        
+        // Act
+        ResultadoImportacion resultado = cargador.cargar(archivo, catalogo);
+        
+        // Assert
+        assertEquals(5, resultado.getTotal());
+        assertEquals(3, resultado.getAgregados());
+        assertEquals(1, resultado.getDuplicados());
+        assertEquals(1, resultado.getInvalidos());
+        assertEquals("Gabriel García Márquez", catalogo.buscarPorIsbn("978-84-376-0494-7").getAutor());
+        
+        Libro libro1984 = catalogo.buscarPorIsbn("978-84-339-7157-9");
+        assertEquals("1984, edición especial", libro1984.getTitulo());
+        assertEquals(Estado.PRESTADO, libro1984.getEstado());
+        assertEquals("El \"Hobbit\"", catalogo.buscarPorIsbn("978-0-553-57340-0").getTitulo());
+    }
+    
+    @Test
+    void testCargarTsvEnVariosBloques() throws IOException {
+        // Arrange: bloques de 64 bytes para forzar cortes en medio de las líneas
+        StringBuilder contenido = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            contenido.append("isbn-").append(i).append("\tTítulo número ").append(i).append("\tAutor\n");
+        }
+        Files.write(archivo, contenido.toString().getBytes(StandardCharsets.UTF_8));
+        CargadorCatalogo cargador = new CargadorCatalogo(CargadorCatalogo.SEPARADOR_TSV, false, 64);
+        
+        // Act
+        ResultadoImportacion resultado = cargador.cargar(archivo, catalogo);
+        
+        // Assert
+        assertEquals(500, resultado.getAgregados());
+        assertEquals(500, catalogo.contarLibros());
+        assertEquals("isbn-0", catalogo.obtenerPagina(0, 1).get(0).getIsbn());
+        assertEquals("Título número 499", catalogo.obtenerPagina(499, 1).get(0).getTitulo());
+    }
+    
+    @Test
+    void testImportaCadaBloqueEnOrden() throws IOException {
+        // Arrange
+        StringBuilder contenido = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            contenido.append("isbn-").append(i).append(",Título ").append(i).append(",Autor\n");
+        }
+        Files.write(archivo, contenido.toString().getBytes(StandardCharsets.UTF_8));
+        List<Integer> tamaniosImportados = new ArrayList<>();
+        Catalogo registrador = new CatalogoIndexado() {
+            @Override
+            public ResultadoImportacion agregarLibros(Collection<Libro> libros) {
+                tamaniosImportados.add(libros.size());
+                return super.agregarLibros(libros);
+            }
+        };
+        CargadorCatalogo cargador = new CargadorCatalogo(CargadorCatalogo.SEPARADOR_CSV, false, 256);
+        
+        // Act
+        ResultadoImportacion resultado = cargador.cargar(archivo, registrador);
+        
+        // Assert
+        assertTrue(tamaniosImportados.size() > 1);
+        assertEquals(100, tamaniosImportados.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(100, resultado.getTotal());
+        assertEquals(100, resultado.getAgregados());
+        for (int i = 0; i < 100; i++) {
+            assertEquals("isbn-" + i, registrador.obtenerPagina(i, 1).get(0).getIsbn());
+        }
+    }
+    
+    @Test
+    void testEstadoIndependienteDelIdioma() throws IOException {
+        Locale anterior = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            Files.write(archivo, "978-84-376-0494-7,Cien años de soledad,Gabriel García Márquez,disponible\n"
+                    .getBytes(StandardCharsets.UTF_8));
+            CargadorCatalogo cargador = new CargadorCatalogo(CargadorCatalogo.SEPARADOR_CSV, false);
+            
+            assertEquals(1, cargador.cargar(archivo, catalogo).getAgregados());
+        } finally {
+            Locale.setDefault(anterior);
+        }
+    }
+    
+    @Test
+    void testCargarArchivoInexistente() {
+        CargadorCatalogo cargador = new CargadorCatalogo(CargadorCatalogo.SEPARADOR_CSV, false);
+        assertThrows(IOException.class, () -> cargador.cargar(Paths.get("no-existe.csv"), catalogo));
+    }
+    
+    @Test
+    void testTamanioDeBloqueNoPositivo() {
+        assertThrows(IllegalArgumentException.class, () -> new CargadorCatalogo(CargadorCatalogo.SEPARADOR_CSV, false, 0));
+        assertThrows(IllegalArgumentException.class, () -> new CargadorCatalogo(CargadorCatalogo.SEPARADOR_CSV, false, -1));
+    }
+}
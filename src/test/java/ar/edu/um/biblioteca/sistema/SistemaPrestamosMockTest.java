@@ -1,6 +1,7 @@
 package ar.edu.um.biblioteca.sistema;
 
 import ar.edu.um.biblioteca.modelo.Catalogo;
+import ar.edu.um.biblioteca.modelo.CatalogoIndexado;
 import ar.edu.um.biblioteca.modelo.Estado;
 import ar.edu.um.biblioteca.modelo.Libro;
 import ar.edu.um.biblioteca.modelo.Prestamo;
@@ -9,8 +10,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -230,7 +232,7 @@ class SistemaPrestamosMockTest {
         try {
             java.lang.reflect.Field field = SistemaPrestamos.class.getDeclaredField("prestamosActivos");
             field.setAccessible(true);
-            List<Prestamo> prestamos = new ArrayList<>();
+            Set<Prestamo> prestamos = new LinkedHashSet<>();
             prestamos.add(prestamoVencidoMock);
             prestamos.add(prestamoNoVencidoMock);
             field.set(sistemaConPrestamos, prestamos);
@@ -262,4 +264,24 @@ class SistemaPrestamosMockTest {
         assertFalse(sistemaPrestamos.libroEstaPrestado(ISBN_LIBRO_PRESTADO));
         assertFalse(sistemaPrestamos.libroEstaPrestado(ISBN_INEXISTENTE));
     }
+    
+    @Test
+    void testDevolverLibroDespuesDeCambiarSuIsbn() {
+        // Arrange: un catálogo real, que notifica los cambios de ISBN
+        Catalogo catalogo = new CatalogoIndexado();
+        Libro libro = new Libro(ISBN_LIBRO_DISPONIBLE, "Clean Code", "Robert C. Martin");
+        catalogo.agregarLibro(libro);
+        SistemaPrestamos sistema = new SistemaPrestamos(catalogo);
+        assertNotNull(sistema.prestarLibro(ISBN_LIBRO_DISPONIBLE));
+        
+        // Act
+        libro.setIsbn("978-0-306-40615-7");
+        
+        // Assert
+        assertTrue(sistema.libroEstaPrestado("978-0-306-40615-7"));
+        assertFalse(sistema.libroEstaPrestado(ISBN_LIBRO_DISPONIBLE));
+        assertTrue(sistema.devolverLibro("978-0-306-40615-7"));
+        assertEquals(0, sistema.contarPrestamosActivos());
+        assertEquals(Estado.DISPONIBLE, libro.getEstado());
+    }
 } 
\ No newline at end of file
@@ -317,4 +317,86 @@ class ConsolaUITest {
         String output = outputStream.toString();
         assertTrue(output.contains("Préstamo extendido correctamente"));
     }
+    
+    @Test
+    void testMostrarTodosLosLibrosPorPaginas() {
+        // Configurar la entrada simulada: orden de ingreso y volver al terminar la primera página
+        String input = "1\nq\n";
+        System.setIn(new ByteArrayInputStream(input.getBytes()));
+        
+        // Configurar comportamiento del mock con más libros que los de una página
+        when(catalogoMock.streamLibros()).thenReturn(crearLibros(25).stream());
+        
+        // Ejecutar el método a probar
+        ConsolaUI ui = new ConsolaUI(catalogoMock, sistemaPrestamos);
+        ui.mostrarTodosLosLibros();
+        
+        // Verificar el output
+        String output = outputStream.toString();
+        assertTrue(output.contains("1. Orden de ingreso"));
+        assertTrue(output.contains("Presione Enter para ver más libros"));
+        assertTrue(output.contains("Título: Libro 20"));
+        assertFalse(output.contains("Título: Libro 21"));
+    }
+    
+    @Test
+    void testMostrarTodosLosLibrosContinuaConEnter() {
+        // Configurar la entrada simulada: orden de ingreso y Enter para ver la segunda página
+        String input = "1\n\n";
+        System.setIn(new ByteArrayInputStream(input.getBytes()));
+        
+        when(catalogoMock.streamLibros()).thenReturn(crearLibros(25).stream());
+        
+        ConsolaUI ui = new ConsolaUI(catalogoMock, sistemaPrestamos);
+        ui.mostrarTodosLosLibros();
+        
+        // Solo se pregunta al completar una página a la que le siguen más libros
+        String output = outputStream.toString();
+        assertTrue(output.contains("Título: Libro 25"));
+        assertEquals(1, output.split("Presione Enter", -1).length - 1);
+    }
+    
+    @Test
+    void testMostrarTodosLosLibrosOrdenados() {
+        // Configurar la entrada simulada: ordenar por título
+        System.setIn(new ByteArrayInputStream("2\n".getBytes()));
+        when(catalogoMock.streamOrdenadoPorTitulo()).thenReturn(List.of(libroMock).stream());
+        
+        ConsolaUI ui = new ConsolaUI(catalogoMock, sistemaPrestamos);
+        ui.mostrarTodosLosLibros();
+        
+        // Verificar las interacciones
+        verify(catalogoMock).streamOrdenadoPorTitulo();
+        verify(catalogoMock, never()).streamLibros();
+        assertTrue(outputStream.toString().contains("Título: Clean Code"));
+        
+        // Ordenar por autor
+        System.setIn(new ByteArrayInputStream("3\n".getBytes()));
+        when(catalogoMock.streamOrdenadoPorAutor()).thenReturn(List.of(libroMock).stream());
+        
+        ui = new ConsolaUI(catalogoMock, sistemaPrestamos);
+        ui.mostrarTodosLosLibros();
+        
+        verify(catalogoMock).streamOrdenadoPorAutor();
+        verify(catalogoMock, never()).streamLibros();
+    }
+    
+    @Test
+    void testMostrarTodosLosLibrosCatalogoVacio() {
+        System.setIn(new ByteArrayInputStream("1\n".getBytes()));
+        when(catalogoMock.streamLibros()).thenReturn(new ArrayList<Libro>().stream());
+        
+        ConsolaUI ui = new ConsolaUI(catalogoMock, sistemaPrestamos);
+        ui.mostrarTodosLosLibros();
+        
+        assertTrue(outputStream.toString().contains("El catálogo está vacío."));
+    }
+    
+    private static List<Libro> crearLibros(int cantidad) {
+        List<Libro> libros = new ArrayList<>();
+        for (int i = 1; i <= cantidad; i++) {
+            libros.add(new Libro("isbn-" + i, "Libro " + i, "Autor " + i));
+        }
+        return libros;
+    }
 } 
\ No newline at end of file